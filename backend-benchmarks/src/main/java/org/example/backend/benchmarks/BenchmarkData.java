@@ -0,0 +1,47 @@
+package org.example.backend.benchmarks;
+
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Money;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic fixtures so numbers from different runs (and before/after a change) are comparable.
+ */
+public final class BenchmarkData {
+
+    static final List<String> CATEGORIES = List.of("Food", "Transport", "Housing", "Health", "Leisure", "Other");
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    public static List<Expense> expenses(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expenses.add(new Expense(new ObjectId().toHexString(),
+                    "Expense " + i,
+                    random.nextLong(50, 50_000),
+                    CATEGORIES.get(random.nextInt(CATEGORIES.size())),
+                    FIRST_DAY.plusDays(random.nextInt(5 * 365))));
+        }
+        return expenses;
+    }
+
+    public static List<ExpenseDTO> expenseDTOs(int count) {
+        List<ExpenseDTO> dtos = new ArrayList<>(count);
+        for (Expense expense : expenses(count)) {
+            dtos.add(new ExpenseDTO(expense.getId(), expense.getDescription(),
+                    Money.fromMinorUnits(expense.getAmountCents(), expense.getCurrency()), expense.getCurrency(),
+                    expense.getCategory(), expense.getDate()));
+        }
+        return dtos;
+    }
+}
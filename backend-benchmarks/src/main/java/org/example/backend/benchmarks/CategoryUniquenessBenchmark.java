@@ -0,0 +1,65 @@
+package org.example.backend.benchmarks;
+
+import org.example.backend.dto.CategoryDTO;
+import org.example.backend.model.Category;
+import org.example.backend.repository.CategoryRepository;
+import org.example.backend.service.CategoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The name-uniqueness check that guards createCategory. There is no lookup: the insert itself is
+ * rejected by the unique (tenantId, name) index, and the service turns the DuplicateKeyException
+ * into the IllegalArgumentException a duplicate gets, so a rejected create costs one failed insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryUniquenessBenchmark {
+
+    private static final String EXISTING = "Food";
+
+    private EmbeddedBackend backend;
+    private CategoryRepository categoryRepository;
+    private CategoryService categoryService;
+    private CategoryDTO duplicate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        backend = EmbeddedBackend.start();
+        categoryRepository = backend.bean(CategoryRepository.class);
+        categoryService = backend.bean(CategoryService.class);
+        categoryRepository.deleteAll();
+        BenchmarkData.CATEGORIES.forEach(name -> categoryRepository.save(new Category(null, name)));
+        duplicate = new CategoryDTO(null, EXISTING);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Benchmark
+    public Object createDuplicateCategory() {
+        try {
+            return categoryService.createCategory(duplicate);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.backend.benchmarks;
+
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.example.backend.BackendApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts an embedded mongod and the backend's Spring context (without the web server) against it,
+ * so end-to-end benchmarks go through the real repositories, converters and caches.
+ */
+public final class EmbeddedBackend implements AutoCloseable {
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedBackend(TransitionWalker.ReachedState<RunningMongodProcess> mongod,
+                            ConfigurableApplicationContext context) {
+        this.mongod = mongod;
+        this.context = context;
+    }
+
+    public static EmbeddedBackend start() {
+        TransitionWalker.ReachedState<RunningMongodProcess> mongod = Mongod.instance().start(Version.Main.V7_0);
+        try {
+            String uri = "mongodb://" + mongod.current().getServerAddress() + "/benchmarks";
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .logStartupInfo(false)
+                    .run("--spring.data.mongodb.uri=" + uri,
+                            "--logging.level.root=WARN");
+            return new EmbeddedBackend(mongod, context);
+        } catch (RuntimeException e) {
+            mongod.close();
+            throw e;
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        try {
+            context.close();
+        } finally {
+            mongod.close();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.backend.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.backend.dto.ExpenseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list payload returned by GET /api/expenses, with the same
+ * ObjectMapper defaults Spring Boot applies to the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExpenseSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<ExpenseDTO> expenses;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ExpenseDTO.class));
+        expenses = BenchmarkData.expenseDTOs(size);
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), expenses);
+    }
+
+    @Benchmark
+    public byte[] writeToBytes() throws IOException {
+        return writer.writeValueAsBytes(expenses);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.backend.benchmarks;
+
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.model.Expense;
+import org.example.backend.service.ExpenseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExpenseService.getAllExpenses end to end: Mongo query, entity mapping and DTO conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GetAllExpensesBenchmark {
+
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private EmbeddedBackend backend;
+    private ExpenseService expenseService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        backend = EmbeddedBackend.start();
+        MongoTemplate mongoTemplate = backend.bean(MongoTemplate.class);
+        mongoTemplate.dropCollection(Expense.class);
+        List<Expense> expenses = BenchmarkData.expenses(size);
+        for (int start = 0; start < expenses.size(); start += INSERT_BATCH) {
+            mongoTemplate.insert(expenses.subList(start, Math.min(start + INSERT_BATCH, expenses.size())), Expense.class);
+        }
+        expenseService = backend.bean(ExpenseService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Benchmark
+    public List<ExpenseDTO> getAllExpenses() {
+        return expenseService.getAllExpenses();
+    }
+}
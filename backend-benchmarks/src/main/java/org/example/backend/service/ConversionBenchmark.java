@@ -0,0 +1,50 @@
+package org.example.backend.service;
+
+import org.example.backend.benchmarks.BenchmarkData;
+import org.example.backend.dto.CategoryDTO;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.model.Category;
+import org.example.backend.model.Expense;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping. Lives in the service package because the converters are package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    private Expense expense;
+    private Category category;
+
+    @Setup
+    public void setUp() {
+        expense = BenchmarkData.expenses(1).getFirst();
+        category = new Category("64b7f0c2a1d3e4f5a6b7c8d9", "Food");
+    }
+
+    @Benchmark
+    public ExpenseDTO expenseToDTO() {
+        return ExpenseService.convertToDTO(expense);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToDTO() {
+        return CategoryService.convertToDTO(category);
+    }
+}
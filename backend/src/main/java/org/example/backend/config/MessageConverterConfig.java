@@ -0,0 +1,31 @@
+package org.example.backend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.example.backend.dto.ExpenseColumnsDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+/**
+ * CBOR for every endpoint that produces JSON, and for the columnar expense list. The mapper comes
+ * from Boot's builder so dates and other settings serialize exactly as they do in JSON.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MessageConverterConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        MappingJackson2CborHttpMessageConverter converter =
+                new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+        converter.setSupportedMediaTypes(List.of(
+                MediaType.APPLICATION_CBOR,
+                MediaType.parseMediaType(ExpenseColumnsDTO.CBOR_MEDIA_TYPE)));
+        return converter;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.backend.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Meters on top of what Spring Boot records by itself. Boot already times every request
+ * ({@code http.server.requests}), every repository method ({@code spring.data.repository.invocations}),
+ * every Mongo command ({@code mongodb.driver.commands}), the category caches and the JVM; the
+ * difference between a request and the Mongo time under it is serialization and service work.
+ * Components with their own counters (limiter, ingest buffer, idempotency cache) bind them as
+ * {@link io.micrometer.core.instrument.binder.MeterBinder}s.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    /**
+     * Backs the {@code @Timed} annotations on the services, which record {@code service.calls}.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public ResponseSizeMetricsFilter responseSizeMetricsFilter(MeterRegistry meterRegistry) {
+        return new ResponseSizeMetricsFilter(meterRegistry);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.backend.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.example.backend.repository.CategoryRepository;
+import org.example.backend.repository.ExpenseRepository;
+import org.example.backend.service.MongoConcurrencyLimiter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Routes every call on the blocking expense and category repositories through the
+ * {@link MongoConcurrencyLimiter}. The advice is added as a repository proxy post-processor, so it
+ * sits inside the repository proxy and outside the query execution, and cached lookups layered on
+ * top never take a permit. A call returning a {@link Stream} takes a permit from the separate
+ * stream pool instead, and holds it until the stream is closed.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MongoLimiterConfig {
+
+    private static final Set<Class<?>> LIMITED_REPOSITORIES = Set.of(ExpenseRepository.class, CategoryRepository.class);
+
+    @Bean
+    static BeanPostProcessor mongoLimiterRepositoryPostProcessor(ObjectProvider<MongoConcurrencyLimiter> limiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> {
+                                if (LIMITED_REPOSITORIES.contains(information.getRepositoryInterface())) {
+                                    proxyFactory.addAdvice(limitingInterceptor(limiter.getObject()));
+                                }
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor limitingInterceptor(MongoConcurrencyLimiter limiter) {
+        return invocation -> {
+            if (!Stream.class.isAssignableFrom(invocation.getMethod().getReturnType())) {
+                limiter.acquire();
+                try {
+                    return invocation.proceed();
+                } finally {
+                    limiter.release();
+                }
+            }
+            // A stream reads from an open cursor until it is closed, so it keeps the permit until then.
+            limiter.acquireStream();
+            boolean opened = false;
+            try {
+                Stream<?> stream = (Stream<?>) invocation.proceed();
+                opened = stream != null;
+                if (!opened) {
+                    return null;
+                }
+                AtomicBoolean released = new AtomicBoolean();
+                return stream.onClose(() -> {
+                    if (released.compareAndSet(false, true)) {
+                        limiter.releaseStream();
+                    }
+                });
+            } finally {
+                if (!opened) {
+                    limiter.releaseStream();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.backend.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.example.backend.service.MongoCommandMonitor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+/**
+ * Registers the command listeners on the Mongo client. Spring Data's observation listener turns
+ * every command into a span; the context provider hands it the observation of the current request,
+ * so those spans are children of the {@code http.server.requests} span and are exported over OTLP
+ * together with it. The {@link MongoCommandMonitor} adds document counts, slow query logging and
+ * sampled explains on top of the timers Boot already records.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MongoObservabilityConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservabilityCustomizer(ObservationRegistry observationRegistry,
+                                                                             MongoCommandMonitor monitor) {
+        return settings -> settings
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry))
+                .addCommandListener(monitor);
+    }
+}
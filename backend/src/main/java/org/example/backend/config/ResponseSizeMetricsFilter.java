@@ -0,0 +1,117 @@
+package org.example.backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the size of every response body as {@code http.server.response.size}, tagged like
+ * {@code http.server.requests}. Bytes are counted before Tomcat compresses them, so this is the
+ * amount of JSON (or CBOR) the server had to produce. Streamed (async) responses are not counted.
+ */
+public class ResponseSizeMetricsFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "http.server.response.size";
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseSizeMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingResponse counting = new CountingResponse(response);
+        boolean failed = true;
+        try {
+            chain.doFilter(request, counting);
+            failed = false;
+        } finally {
+            if (!request.isAsyncStarted()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder(METRIC)
+                        .baseUnit("bytes")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                        // An exception escaping the chain becomes a 500 error page further out.
+                        .tag("status", failed ? "500" : Integer.toString(response.getStatus()))
+                        .register(meterRegistry)
+                        .record(counting.bytesWritten());
+            }
+        }
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private CountingOutputStream outputStream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        private long bytesWritten() {
+            return outputStream == null ? 0 : outputStream.count;
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        private CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.backend.config;
+
+import org.example.backend.model.Tenant;
+import org.example.backend.service.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves the tenant of every request before any handler runs: the servlet stack binds it to the
+ * request thread, the WebFlux stack writes it into the Reactor context. See {@link TenantFilter}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class TenantConfig {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<TenantFilter> tenantFilter(@Value("${tenancy.require-header:false}") boolean requireHeader) {
+        FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(new TenantFilter(requireHeader));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public WebFilter reactiveTenantFilter(@Value("${tenancy.require-header:false}") boolean requireHeader) {
+        return (exchange, chain) -> {
+            if (exchange.getRequest().getPath().value().startsWith("/actuator")) {
+                return chain.filter(exchange);
+            }
+            String header = exchange.getRequest().getHeaders().getFirst(Tenant.HEADER);
+            if (requireHeader && (header == null || header.isBlank())) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, Tenant.HEADER + " header is required."));
+            }
+            String tenantId;
+            try {
+                tenantId = Tenant.id(header);
+            } catch (IllegalArgumentException ex) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage()));
+            }
+            return chain.filter(exchange).contextWrite(context -> TenantContext.withTenant(context, tenantId));
+        };
+    }
+}
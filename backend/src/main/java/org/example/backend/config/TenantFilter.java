@@ -0,0 +1,51 @@
+package org.example.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.backend.model.Tenant;
+import org.example.backend.service.TenantContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the tenant named by the {@value Tenant#HEADER} header to the request thread. Requests
+ * without the header belong to the default tenant, unless {@code tenancy.require-header} is set,
+ * in which case they are rejected. Actuator endpoints are not tenant data and are left alone.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final boolean requireHeader;
+
+    public TenantFilter(boolean requireHeader) {
+        this.requireHeader = requireHeader;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(Tenant.HEADER);
+        if (requireHeader && (header == null || header.isBlank())) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), Tenant.HEADER + " header is required.");
+            return;
+        }
+        String tenantId;
+        try {
+            tenantId = Tenant.id(header);
+        } catch (IllegalArgumentException ex) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+            return;
+        }
+        try (TenantContext.Scope ignored = TenantContext.bind(tenantId)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
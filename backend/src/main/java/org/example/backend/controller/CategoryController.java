@@ -1,15 +1,25 @@
 package org.example.backend.controller;
 
+import org.example.backend.dto.CacheStatsDTO;
+import org.example.backend.dto.CategoryCascadeJobDTO;
 import org.example.backend.dto.CategoryDTO;
+import org.example.backend.dto.PageDTO;
 import org.example.backend.exception.CategoryNotFoundException;
+import org.example.backend.service.CacheStatsService;
+import org.example.backend.service.CategoryCascadeService;
+import org.example.backend.service.CollectionVersions;
 import org.example.backend.service.CategoryService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
 
@@ -19,12 +29,54 @@ import lombok.RequiredArgsConstructor;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CacheStatsService cacheStatsService;
+    private final CollectionVersions collectionVersions;
+    private final CategoryCascadeService categoryCascadeService;
 
     @GetMapping
-    public List<CategoryDTO> getAllCategories() {
+    public List<CategoryDTO> getAllCategories(ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, collectionVersions, CollectionVersions.CATEGORIES)) {
+            return null;
+        }
         return categoryService.getAllCategories();
     }
 
+    @GetMapping("/page")
+    public PageDTO<CategoryDTO> getCategoryPage(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "${pagination.default-size:50}") int size,
+                                                ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, collectionVersions, CollectionVersions.CATEGORIES)) {
+            return null;
+        }
+        PageDTO<CategoryDTO> page = categoryService.getCategoryPage(cursor, size);
+        if (page.getNextCursor() != null) {
+            page.setNext(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .toUriString());
+        }
+        return page;
+    }
+
+    @GetMapping("/cache/stats")
+    public List<CacheStatsDTO> getCacheStats() {
+        return cacheStatsService.getCategoryCacheStats();
+    }
+
+    @GetMapping("/cascades")
+    public List<CategoryCascadeJobDTO> getCascadeJobs() {
+        return categoryCascadeService.getRecentJobs();
+    }
+
+    @GetMapping("/cascades/{jobId}")
+    public CategoryCascadeJobDTO getCascadeJob(@PathVariable String jobId) {
+        return categoryCascadeService.getJob(jobId);
+    }
+
+    @PostMapping("/cascades/{jobId}/retry")
+    public CategoryCascadeJobDTO retryCascadeJob(@PathVariable String jobId) {
+        return categoryCascadeService.retryJob(jobId);
+    }
+
     @PostMapping
     public CategoryDTO createCategory(@RequestBody CategoryDTO categoryDTO) {
         return categoryService.createCategory(categoryDTO);
@@ -41,7 +93,10 @@ public class CategoryController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable String id) {
+    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable String id, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, collectionVersions, CollectionVersions.CATEGORIES)) {
+            return null;
+        }
         return categoryService.getCategoryById(id)
                 .map(categoryDTO -> new ResponseEntity<>(categoryDTO, HttpStatus.OK))
                 .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + id));
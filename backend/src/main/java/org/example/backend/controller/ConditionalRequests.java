@@ -0,0 +1,66 @@
+package org.example.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.backend.model.Tenant;
+import org.example.backend.service.CollectionVersions;
+import org.example.backend.service.TenantContext;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.URI;
+
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Sets the ETag for the current request from the collection version and reports whether the
+     * client's If-None-Match already matches it, in which case the response is a 304 and the
+     * handler should return without loading anything. The Accept header is part of the tag, since
+     * the same URL can be served as JSON, CBOR or columnar, and so is the tenant, since each
+     * tenant sees different data behind it.
+     */
+    static boolean notModified(ServletWebRequest webRequest, CollectionVersions versions, String collection) {
+        HttpServletRequest request = webRequest.getRequest();
+        String resource = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null) {
+            resource = resource + "|" + accept;
+        }
+        resource = TenantContext.current() + "|" + resource;
+        HttpServletResponse response = webRequest.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            response.addHeader(HttpHeaders.VARY, Tenant.HEADER);
+        }
+        return webRequest.checkNotModified(versions.etag(collection, resource));
+    }
+
+    /**
+     * WebFlux variant of {@link #notModified(ServletWebRequest, CollectionVersions, String)}; both
+     * produce the same tag for the same path and query. The tenant filter has already validated
+     * the tenant header by the time a handler runs.
+     */
+    static boolean notModified(ServerWebExchange exchange, CollectionVersions versions, String collection) {
+        URI uri = exchange.getRequest().getURI();
+        String resource = uri.getRawQuery() == null
+                ? uri.getRawPath()
+                : uri.getRawPath() + "?" + uri.getRawQuery();
+        String accept = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT);
+        if (accept != null) {
+            resource = resource + "|" + accept;
+        }
+        resource = Tenant.id(exchange.getRequest().getHeaders().getFirst(Tenant.HEADER)) + "|" + resource;
+        exchange.getResponse().getHeaders().setCacheControl(CacheControl.noCache());
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, Tenant.HEADER);
+        return exchange.checkNotModified(versions.etag(collection, resource));
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.BulkResultDTO;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.service.ExpenseBulkService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/expenses/bulk")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class ExpenseBulkController {
+
+    private final ExpenseBulkService expenseBulkService;
+
+    @PostMapping
+    public BulkResultDTO createExpenses(@RequestBody List<ExpenseDTO> expenses,
+                                        @RequestParam(defaultValue = "${bulk.chunk-size:1000}") int chunkSize) {
+        return expenseBulkService.createExpenses(expenses, chunkSize);
+    }
+
+    @PutMapping
+    public BulkResultDTO upsertExpenses(@RequestBody List<ExpenseDTO> expenses,
+                                        @RequestParam(defaultValue = "${bulk.chunk-size:1000}") int chunkSize) {
+        return expenseBulkService.upsertExpenses(expenses, chunkSize);
+    }
+
+    @PostMapping("/delete")
+    public BulkResultDTO deleteExpenses(@RequestBody List<String> ids,
+                                        @RequestParam(defaultValue = "${bulk.chunk-size:1000}") int chunkSize) {
+        return expenseBulkService.deleteExpenses(ids, chunkSize);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
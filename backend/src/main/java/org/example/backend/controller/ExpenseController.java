@@ -1,42 +1,176 @@
 
 package org.example.backend.controller;
 
+import org.example.backend.dto.ExpenseColumnsDTO;
 import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.dto.PageDTO;
+import org.example.backend.dto.SuggestionsDTO;
 import org.example.backend.exception.ExpenseNotFoundException;
+import org.example.backend.service.CollectionVersions;
+import org.example.backend.service.ExpenseExportService;
+import org.example.backend.service.ExpenseIngestService;
+import org.example.backend.service.ExpenseSearchService;
 import org.example.backend.service.ExpenseService;
+import org.example.backend.service.SuggestionService;
+import org.example.backend.service.IdempotencyService;
+import org.example.backend.service.ExportFormat;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.UnaryOperator;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/expenses")
 @CrossOrigin(origins = "http://localhost:5173")
 public class ExpenseController {
 
-    private final ExpenseService expenseService;
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 
-    public ExpenseController(ExpenseService expenseService) {
+    private final ExpenseService expenseService;
+    private final ExpenseExportService expenseExportService;
+    private final CollectionVersions collectionVersions;
+    private final ExpenseIngestService expenseIngestService;
+    private final IdempotencyService idempotencyService;
+    private final ExpenseSearchService expenseSearchService;
+    private final SuggestionService suggestionService;
+
+    public ExpenseController(ExpenseService expenseService, ExpenseExportService expenseExportService,
+                             CollectionVersions collectionVersions, ExpenseIngestService expenseIngestService,
+                             IdempotencyService idempotencyService, ExpenseSearchService expenseSearchService,
+                             SuggestionService suggestionService) {
         this.expenseService = expenseService;
+        this.expenseExportService = expenseExportService;
+        this.collectionVersions = collectionVersions;
+        this.expenseIngestService = expenseIngestService;
+        this.idempotencyService = idempotencyService;
+        this.expenseSearchService = expenseSearchService;
+        this.suggestionService = suggestionService;
     }
 
     @GetMapping
-    public List<ExpenseDTO> getAllExpenses() {
-        return expenseService.getAllExpenses();
+    public List<ExpenseDTO> getAllExpenses(ExpenseFilter filter, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, collectionVersions, CollectionVersions.EXPENSES)) {
+            return null;
+        }
+        return expenseService.searchExpenses(filter);
+    }
+
+    @GetMapping(produces = {ExpenseColumnsDTO.JSON_MEDIA_TYPE, ExpenseColumnsDTO.CBOR_MEDIA_TYPE})
+    public ExpenseColumnsDTO getAllExpenseColumns(ExpenseFilter filter, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, collectionVersions, CollectionVersions.EXPENSES)) {
+            return null;
+        }
+        return expenseService.searchExpenseColumns(filter);
+    }
+
+    @GetMapping("/page")
+    public PageDTO<ExpenseDTO> getExpensePage(ExpenseFilter filter,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "${pagination.default-size:50}") int size,
+                                              ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, collectionVersions, CollectionVersions.EXPENSES)) {
+            return null;
+        }
+        PageDTO<ExpenseDTO> page = expenseService.getExpensePage(filter, cursor, size);
+        if (page.getNextCursor() != null) {
+            page.setNext(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .toUriString());
+        }
+        return page;
+    }
+
+    @GetMapping("/search")
+    public List<ExpenseDTO> searchExpenses(@RequestParam String q, ExpenseFilter filter,
+                                           @RequestParam(defaultValue = "20") int limit,
+                                           ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, collectionVersions, CollectionVersions.EXPENSES)) {
+            return null;
+        }
+        return expenseSearchService.search(q, filter, limit);
+    }
+
+    @GetMapping("/suggest")
+    public SuggestionsDTO suggest(@RequestParam(defaultValue = "") String prefix,
+                                  @RequestParam(defaultValue = "10") int limit) {
+        return suggestionService.suggest(prefix, limit);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(ExpenseFilter filter,
+                                                                @RequestParam(defaultValue = "ndjson") String format,
+                                                                WebRequest request) {
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        ExpenseExportService.Export export = expenseExportService.exportExpenses(filter, exportFormat);
+        // The body runs as an async task. When it never does (a timeout, a rejected task), the
+        // cursor and its permit are still released once the request completes.
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(export, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest completed, Callable<T> task) {
+                export.close();
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=expenses." + exportFormat.getFileExtension())
+                .body(export);
     }
 
 
 
     @PostMapping
-    public ExpenseDTO createExpense(@RequestBody ExpenseDTO expenseDTO) {
-        return expenseService.createExpense(expenseDTO);
+    public ResponseEntity<ExpenseDTO> createExpense(@RequestBody ExpenseDTO expenseDTO,
+                                                    @RequestHeader(value = "Prefer", required = false) String prefer,
+                                                    @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        boolean async = prefer != null && prefer.contains(RESPOND_ASYNC);
+        // Journaled and buffered on the async path; the expense becomes visible once the background flush writes it.
+        UnaryOperator<ExpenseDTO> create = async ? expenseIngestService::enqueue : expenseService::createExpense;
+        ExpenseDTO created;
+        boolean replayed = false;
+        if (idempotencyKey != null) {
+            IdempotencyService.Result result = idempotencyService.createOnce(idempotencyKey, expenseDTO, create);
+            created = result.expense();
+            replayed = result.replayed();
+        } else {
+            created = create.apply(expenseDTO);
+        }
+
+        ResponseEntity.BodyBuilder response = async
+                ? ResponseEntity.accepted()
+                        .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                                .path("/{id}")
+                                .buildAndExpand(created.getId())
+                                .toUri())
+                        .header("Preference-Applied", RESPOND_ASYNC)
+                : ResponseEntity.ok();
+        if (replayed) {
+            response.header("Idempotent-Replayed", "true");
+        }
+        return response.body(created);
     }
 
 
     @GetMapping("/{id}")
-    public ExpenseDTO getExpenseById(@PathVariable String id) {
+    public ExpenseDTO getExpenseById(@PathVariable String id, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, collectionVersions, CollectionVersions.EXPENSES)) {
+            return null;
+        }
         return expenseService.getExpenseById(id)
                 .orElseThrow(() -> new ExpenseNotFoundException("Expense not found with id: " + id));
     }
@@ -56,5 +190,10 @@ public class ExpenseController {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
 
 }
\ No newline at end of file
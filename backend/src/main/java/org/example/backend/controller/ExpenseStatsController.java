@@ -0,0 +1,51 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.dto.ExpenseStatsDTO;
+import org.example.backend.dto.RollupVerificationDTO;
+import org.example.backend.service.CollectionVersions;
+import org.example.backend.service.ExpenseRollupService;
+import org.example.backend.service.ExpenseStatsService;
+import org.example.backend.service.StatsPeriod;
+import org.example.backend.service.StatsSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/expenses/stats")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class ExpenseStatsController {
+
+    private final ExpenseStatsService expenseStatsService;
+    private final ExpenseRollupService expenseRollupService;
+    private final CollectionVersions collectionVersions;
+
+    @GetMapping
+    public ExpenseStatsDTO getStats(ExpenseFilter filter,
+                                    @RequestParam(defaultValue = "month") String period,
+                                    @RequestParam(defaultValue = "live") String source,
+                                    ServletWebRequest request) {
+        StatsPeriod statsPeriod = StatsPeriod.fromValue(period);
+        StatsSource statsSource = StatsSource.fromValue(source);
+        if (ConditionalRequests.notModified(request, collectionVersions, CollectionVersions.EXPENSES)) {
+            return null;
+        }
+        return expenseStatsService.getStats(filter, statsPeriod, statsSource);
+    }
+
+    @GetMapping("/rollups/verify")
+    public RollupVerificationDTO verifyRollups() {
+        return expenseRollupService.verify();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
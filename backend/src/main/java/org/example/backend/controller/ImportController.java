@@ -0,0 +1,51 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.ImportJobDTO;
+import org.example.backend.exception.ImportJobNotFoundException;
+import org.example.backend.service.ExpenseImportService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class ImportController {
+
+    private final ExpenseImportService expenseImportService;
+
+    @PostMapping
+    public ResponseEntity<ImportJobDTO> startImport(@RequestParam("file") MultipartFile file,
+                                                    @RequestParam(required = false) String format) throws IOException {
+        ImportJobDTO job = expenseImportService.startImport(file, format);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}")
+                        .buildAndExpand(job.getId())
+                        .toUri())
+                .body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ImportJobDTO getImportJob(@PathVariable String id) {
+        return expenseImportService.getJob(id);
+    }
+
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<String> handleImportJobNotFoundException(ImportJobNotFoundException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.MongoLimiterStatsDTO;
+import org.example.backend.service.MongoConcurrencyLimiter;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class MetricsController {
+
+    private final MongoConcurrencyLimiter mongoConcurrencyLimiter;
+
+    @GetMapping("/mongo-limiter")
+    public MongoLimiterStatsDTO getMongoLimiterStats() {
+        return mongoConcurrencyLimiter.getStats();
+    }
+}
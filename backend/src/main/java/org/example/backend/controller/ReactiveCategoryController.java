@@ -0,0 +1,68 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CategoryDTO;
+import org.example.backend.exception.CategoryNotFoundException;
+import org.example.backend.service.CollectionVersions;
+import org.example.backend.service.ReactiveCategoryService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReactiveCategoryController {
+
+    private final ReactiveCategoryService categoryService;
+    private final CollectionVersions collectionVersions;
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CategoryDTO> getAllCategories(ServerWebExchange exchange) {
+        if (ConditionalRequests.notModified(exchange, collectionVersions, CollectionVersions.CATEGORIES)) {
+            return Flux.empty();
+        }
+        return categoryService.getAllCategories();
+    }
+
+    @PostMapping
+    public Mono<CategoryDTO> createCategory(@RequestBody CategoryDTO categoryDTO) {
+        return categoryService.createCategory(categoryDTO);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<CategoryDTO> updateCategory(@PathVariable String id, @RequestBody CategoryDTO updatedCategoryDTO) {
+        return categoryService.updateCategory(id, updatedCategoryDTO);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteCategory(@PathVariable String id) {
+        return categoryService.deleteCategory(id);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<CategoryDTO> getCategoryById(@PathVariable String id, ServerWebExchange exchange) {
+        if (ConditionalRequests.notModified(exchange, collectionVersions, CollectionVersions.CATEGORIES)) {
+            return Mono.empty();
+        }
+        return categoryService.getCategoryById(id)
+                .switchIfEmpty(Mono.error(() -> new CategoryNotFoundException("Category not found with id: " + id)));
+    }
+
+    @ExceptionHandler(CategoryNotFoundException.class)
+    public ResponseEntity<String> handleCategoryNotFoundException(CategoryNotFoundException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
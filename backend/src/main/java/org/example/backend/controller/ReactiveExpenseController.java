@@ -0,0 +1,70 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.exception.ExpenseNotFoundException;
+import org.example.backend.service.CollectionVersions;
+import org.example.backend.service.ReactiveExpenseService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/expenses")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReactiveExpenseController {
+
+    private final ReactiveExpenseService expenseService;
+    private final CollectionVersions collectionVersions;
+
+    // application/x-ndjson streams one expense per line with back-pressure; JSON clients get an array.
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ExpenseDTO> getAllExpenses(ExpenseFilter filter, ServerWebExchange exchange) {
+        if (ConditionalRequests.notModified(exchange, collectionVersions, CollectionVersions.EXPENSES)) {
+            return Flux.empty();
+        }
+        return expenseService.searchExpenses(filter);
+    }
+
+    @PostMapping
+    public Mono<ExpenseDTO> createExpense(@RequestBody ExpenseDTO expenseDTO) {
+        return expenseService.createExpense(expenseDTO);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ExpenseDTO> getExpenseById(@PathVariable String id, ServerWebExchange exchange) {
+        if (ConditionalRequests.notModified(exchange, collectionVersions, CollectionVersions.EXPENSES)) {
+            return Mono.empty();
+        }
+        return expenseService.getExpenseById(id)
+                .switchIfEmpty(Mono.error(() -> new ExpenseNotFoundException("Expense not found with id: " + id)));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ExpenseDTO> updateExpense(@PathVariable String id, @RequestBody ExpenseDTO updatedExpenseDTO) {
+        return expenseService.updateExpense(id, updatedExpenseDTO);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteExpense(@PathVariable String id) {
+        return expenseService.deleteExpense(id);
+    }
+
+    @ExceptionHandler(ExpenseNotFoundException.class)
+    public ResponseEntity<String> handleExpenseNotFound(ExpenseNotFoundException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
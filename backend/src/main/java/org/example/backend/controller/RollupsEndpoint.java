@@ -0,0 +1,26 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.RollupVerificationDTO;
+import org.example.backend.service.ExpenseRollupService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code POST /actuator/rollups} rebuilds the rollups of every tenant. It rewrites the whole rollup
+ * collection from all expenses, so it is an operator action on the management endpoints rather
+ * than part of the tenant API, where any caller picking a tenant by header could run it.
+ */
+@Component
+@Endpoint(id = "rollups")
+@RequiredArgsConstructor
+public class RollupsEndpoint {
+
+    private final ExpenseRollupService expenseRollupService;
+
+    @WriteOperation
+    public RollupVerificationDTO rebuild() {
+        return expenseRollupService.rebuild();
+    }
+}
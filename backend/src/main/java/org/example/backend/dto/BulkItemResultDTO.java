@@ -0,0 +1,19 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDTO {
+    private int index;
+    private String id;
+    private BulkItemStatus status;
+    private String error;
+
+    public enum BulkItemStatus {
+        CREATED, UPDATED, DELETED, NOT_FOUND, FAILED
+    }
+}
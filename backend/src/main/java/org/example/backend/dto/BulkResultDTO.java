@@ -0,0 +1,24 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResultDTO {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDTO> items;
+
+    public static BulkResultDTO of(List<BulkItemResultDTO> items) {
+        int failed = (int) items.stream()
+                .filter(item -> item.getStatus() == BulkItemResultDTO.BulkItemStatus.FAILED
+                        || item.getStatus() == BulkItemResultDTO.BulkItemStatus.NOT_FOUND)
+                .count();
+        return new BulkResultDTO(items.size() - failed, failed, items);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryCascadeJobDTO {
+    private String id;
+    private String type;
+    private String categoryId;
+    private String fromName;
+    private String toName;
+    private String status;
+    private long batches;
+    private long expensesMatched;
+    private long expensesModified;
+    private int attempts;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String message;
+}
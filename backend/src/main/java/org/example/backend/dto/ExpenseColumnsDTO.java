@@ -0,0 +1,32 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Column-oriented form of an expense list: one array per field instead of one object per row.
+ * Category names are dictionary-encoded ({@code categoryIndexes} point into {@code categories})
+ * and dates are epoch days, with {@link #NO_DATE} standing in for a missing date. Amounts are
+ * integer minor units of {@code currency}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseColumnsDTO {
+
+    public static final String JSON_MEDIA_TYPE = "application/vnd.expense-columns+json";
+    public static final String CBOR_MEDIA_TYPE = "application/vnd.expense-columns+cbor";
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private int count;
+    private String currency;
+    private List<String> ids;
+    private List<String> descriptions;
+    private long[] amountCents;
+    private List<String> categories;
+    private int[] categoryIndexes;
+    private int[] epochDays;
+}
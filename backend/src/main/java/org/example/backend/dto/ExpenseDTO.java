@@ -5,6 +5,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
@@ -14,7 +16,8 @@ import java.time.LocalDate;
 public class ExpenseDTO {
     private String id;
     private String description;
-    private double amount;
+    private BigDecimal amount;
+    private String currency;
     private String category;
     private LocalDate date;
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseStatsDTO {
+    private String period;
+    private StatsBucketDTO totals;
+    private List<StatsBucketDTO> byCategory;
+    private List<StatsBucketDTO> byPeriod;
+}
@@ -0,0 +1,36 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobDTO {
+    private String id;
+    private String fileName;
+    private String format;
+    private String status;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private double rowsPerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String message;
+    private List<ImportErrorDTO> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportErrorDTO {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MongoLimiterStatsDTO {
+    private int maxConcurrent;
+    private int inFlight;
+    private int waiting;
+    private int maxStreams;
+    private int streamsInFlight;
+    private long acquired;
+    private long rejected;
+    private double averageWaitMillis;
+    private double maxWaitMillis;
+}
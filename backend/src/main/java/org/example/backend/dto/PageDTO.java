@@ -0,0 +1,16 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+    private String next;
+}
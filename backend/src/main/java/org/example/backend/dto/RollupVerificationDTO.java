@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupVerificationDTO {
+    private long rollupRows;
+    private long expenseCount;
+    private long rollupCount;
+    private List<String> mismatchedCategories;
+    private boolean consistent;
+}
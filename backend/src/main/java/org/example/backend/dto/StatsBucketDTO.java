@@ -0,0 +1,23 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatsBucketDTO {
+    private String key;
+    @Builder.Default
+    private BigDecimal total = BigDecimal.ZERO;
+    private long count;
+    @Builder.Default
+    private BigDecimal average = BigDecimal.ZERO;
+    private BigDecimal min;
+    private BigDecimal max;
+}
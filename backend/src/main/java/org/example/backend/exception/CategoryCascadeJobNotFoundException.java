@@ -0,0 +1,7 @@
+package org.example.backend.exception;
+
+public class CategoryCascadeJobNotFoundException extends RuntimeException {
+    public CategoryCascadeJobNotFoundException(String message) {
+        super(message);
+    }
+}
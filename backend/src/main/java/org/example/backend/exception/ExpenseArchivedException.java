@@ -0,0 +1,7 @@
+package org.example.backend.exception;
+
+public class ExpenseArchivedException extends RuntimeException {
+    public ExpenseArchivedException(String message) {
+        super(message);
+    }
+}
@@ -13,4 +13,34 @@ public class GlobalExceptionHandler {
     public String handleExpenseNotFoundException(ExpenseNotFoundException ex) {
         return ex.getMessage();
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(CategoryCascadeJobNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public String handleCategoryCascadeJobNotFoundException(CategoryCascadeJobNotFoundException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(MongoBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleMongoBusyException(MongoBusyException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(IngestBufferFullException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleIngestBufferFullException(IngestBufferFullException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(ExpenseArchivedException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleExpenseArchivedException(ExpenseArchivedException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        return ex.getMessage();
+    }
+}
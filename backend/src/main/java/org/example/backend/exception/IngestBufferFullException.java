@@ -0,0 +1,7 @@
+package org.example.backend.exception;
+
+public class IngestBufferFullException extends RuntimeException {
+    public IngestBufferFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.backend.exception;
+
+public class MongoBusyException extends RuntimeException {
+    public MongoBusyException(String message) {
+        super(message);
+    }
+}
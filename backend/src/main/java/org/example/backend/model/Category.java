@@ -1,18 +1,35 @@
 package org.example.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Document(collection = "categories")
+// Names are unique per tenant; two tenants can both have a "Food" category.
+@CompoundIndexes({
+        @CompoundIndex(name = "tenant_name_unique", def = "{'tenantId': 1, 'name': 1}", unique = true),
+        @CompoundIndex(name = "tenant_id", def = "{'tenantId': 1, '_id': 1}")
+})
 public class Category {
 
     @Id
     private String id;
+    private String tenantId = Tenant.DEFAULT;
     private String name;
+
+    public Category(String id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Category(String id, String tenantId, String name) {
+        this.id = id;
+        this.tenantId = tenantId;
+        this.name = name;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package org.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A pending or finished rewrite of {@code Expense.category} after a category was renamed or
+ * deleted. The job is persisted with its progress so a restart can pick it up where it stopped.
+ * It is recorded as {@link Status#PENDING} before the category itself is written, so a crash in
+ * between leaves a job behind that can be checked against the category.
+ */
+@Document(collection = "category_cascade_jobs")
+@CompoundIndex(name = "tenant_created_at", def = "{'tenantId': 1, 'createdAt': -1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryCascadeJob {
+
+    public enum Type {
+        RENAME, DELETE
+    }
+
+    public enum Status {
+        PENDING, QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    private String id;
+    // Only this tenant's expenses are rewritten.
+    private String tenantId;
+    private Type type;
+    private String categoryId;
+    private String fromName;
+    private String toName;
+    @Indexed(name = "status")
+    private Status status;
+    // Highest expense id already rewritten; the next batch starts after it.
+    private String lastExpenseId;
+    private long batches;
+    private long expensesMatched;
+    private long expensesModified;
+    // Failed runs so far; the job is retried with backoff until it reaches the configured maximum.
+    private int attempts;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String message;
+}
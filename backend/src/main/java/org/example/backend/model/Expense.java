@@ -2,19 +2,43 @@ package org.example.backend.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Document(collection = "expenses")
+// Every index leads with the tenant, so each tenant's queries stay inside its own index range.
+@CompoundIndexes({
+        @CompoundIndex(name = "tenant_category_date", def = "{'tenantId': 1, 'category': 1, 'date': -1}"),
+        @CompoundIndex(name = "tenant_date_amount_cents", def = "{'tenantId': 1, 'date': -1, 'amountCents': 1}"),
+        @CompoundIndex(name = "tenant_date_id", def = "{'tenantId': 1, 'date': -1, '_id': -1}"),
+        @CompoundIndex(name = "tenant_search_terms", def = "{'tenantId': 1, 'searchTerms': 1, 'category': 1, 'date': -1}")
+})
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Expense {
     @Id
     private String id;
+    private String tenantId = Tenant.DEFAULT;
     private String description;
-    private double amount;
+    // Integer minor units of the currency, so sums stay exact; see Money.
+    private long amountCents;
+    private String currency = Money.DEFAULT_CURRENCY;
     private String category;
     private LocalDate date;
-}
\ No newline at end of file
+    // Derived from the description on every write, by ExpenseSearchTermsCallback; see ExpenseSearchTerms.
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private List<String> searchTerms;
+
+    public Expense(String id, String description, long amountCents, String category, LocalDate date) {
+        this.id = id;
+        this.description = description;
+        this.amountCents = amountCents;
+        this.category = category;
+        this.date = date;
+    }
+}
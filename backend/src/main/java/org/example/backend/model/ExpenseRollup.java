@@ -0,0 +1,25 @@
+package org.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+
+@Document(collection = "expense_rollups")
+@CompoundIndex(name = "tenant_day_category", def = "{'tenantId': 1, 'day': 1, 'category': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseRollup {
+    @Id
+    private String id;
+    private String tenantId;
+    private String category;
+    private LocalDate day;
+    private long totalCents;
+    private long count;
+}
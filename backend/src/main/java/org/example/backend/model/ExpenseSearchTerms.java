@@ -0,0 +1,97 @@
+package org.example.backend.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Derives the terms stored in {@code Expense.searchTerms}. Every description word contributes its
+ * prefixes, which serve typeahead-style prefix matches, and, for longer words, its single-character
+ * deletions marked with {@link #TYPO_MARKER}. Deleting one character on both sides (the
+ * "symmetric delete" trick) lets a query match a word one edit away with plain index lookups.
+ */
+public final class ExpenseSearchTerms {
+
+    public static final String TYPO_MARKER = "~";
+    public static final int MIN_TERM_LENGTH = 2;
+    static final int MAX_PREFIX_LENGTH = 12;
+    static final int MIN_TYPO_LENGTH = 4;
+    static final int MAX_WORD_LENGTH = 24;
+    static final int MAX_WORDS = 32;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private ExpenseSearchTerms() {
+    }
+
+    public static List<String> index(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : words(text, MAX_WORDS)) {
+            for (int length = MIN_TERM_LENGTH; length <= Math.min(word.length(), MAX_PREFIX_LENGTH); length++) {
+                terms.add(word.substring(0, length));
+            }
+            if (word.length() >= MIN_TYPO_LENGTH) {
+                for (String deletion : deletions(word)) {
+                    terms.add(TYPO_MARKER + deletion);
+                }
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * The stored term a query word matches directly, as a whole word or as a word prefix.
+     */
+    public static String exactTerm(String queryWord) {
+        return queryWord.substring(0, Math.min(queryWord.length(), MAX_PREFIX_LENGTH));
+    }
+
+    /**
+     * Stored terms that put a query word within one edit of a description word (or of its prefix).
+     */
+    public static List<String> typoTerms(String queryWord) {
+        if (queryWord.length() < MIN_TYPO_LENGTH) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        // A character missing from the query.
+        terms.add(TYPO_MARKER + queryWord);
+        for (String deletion : deletions(queryWord)) {
+            // An extra character in the query, then a substituted or swapped one.
+            terms.add(exactTerm(deletion));
+            terms.add(TYPO_MARKER + deletion);
+        }
+        terms.remove(exactTerm(queryWord));
+        return new ArrayList<>(terms);
+    }
+
+    public static List<String> words(String text, int limit) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String word : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (word.length() >= MIN_TERM_LENGTH && word.length() <= MAX_WORD_LENGTH && !words.contains(word)) {
+                words.add(word);
+                if (words.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return words;
+    }
+
+    private static Set<String> deletions(String word) {
+        Set<String> deletions = new LinkedHashSet<>();
+        for (int i = 0; i < word.length(); i++) {
+            deletions.add(word.substring(0, i) + word.substring(i + 1));
+        }
+        return deletions;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.dto.ExpenseDTO;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+
+    @Id
+    private String id;
+    private String requestHash;
+    private Status status;
+    private ExpenseDTO response;
+    @Indexed(name = "created_at_ttl", expireAfter = "1d")
+    private Instant createdAt;
+}
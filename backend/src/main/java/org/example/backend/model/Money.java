@@ -0,0 +1,64 @@
+package org.example.backend.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Locale;
+
+/**
+ * Converts between the decimal amounts of the API and the integer minor units (cents for EUR)
+ * stored on expenses. Sums over minor units are exact, so totals are added up as {@code long}s and
+ * {@link BigDecimal} only appears where an amount enters or leaves the API.
+ */
+public final class Money {
+
+    // Totals and rollups add amounts without converting them, so every expense has to share one currency.
+    public static final String DEFAULT_CURRENCY = "EUR";
+
+    private Money() {
+    }
+
+    /**
+     * The currency an expense is stored in; blank means {@link #DEFAULT_CURRENCY}.
+     */
+    public static String currency(String code) {
+        if (code == null || code.isBlank()) {
+            return DEFAULT_CURRENCY;
+        }
+        String normalized = code.trim().toUpperCase(Locale.ROOT);
+        if (!normalized.equals(DEFAULT_CURRENCY)) {
+            throw new IllegalArgumentException("Only " + DEFAULT_CURRENCY + " amounts are supported, got '" + code + "'.");
+        }
+        return normalized;
+    }
+
+    /**
+     * Exact conversion: an amount with more decimals than the currency has minor units is rejected.
+     */
+    public static long toMinorUnits(BigDecimal amount, String currency) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount is required.");
+        }
+        return toMinorUnits(amount, currency, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Conversion for range bounds, which round towards the inside of the range instead of failing.
+     */
+    public static long toMinorUnits(BigDecimal amount, String currency, RoundingMode rounding) {
+        try {
+            return amount.setScale(fractionDigits(currency), rounding).unscaledValue().longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString()
+                    + " cannot be stored exactly in " + currency + " minor units.", ex);
+        }
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits, String currency) {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+
+    private static int fractionDigits(String currency) {
+        return Math.max(0, Currency.getInstance(currency(currency)).getDefaultFractionDigits());
+    }
+}
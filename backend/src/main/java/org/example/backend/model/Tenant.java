@@ -0,0 +1,34 @@
+package org.example.backend.model;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tenant ids partition expenses, categories and everything derived from them. Every index on
+ * those collections starts with {@code tenantId}, so a query for one tenant only walks that
+ * tenant's part of the index. Data written before tenants existed belongs to {@link #DEFAULT}, as
+ * do requests that do not name a tenant.
+ */
+public final class Tenant {
+
+    public static final String DEFAULT = "default";
+    // Set by the gateway that authenticated the caller; the backend trusts it as it is.
+    public static final String HEADER = "X-Tenant-Id";
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private Tenant() {
+    }
+
+    /**
+     * The tenant named by a request; blank means {@link #DEFAULT}.
+     */
+    public static String id(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+        String id = value.trim();
+        if (!VALID_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Tenant id must be 1 to 64 letters, digits, '-' or '_'.");
+        }
+        return id;
+    }
+}
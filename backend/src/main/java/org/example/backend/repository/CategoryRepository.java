@@ -2,9 +2,20 @@
 package org.example.backend.repository;
 
 import org.example.backend.model.Category;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.List;
 import java.util.Optional;
 
-public interface CategoryRepository extends MongoRepository<Category, String> {
-    Optional<Category> findByName(String name);
+/**
+ * Services only use the tenant-scoped methods; the inherited CRUD lookups by id span all tenants.
+ */
+public interface CategoryRepository extends MongoRepository<Category, String>, CategoryWriteRepository {
+    List<Category> findByTenantId(String tenantId);
+
+    Optional<Category> findByIdAndTenantId(String id, String tenantId);
+
+    List<Category> findByTenantIdOrderByIdAsc(String tenantId, Limit limit);
+
+    List<Category> findByTenantIdAndIdGreaterThanOrderByIdAsc(String tenantId, String id, Limit limit);
 }
\ No newline at end of file
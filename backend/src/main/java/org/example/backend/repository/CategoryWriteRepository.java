@@ -0,0 +1,21 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.Category;
+
+import java.util.Optional;
+
+public interface CategoryWriteRepository {
+
+    /**
+     * Renames in one findAndModify, provided the category is still called {@code fromName}, and
+     * returns the category as it was before; empty when it is gone or was renamed meanwhile. A name taken by another category fails on the unique index with a
+     * {@link org.springframework.dao.DuplicateKeyException}.
+     */
+    Optional<Category> rename(String tenantId, String id, String fromName, String toName);
+
+    /**
+     * Deletes with a single findAndRemove, provided the category is still called {@code name}, and
+     * returns the removed category, if there was one.
+     */
+    Optional<Category> removeById(String tenantId, String id, String name);
+}
@@ -0,0 +1,32 @@
+package org.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.model.Category;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class CategoryWriteRepositoryImpl implements CategoryWriteRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Category> rename(String tenantId, String id, String fromName, String toName) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(byName(tenantId, id, fromName), new Update().set("name", toName),
+                FindAndModifyOptions.options().returnNew(false), Category.class));
+    }
+
+    @Override
+    public Optional<Category> removeById(String tenantId, String id, String name) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(byName(tenantId, id, name), Category.class));
+    }
+
+    private static Query byName(String tenantId, String id, String name) {
+        return new Query(Criteria.where("id").is(id).and("tenantId").is(tenantId).and("name").is(name));
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.backend.repository;
+
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Money;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+public final class ExpenseCriteria {
+
+    private static final Set<String> SORTABLE_FIELDS = Set.of("date", "amount", "description", "category");
+
+    /**
+     * The order of {@link ExpenseQueryRepository#findPage}: newest first, undated last, then by id.
+     */
+    public static final Comparator<Expense> PAGE_ORDER = comparator(null);
+
+    private ExpenseCriteria() {
+    }
+
+    /**
+     * Filtered, sorted and projected query shared by the blocking and reactive repositories.
+     */
+    public static Query filterQuery(String tenantId, ExpenseFilter filter) {
+        Query query = toQuery(fromFilter(tenantId, filter)).with(buildSort(filter));
+        includeExpenseFields(query);
+        return query;
+    }
+
+    /**
+     * The conditions of {@code filter} within one tenant. The tenant condition is always there,
+     * which is what lets every query use one of the tenant-led indexes.
+     */
+    public static List<Criteria> fromFilter(String tenantId, ExpenseFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("tenantId").is(tenantId));
+        if (filter == null) {
+            return criteria;
+        }
+        if (filter.getCategory() != null && !filter.getCategory().isBlank()) {
+            criteria.add(Criteria.where("category").is(filter.getCategory()));
+        }
+        if (filter.getStartDate() != null || filter.getEndDate() != null) {
+            Criteria date = Criteria.where("date");
+            if (filter.getStartDate() != null) {
+                date = date.gte(filter.getStartDate());
+            }
+            if (filter.getEndDate() != null) {
+                date = date.lte(filter.getEndDate());
+            }
+            criteria.add(date);
+        }
+        if (filter.getMinAmount() != null || filter.getMaxAmount() != null) {
+            Criteria amount = Criteria.where("amountCents");
+            if (filter.getMinAmount() != null) {
+                amount = amount.gte(Money.toMinorUnits(filter.getMinAmount(), Money.DEFAULT_CURRENCY, RoundingMode.CEILING));
+            }
+            if (filter.getMaxAmount() != null) {
+                amount = amount.lte(Money.toMinorUnits(filter.getMaxAmount(), Money.DEFAULT_CURRENCY, RoundingMode.FLOOR));
+            }
+            criteria.add(amount);
+        }
+        if (filter.getDescription() != null && !filter.getDescription().isBlank()) {
+            criteria.add(Criteria.where("description")
+                    .regex(Pattern.quote(filter.getDescription().trim()), "i"));
+        }
+        return criteria;
+    }
+
+    /**
+     * In-memory twin of {@link #fromFilter}, for expenses that are not in Mongo.
+     */
+    public static Predicate<Expense> matcher(ExpenseFilter filter) {
+        if (filter == null) {
+            return expense -> true;
+        }
+        Predicate<Expense> matcher = expense -> true;
+        if (filter.getCategory() != null && !filter.getCategory().isBlank()) {
+            matcher = matcher.and(expense -> filter.getCategory().equals(expense.getCategory()));
+        }
+        LocalDate startDate = filter.getStartDate();
+        LocalDate endDate = filter.getEndDate();
+        if (startDate != null || endDate != null) {
+            matcher = matcher.and(expense -> expense.getDate() != null
+                    && (startDate == null || !expense.getDate().isBefore(startDate))
+                    && (endDate == null || !expense.getDate().isAfter(endDate)));
+        }
+        if (filter.getMinAmount() != null) {
+            long min = Money.toMinorUnits(filter.getMinAmount(), Money.DEFAULT_CURRENCY, RoundingMode.CEILING);
+            matcher = matcher.and(expense -> expense.getAmountCents() >= min);
+        }
+        if (filter.getMaxAmount() != null) {
+            long max = Money.toMinorUnits(filter.getMaxAmount(), Money.DEFAULT_CURRENCY, RoundingMode.FLOOR);
+            matcher = matcher.and(expense -> expense.getAmountCents() <= max);
+        }
+        if (filter.getDescription() != null && !filter.getDescription().isBlank()) {
+            String needle = filter.getDescription().trim().toLowerCase(Locale.ROOT);
+            matcher = matcher.and(expense -> expense.getDescription() != null
+                    && expense.getDescription().toLowerCase(Locale.ROOT).contains(needle));
+        }
+        return matcher;
+    }
+
+    /**
+     * In-memory twin of the sort {@link #filterQuery} applies. Like Mongo, missing values sort
+     * lowest.
+     */
+    public static Comparator<Expense> comparator(ExpenseFilter filter) {
+        Sort.Order order = buildSort(filter).iterator().next();
+        Comparator<Expense> comparator = switch (order.getProperty()) {
+            case "amountCents" -> Comparator.comparingLong(Expense::getAmountCents);
+            case "description" -> nullsFirst(Expense::getDescription);
+            case "category" -> nullsFirst(Expense::getCategory);
+            default -> nullsFirst(Expense::getDate);
+        };
+        comparator = comparator.thenComparing(Expense::getId);
+        return order.isAscending() ? comparator : comparator.reversed();
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<Expense> nullsFirst(Function<Expense, T> key) {
+        return Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    static Sort buildSort(ExpenseFilter filter) {
+        String sortBy = filter == null || filter.getSortBy() == null || filter.getSortBy().isBlank()
+                ? "date" : filter.getSortBy();
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot sort expenses by '" + sortBy + "'.");
+        }
+        Sort.Direction direction = Sort.Direction.fromOptionalString(filter == null ? null : filter.getSortDirection())
+                .orElse(Sort.Direction.DESC);
+        return Sort.by(direction, "amount".equals(sortBy) ? "amountCents" : sortBy).and(Sort.by(direction, "_id"));
+    }
+
+    static Query toQuery(List<Criteria> criteria) {
+        return criteria.isEmpty() ? new Query() : new Query(new Criteria().andOperator(criteria));
+    }
+
+    static void includeExpenseFields(Query query) {
+        query.fields().include("description", "amountCents", "currency", "category", "date");
+    }
+}
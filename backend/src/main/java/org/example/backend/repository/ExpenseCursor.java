@@ -0,0 +1,6 @@
+package org.example.backend.repository;
+
+import java.time.LocalDate;
+
+public record ExpenseCursor(LocalDate date, String id) {
+}
@@ -0,0 +1,27 @@
+package org.example.backend.repository;
+
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ExpenseQueryRepository {
+    List<Expense> findByFilter(String tenantId, ExpenseFilter filter);
+
+    Stream<Expense> streamByFilter(String tenantId, ExpenseFilter filter);
+
+    List<Expense> findPage(String tenantId, ExpenseFilter filter, ExpenseCursor after, int limit);
+
+    /**
+     * Sets the editable fields in one findAndModify and returns the document as it was before.
+     */
+    Optional<Expense> updateDetails(String tenantId, String id, String description, long amountCents, String currency,
+                                    String category);
+
+    /**
+     * Deletes in one findAndRemove and returns the removed document.
+     */
+    Optional<Expense> removeById(String tenantId, String id);
+}
@@ -0,0 +1,91 @@
+package org.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseSearchTerms;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ExpenseQueryRepositoryImpl implements ExpenseQueryRepository {
+
+    private static final int STREAM_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Expense> findByFilter(String tenantId, ExpenseFilter filter) {
+        return mongoTemplate.find(ExpenseCriteria.filterQuery(tenantId, filter), Expense.class);
+    }
+
+    @Override
+    public Stream<Expense> streamByFilter(String tenantId, ExpenseFilter filter) {
+        Query query = ExpenseCriteria.filterQuery(tenantId, filter)
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, Expense.class);
+    }
+
+    @Override
+    public List<Expense> findPage(String tenantId, ExpenseFilter filter, ExpenseCursor after, int limit) {
+        List<Criteria> criteria = ExpenseCriteria.fromFilter(tenantId, filter);
+        if (after != null) {
+            criteria.add(keysetCriteria(after));
+        }
+        // Always walks the (tenantId, date, _id) index in the same direction, so the
+        // cost of a page does not depend on how deep into the list it is.
+        Query query = ExpenseCriteria.toQuery(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "date", "_id"))
+                .limit(limit);
+        ExpenseCriteria.includeExpenseFields(query);
+        return mongoTemplate.find(query, Expense.class);
+    }
+
+    @Override
+    public Optional<Expense> updateDetails(String tenantId, String id, String description, long amountCents,
+                                           String currency, String category) {
+        Update update = new Update()
+                .set("description", description)
+                .set("searchTerms", ExpenseSearchTerms.index(description))
+                .set("amountCents", amountCents)
+                .set("currency", currency)
+                .set("category", category)
+                // A leftover legacy amount would make ExpenseMoneyMigration overwrite this edit.
+                .unset("amount");
+        return Optional.ofNullable(mongoTemplate.findAndModify(byId(tenantId, id), update,
+                FindAndModifyOptions.options().returnNew(false), Expense.class));
+    }
+
+    @Override
+    public Optional<Expense> removeById(String tenantId, String id) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(byId(tenantId, id), Expense.class));
+    }
+
+    static Criteria keysetCriteria(ExpenseCursor after) {
+        if (after.date() == null) {
+            // Missing dates sort last in descending order, so only the id can move forward.
+            return new Criteria().andOperator(
+                    Criteria.where("date").is(null),
+                    Criteria.where("id").lt(after.id()));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("date").lt(after.date()),
+                new Criteria().andOperator(
+                        Criteria.where("date").is(after.date()),
+                        Criteria.where("id").lt(after.id())),
+                Criteria.where("date").is(null));
+    }
+
+    private static Query byId(String tenantId, String id) {
+        // An id from another tenant matches nothing, exactly as if it did not exist.
+        return new Query(Criteria.where("id").is(id).and("tenantId").is(tenantId));
+    }
+}
@@ -5,8 +5,14 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Services only use the tenant-scoped methods; the inherited CRUD lookups by id span all tenants.
+ */
 @Repository
-public interface ExpenseRepository extends CrudRepository<Expense, String> {
-    List<Expense> findAll();
-}
\ No newline at end of file
+public interface ExpenseRepository extends CrudRepository<Expense, String>, ExpenseQueryRepository {
+    List<Expense> findByTenantId(String tenantId);
+
+    Optional<Expense> findByIdAndTenantId(String id, String tenantId);
+}
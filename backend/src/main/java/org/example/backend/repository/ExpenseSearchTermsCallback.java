@@ -0,0 +1,38 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseSearchTerms;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Derives {@code searchTerms} from the description just before an expense is written, on every
+ * entity save and insert, bulk inserts included. Expenses read back, archived ones inflated from
+ * segments and copies that are never written do not pay for it. Field updates that set the
+ * description derive the terms themselves.
+ */
+@Component
+public class ExpenseSearchTermsCallback implements BeforeConvertCallback<Expense> {
+
+    @Override
+    public Expense onBeforeConvert(Expense expense, String collection) {
+        return index(expense);
+    }
+
+    static Expense index(Expense expense) {
+        expense.setSearchTerms(ExpenseSearchTerms.index(expense.getDescription()));
+        return expense;
+    }
+
+    @Component
+    public static class Reactive implements ReactiveBeforeConvertCallback<Expense> {
+
+        @Override
+        public Publisher<Expense> onBeforeConvert(Expense expense, String collection) {
+            return Mono.just(index(expense));
+        }
+    }
+}
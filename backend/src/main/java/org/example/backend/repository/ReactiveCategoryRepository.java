@@ -0,0 +1,13 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.Category;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCategoryRepository extends ReactiveMongoRepository<Category, String>,
+        ReactiveCategoryWriteRepository {
+    Flux<Category> findByTenantId(String tenantId);
+
+    Mono<Category> findByIdAndTenantId(String id, String tenantId);
+}
@@ -0,0 +1,23 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.Category;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link CategoryWriteRepository}.
+ */
+public interface ReactiveCategoryWriteRepository {
+
+    /**
+     * Renames in one findAndModify, provided the category is still called {@code fromName}, and
+     * emits the category as it was before; empty when it is gone or was renamed meanwhile. A name taken by another category fails on the unique index with a
+     * {@link org.springframework.dao.DuplicateKeyException}.
+     */
+    Mono<Category> rename(String tenantId, String id, String fromName, String toName);
+
+    /**
+     * Deletes with a single findAndRemove, provided the category is still called {@code name}, and
+     * emits the removed category, if there was one.
+     */
+    Mono<Category> removeById(String tenantId, String id, String name);
+}
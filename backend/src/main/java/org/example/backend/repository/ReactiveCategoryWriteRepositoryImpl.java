@@ -0,0 +1,31 @@
+package org.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.model.Category;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class ReactiveCategoryWriteRepositoryImpl implements ReactiveCategoryWriteRepository {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<Category> rename(String tenantId, String id, String fromName, String toName) {
+        return reactiveMongoTemplate.findAndModify(byName(tenantId, id, fromName), new Update().set("name", toName),
+                FindAndModifyOptions.options().returnNew(false), Category.class);
+    }
+
+    @Override
+    public Mono<Category> removeById(String tenantId, String id, String name) {
+        return reactiveMongoTemplate.findAndRemove(byName(tenantId, id, name), Category.class);
+    }
+
+    private static Query byName(String tenantId, String id, String name) {
+        return new Query(Criteria.where("id").is(id).and("tenantId").is(tenantId).and("name").is(name));
+    }
+}
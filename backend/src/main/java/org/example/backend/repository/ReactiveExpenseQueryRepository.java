@@ -0,0 +1,10 @@
+package org.example.backend.repository;
+
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveExpenseQueryRepository {
+
+    Flux<Expense> findByFilter(String tenantId, ExpenseFilter filter);
+}
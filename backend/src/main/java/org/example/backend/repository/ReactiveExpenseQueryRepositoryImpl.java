@@ -0,0 +1,19 @@
+package org.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+@RequiredArgsConstructor
+public class ReactiveExpenseQueryRepositoryImpl implements ReactiveExpenseQueryRepository {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Expense> findByFilter(String tenantId, ExpenseFilter filter) {
+        // Evaluated per subscription so an invalid sort surfaces as an error signal.
+        return Flux.defer(() -> reactiveMongoTemplate.find(ExpenseCriteria.filterQuery(tenantId, filter), Expense.class));
+    }
+}
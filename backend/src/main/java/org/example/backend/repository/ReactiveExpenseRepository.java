@@ -0,0 +1,9 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.Expense;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveExpenseRepository extends ReactiveMongoRepository<Expense, String>, ReactiveExpenseQueryRepository {
+    Mono<Expense> findByIdAndTenantId(String id, String tenantId);
+}
@@ -0,0 +1,46 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CacheStatsDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private static final List<String> CATEGORY_CACHES = List.of(
+            CategoryService.ALL_CACHE, CategoryService.BY_ID_CACHE);
+
+    private final CacheManager cacheManager;
+
+    public List<CacheStatsDTO> getCategoryCacheStats() {
+        return CATEGORY_CACHES.stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .map(this::toDTO)
+                .toList();
+    }
+
+    private CacheStatsDTO toDTO(Cache cache) {
+        if (!(cache instanceof CaffeineCache caffeineCache)) {
+            return CacheStatsDTO.builder().name(cache.getName()).build();
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+        CacheStats stats = nativeCache.stats();
+        return CacheStatsDTO.builder()
+                .name(cache.getName())
+                .size(nativeCache.estimatedSize())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .build();
+    }
+}
@@ -0,0 +1,333 @@
+package org.example.backend.service;
+
+import com.mongodb.client.result.UpdateResult;
+import jakarta.annotation.PreDestroy;
+import org.example.backend.dto.CategoryCascadeJobDTO;
+import org.example.backend.exception.CategoryCascadeJobNotFoundException;
+import org.example.backend.model.Category;
+import org.example.backend.model.CategoryCascadeJob;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Tenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rewrites {@code Expense.category} after a category rename or delete. Each job walks the matching
+ * expenses in id order, {@code updateMany}s one bounded batch at a time and records the last id
+ * it reached, so a restarted job continues from its checkpoint. Jobs run one at a time in the
+ * order they were created.
+ *
+ * <p>A job is {@link #prepareRename prepared} before the category is written and only
+ * {@link #start started} once that write succeeded; a failed write {@link #discard discards} it.
+ * After a crash in between, a pending job is started or dropped depending on whether the category
+ * still has its old name. A rename moves expenses to whatever the category is called when the job
+ * runs (the fallback category once it is deleted), so a retried job that runs after later renames
+ * does not undo them. Failed runs are retried with exponential backoff; a job that used up its
+ * attempts can be {@link #retryJob re-run} by hand.
+ */
+@Service
+public class CategoryCascadeService {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryCascadeService.class);
+    private static final int MAX_LISTED_JOBS = 20;
+    // A pending job younger than this may belong to a category write still in flight on another instance.
+    private static final Duration PENDING_GRACE = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final ExpenseRollupService expenseRollupService;
+    private final CollectionVersions collectionVersions;
+    private final int batchSize;
+    private final String deletedCategory;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "category-cascade");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CategoryCascadeService(MongoTemplate mongoTemplate,
+                                  ExpenseRollupService expenseRollupService,
+                                  CollectionVersions collectionVersions,
+                                  @Value("${categories.cascade.batch-size:1000}") int batchSize,
+                                  @Value("${categories.cascade.deleted-category:Other}") String deletedCategory,
+                                  @Value("${categories.cascade.max-attempts:5}") int maxAttempts,
+                                  @Value("${categories.cascade.retry-delay-ms:30000}") long retryDelayMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.expenseRollupService = expenseRollupService;
+        this.collectionVersions = collectionVersions;
+        this.batchSize = batchSize;
+        this.deletedCategory = deletedCategory;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    /**
+     * Records a pending rename job and returns its id; call {@link #start} once the category is
+     * renamed, or {@link #discard} if that fails.
+     */
+    public String prepareRename(String tenantId, String categoryId, String fromName, String toName) {
+        return prepare(tenantId, CategoryCascadeJob.Type.RENAME, categoryId, fromName, toName);
+    }
+
+    public String prepareDelete(String tenantId, String categoryId, String name) {
+        // Expenses of a deleted category fall back to the same default the importer uses.
+        return prepare(tenantId, CategoryCascadeJob.Type.DELETE, categoryId, name, deletedCategory);
+    }
+
+    public void start(String jobId) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(jobId).and("status").is(CategoryCascadeJob.Status.PENDING)),
+                new Update().set("status", CategoryCascadeJob.Status.QUEUED), CategoryCascadeJob.class);
+        worker.submit(() -> run(jobId, false));
+    }
+
+    public void discard(String jobId) {
+        mongoTemplate.remove(new Query(Criteria.where("id").is(jobId).and("status").is(CategoryCascadeJob.Status.PENDING)),
+                CategoryCascadeJob.class);
+    }
+
+    /**
+     * Queues a job that failed all its attempts again, from its checkpoint.
+     */
+    public CategoryCascadeJobDTO retryJob(String id) {
+        CategoryCascadeJob job = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(id).and("tenantId").is(TenantContext.current())
+                        .and("status").is(CategoryCascadeJob.Status.FAILED)),
+                new Update().set("status", CategoryCascadeJob.Status.QUEUED).set("attempts", 0).unset("finishedAt"),
+                FindAndModifyOptions.options().returnNew(true), CategoryCascadeJob.class);
+        if (job == null) {
+            // Either unknown to this tenant, or not failed.
+            CategoryCascadeJobDTO existing = getJob(id);
+            throw new IllegalArgumentException("Category cascade job " + id + " is " + existing.getStatus()
+                    + "; only failed jobs can be retried.");
+        }
+        // The failed run may have rewritten a batch without its rollup delta.
+        worker.submit(() -> run(id, true));
+        return toDTO(job);
+    }
+
+    public CategoryCascadeJobDTO getJob(String id) {
+        CategoryCascadeJob job = mongoTemplate.findOne(new Query(Criteria.where("id").is(id)
+                .and("tenantId").is(TenantContext.current())), CategoryCascadeJob.class);
+        if (job == null) {
+            throw new CategoryCascadeJobNotFoundException("Category cascade job not found with id: " + id);
+        }
+        return toDTO(job);
+    }
+
+    public List<CategoryCascadeJobDTO> getRecentJobs() {
+        Query query = new Query(Criteria.where("tenantId").is(TenantContext.current()))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(MAX_LISTED_JOBS);
+        return mongoTemplate.find(query, CategoryCascadeJob.class).stream()
+                .map(CategoryCascadeService::toDTO)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        worker.schedule(this::recoverPendingJobs, PENDING_GRACE.toMillis(), TimeUnit.MILLISECONDS);
+        worker.submit(() -> {
+            Query query = new Query(Criteria.where("status").in(CategoryCascadeJob.Status.QUEUED, CategoryCascadeJob.Status.RUNNING))
+                    .with(Sort.by("createdAt"));
+            for (CategoryCascadeJob job : mongoTemplate.find(query, CategoryCascadeJob.class)) {
+                log.info("Resuming category cascade job {} ({} '{}')", job.getId(), job.getType(), job.getFromName());
+                // A job that was running when the process died may have rewritten its last batch
+                // without applying the matching rollup delta, so it finishes with a rollup rebuild.
+                run(job.getId(), job.getStatus() == CategoryCascadeJob.Status.RUNNING);
+            }
+        });
+    }
+
+    private String prepare(String tenantId, CategoryCascadeJob.Type type, String categoryId, String fromName,
+                           String toName) {
+        return mongoTemplate.insert(CategoryCascadeJob.builder()
+                .tenantId(tenantId)
+                .type(type)
+                .categoryId(categoryId)
+                .fromName(fromName)
+                .toName(toName)
+                .status(CategoryCascadeJob.Status.PENDING)
+                .createdAt(Instant.now())
+                .build()).getId();
+    }
+
+    /**
+     * Settles jobs left pending by a process that died between recording the job and writing the
+     * category: the write happened if the category is gone or, for a rename, no longer has its old
+     * name. The category write is conditional on the old name, so that check is exact.
+     */
+    void recoverPendingJobs() {
+        Query query = new Query(Criteria.where("status").is(CategoryCascadeJob.Status.PENDING)
+                .and("createdAt").lt(Instant.now().minus(PENDING_GRACE)));
+        for (CategoryCascadeJob job : mongoTemplate.find(query, CategoryCascadeJob.class)) {
+            Category category = findCategory(job);
+            boolean written = category == null
+                    || (job.getType() == CategoryCascadeJob.Type.RENAME && !category.getName().equals(job.getFromName()));
+            if (written) {
+                log.info("Starting category cascade job {} left pending ({} '{}')", job.getId(), job.getType(), job.getFromName());
+                start(job.getId());
+            } else {
+                discard(job.getId());
+            }
+        }
+    }
+
+    void run(String jobId, boolean rebuildRollups) {
+        CategoryCascadeJob job = mongoTemplate.findById(jobId, CategoryCascadeJob.class);
+        // Pending jobs wait for their category write; finished ones have nothing left to do.
+        if (job == null || job.getStatus() == CategoryCascadeJob.Status.PENDING
+                || job.getStatus() == CategoryCascadeJob.Status.COMPLETED
+                || job.getStatus() == CategoryCascadeJob.Status.FAILED) {
+            return;
+        }
+        Update start = new Update().set("status", CategoryCascadeJob.Status.RUNNING);
+        if (job.getStartedAt() == null) {
+            start.set("startedAt", Instant.now());
+        }
+        mongoTemplate.updateFirst(byId(jobId), start, CategoryCascadeJob.class);
+        try {
+            String target = targetOf(job);
+            String lastId = job.getLastExpenseId();
+            boolean rollupsExact = !rebuildRollups;
+            List<Expense> batch;
+            // Renamed back to the old name since: there is nothing to move.
+            while (!target.equals(job.getFromName())
+                    && !(batch = nextBatch(tenantOf(job), job.getFromName(), lastId)).isEmpty()) {
+                rollupsExact &= rewrite(job, target, batch);
+                lastId = batch.getLast().getId();
+            }
+            if (!rollupsExact) {
+                expenseRollupService.rebuild();
+            }
+            mongoTemplate.updateFirst(byId(jobId), new Update()
+                    .set("status", CategoryCascadeJob.Status.COMPLETED)
+                    .set("finishedAt", Instant.now()), CategoryCascadeJob.class);
+        } catch (RuntimeException ex) {
+            int attempts = job.getAttempts() + 1;
+            if (attempts < maxAttempts) {
+                long delay = retryDelayMillis << Math.min(attempts - 1, 10);
+                log.warn("Category cascade job {} failed, retrying in {} ms", jobId, delay, ex);
+                mongoTemplate.updateFirst(byId(jobId), new Update()
+                        .set("status", CategoryCascadeJob.Status.QUEUED)
+                        .set("attempts", attempts)
+                        .set("message", ex.getMessage()), CategoryCascadeJob.class);
+                // The failure may have come between a batch rewrite and its rollup delta.
+                worker.schedule(() -> run(jobId, true), delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+            log.warn("Category cascade job {} failed after {} attempts", jobId, attempts, ex);
+            mongoTemplate.updateFirst(byId(jobId), new Update()
+                    .set("status", CategoryCascadeJob.Status.FAILED)
+                    .set("attempts", attempts)
+                    .set("finishedAt", Instant.now())
+                    .set("message", ex.getMessage()), CategoryCascadeJob.class);
+        }
+    }
+
+    /**
+     * Where a job moves expenses: the category's name now for a rename, so a job that runs late
+     * follows later renames and deletes instead of undoing them.
+     */
+    private String targetOf(CategoryCascadeJob job) {
+        if (job.getType() == CategoryCascadeJob.Type.DELETE) {
+            return job.getToName();
+        }
+        Category category = findCategory(job);
+        return category == null ? deletedCategory : category.getName();
+    }
+
+    private Category findCategory(CategoryCascadeJob job) {
+        return mongoTemplate.findOne(new Query(Criteria.where("id").is(job.getCategoryId())
+                .and("tenantId").is(tenantOf(job))), Category.class);
+    }
+
+    private List<Expense> nextBatch(String tenantId, String fromName, String lastId) {
+        Criteria criteria = Criteria.where("tenantId").is(tenantId).and("category").is(fromName);
+        if (lastId != null) {
+            criteria = criteria.and("id").gt(lastId);
+        }
+        Query query = new Query(criteria).with(Sort.by("id")).limit(batchSize);
+        query.fields().include("tenantId", "amountCents", "category", "date");
+        return mongoTemplate.find(query, Expense.class);
+    }
+
+    /**
+     * Rewrites one batch and returns whether the rollup delta applied for it is exact, which is
+     * not the case when a concurrent write changed some of the expenses between read and update.
+     */
+    private boolean rewrite(CategoryCascadeJob job, String target, List<Expense> batch) {
+        List<String> ids = new ArrayList<>(batch.size());
+        List<Expense> moved = new ArrayList<>(batch.size());
+        for (Expense expense : batch) {
+            ids.add(expense.getId());
+            Expense movedExpense = new Expense(expense.getId(), null, expense.getAmountCents(), target, expense.getDate());
+            movedExpense.setTenantId(expense.getTenantId());
+            moved.add(movedExpense);
+        }
+        // The category condition is repeated so expenses re-categorised since the read are left alone.
+        UpdateResult result = mongoTemplate.updateMulti(
+                new Query(Criteria.where("id").in(ids).and("tenantId").is(tenantOf(job)).and("category").is(job.getFromName())),
+                new Update().set("category", target), Expense.class);
+        expenseRollupService.applyAll(moved, batch);
+        collectionVersions.bump(CollectionVersions.EXPENSES);
+
+        mongoTemplate.updateFirst(byId(job.getId()), new Update()
+                .set("lastExpenseId", ids.getLast())
+                .inc("batches", 1)
+                .inc("expensesMatched", batch.size())
+                .inc("expensesModified", result.getModifiedCount()), CategoryCascadeJob.class);
+        return result.getModifiedCount() == batch.size();
+    }
+
+    // Jobs queued before tenants existed were for the default tenant.
+    private static String tenantOf(CategoryCascadeJob job) {
+        return job.getTenantId() == null ? Tenant.DEFAULT : job.getTenantId();
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+
+    private static CategoryCascadeJobDTO toDTO(CategoryCascadeJob job) {
+        return CategoryCascadeJobDTO.builder()
+                .id(job.getId())
+                .type(job.getType().name())
+                .categoryId(job.getCategoryId())
+                .fromName(job.getFromName())
+                .toName(job.getToName())
+                .status(job.getStatus().name())
+                .batches(job.getBatches())
+                .expensesMatched(job.getExpensesMatched())
+                .expensesModified(job.getExpensesModified())
+                .attempts(job.getAttempts())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .message(job.getMessage())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+}
@@ -1,9 +1,15 @@
 package org.example.backend.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.example.backend.dto.CategoryDTO;
+import org.example.backend.dto.PageDTO;
 import org.example.backend.exception.CategoryNotFoundException;
 import org.example.backend.model.Category;
 import org.example.backend.repository.CategoryRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 
@@ -12,52 +18,132 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 @RequiredArgsConstructor
 public class CategoryService {
 
+    public static final String ALL_CACHE = "categories";
+    public static final String BY_ID_CACHE = "categoryById";
+
     private final CategoryRepository categoryRepository;
+    private final CollectionVersions collectionVersions;
+    private final CategoryCascadeService categoryCascadeService;
+    private final SuggestionService suggestionService;
 
+    @Cacheable(cacheNames = ALL_CACHE, key = "T(org.example.backend.service.TenantContext).current()")
     public List<CategoryDTO> getAllCategories() {
-        return categoryRepository.findAll().stream()
-                .map(this::convertToDTO)
+        return categoryRepository.findByTenantId(TenantContext.current()).stream()
+                .map(CategoryService::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public PageDTO<CategoryDTO> getCategoryPage(String cursor, int size) {
+        int pageSize = CursorCodec.clampPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        String tenantId = TenantContext.current();
+        List<Category> categories = cursor == null || cursor.isBlank()
+                ? categoryRepository.findByTenantIdOrderByIdAsc(tenantId, limit)
+                : categoryRepository.findByTenantIdAndIdGreaterThanOrderByIdAsc(tenantId, CursorCodec.decode(cursor, 1)[0], limit);
+
+        String nextCursor = null;
+        if (categories.size() > pageSize) {
+            categories = categories.subList(0, pageSize);
+            nextCursor = CursorCodec.encode(categories.getLast().getId());
+        }
+        List<CategoryDTO> items = categories.stream()
+                .map(CategoryService::convertToDTO)
                 .collect(Collectors.toList());
+        return new PageDTO<>(items, nextCursor, null);
     }
 
+    // Categories are few and rarely written, so every write simply drops all cached entries;
+    // a rename would otherwise leave the old name resolvable through the by-name cache.
+    @CacheEvict(cacheNames = {ALL_CACHE, BY_ID_CACHE}, allEntries = true)
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
-        if (categoryRepository.findByName(categoryDTO.getName()).isPresent()) {
+        // The unique index on (tenant, name) is the check, so there is no window between lookup and insert.
+        String tenantId = TenantContext.current();
+        Category savedCategory;
+        try {
+            savedCategory = categoryRepository.insert(new Category(null, tenantId, categoryDTO.getName()));
+        } catch (DuplicateKeyException ex) {
             throw new IllegalArgumentException("Category with name '" + categoryDTO.getName() + "' already exists.");
         }
-        Category category = new Category(null, categoryDTO.getName());
-        Category savedCategory = categoryRepository.save(category);
+        collectionVersions.bump(CollectionVersions.CATEGORIES);
+        suggestionService.categoryWritten(tenantId, null, savedCategory.getName());
         return convertToDTO(savedCategory);
     }
 
+    @CacheEvict(cacheNames = {ALL_CACHE, BY_ID_CACHE}, allEntries = true)
     public CategoryDTO updateCategory(String id, CategoryDTO updatedCategoryDTO) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + id));
-
-        Optional<Category> categoryWithName = categoryRepository.findByName(updatedCategoryDTO.getName());
-        if (categoryWithName.isPresent() && !categoryWithName.get().getId().equals(id)) {
-            throw new IllegalArgumentException("Another category with name '" + updatedCategoryDTO.getName() + "' already exists.");
+        String tenantId = TenantContext.current();
+        String name = updatedCategoryDTO.getName();
+        // Expenses store the name, so they are moved over by a background job rather than inline.
+        // The job is recorded before the rename, so a crash in between cannot lose it, and the
+        // rename only applies to the name the job was recorded for; a concurrent rename retries.
+        while (true) {
+            Category current = findExisting(tenantId, id);
+            if (current.getName().equals(name)) {
+                return convertToDTO(current);
+            }
+            String jobId = categoryCascadeService.prepareRename(tenantId, id, current.getName(), name);
+            Optional<Category> previous;
+            try {
+                previous = categoryRepository.rename(tenantId, id, current.getName(), name);
+            } catch (RuntimeException ex) {
+                categoryCascadeService.discard(jobId);
+                if (ex instanceof DuplicateKeyException) {
+                    throw new IllegalArgumentException("Another category with name '" + name + "' already exists.");
+                }
+                throw ex;
+            }
+            if (previous.isEmpty()) {
+                categoryCascadeService.discard(jobId);
+                continue;
+            }
+            collectionVersions.bump(CollectionVersions.CATEGORIES);
+            suggestionService.categoryWritten(tenantId, current.getName(), name);
+            categoryCascadeService.start(jobId);
+            return convertToDTO(new Category(id, tenantId, name));
         }
-
-        category.setName(updatedCategoryDTO.getName());
-        Category savedCategory = categoryRepository.save(category);
-        return convertToDTO(savedCategory);
     }
+
+    @Cacheable(cacheNames = BY_ID_CACHE, key = "T(org.example.backend.service.TenantContext).current() + ':' + #id",
+            unless = "#result == null")
     public Optional<CategoryDTO> getCategoryById(String id) {
-        return categoryRepository.findById(id).map(this::convertToDTO);
+        return categoryRepository.findByIdAndTenantId(id, TenantContext.current()).map(CategoryService::convertToDTO);
     }
 
+    @CacheEvict(cacheNames = {ALL_CACHE, BY_ID_CACHE}, allEntries = true)
     public void deleteCategory(String id) {
-
-        if (!categoryRepository.existsById(id)) {
-            throw new CategoryNotFoundException("Category not found with id: " + id);
+        String tenantId = TenantContext.current();
+        // Same order as a rename: record the job, delete, then start or discard the job.
+        while (true) {
+            Category current = findExisting(tenantId, id);
+            String jobId = categoryCascadeService.prepareDelete(tenantId, id, current.getName());
+            Optional<Category> removed;
+            try {
+                removed = categoryRepository.removeById(tenantId, id, current.getName());
+            } catch (RuntimeException ex) {
+                categoryCascadeService.discard(jobId);
+                throw ex;
+            }
+            if (removed.isEmpty()) {
+                categoryCascadeService.discard(jobId);
+                continue;
+            }
+            collectionVersions.bump(CollectionVersions.CATEGORIES);
+            suggestionService.categoryWritten(tenantId, current.getName(), null);
+            categoryCascadeService.start(jobId);
+            return;
         }
-        categoryRepository.deleteById(id);
     }
 
-    private CategoryDTO convertToDTO(Category category) {
+    private Category findExisting(String tenantId, String id) {
+        return categoryRepository.findByIdAndTenantId(id, tenantId)
+                .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + id));
+    }
+
+    static CategoryDTO convertToDTO(Category category) {
         CategoryDTO dto = new CategoryDTO();
         dto.setId(category.getId());
         dto.setName(category.getName());
@@ -0,0 +1,44 @@
+package org.example.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process version counters for the expense and category collections. Every write path bumps
+ * the counter of the collection it touched, so an ETag built from the current version can be
+ * compared against If-None-Match before any query runs. The epoch keeps tags issued before a
+ * restart from matching once the counters start over.
+ */
+@Component
+public class CollectionVersions {
+
+    public static final String EXPENSES = "expenses";
+    public static final String CATEGORIES = "categories";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long current(String collection) {
+        return counter(collection).get();
+    }
+
+    public void bump(String collection) {
+        counter(collection).incrementAndGet();
+    }
+
+    /**
+     * Strong ETag for a representation of {@code resource} (path and query) at the collection's
+     * current version.
+     */
+    public String etag(String collection, String resource) {
+        return "\"" + collection + "-" + epoch + "-" + current(collection)
+                + "-" + Integer.toHexString(resource.hashCode()) + "\"";
+    }
+
+    private AtomicLong counter(String collection) {
+        return versions.computeIfAbsent(collection, key -> new AtomicLong());
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+final class CursorCodec {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return parts;
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
+    }
+
+    static int clampPageSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
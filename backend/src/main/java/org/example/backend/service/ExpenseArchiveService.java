@@ -0,0 +1,570 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import org.example.backend.repository.ExpenseCriteria;
+import org.example.backend.repository.ExpenseCursor;
+import org.example.backend.service.archive.ExpenseSegment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Hot/cold tiering. Expenses dated before the first of the month {@code archive.hot-days} ago are
+ * moved out of Mongo into {@link ExpenseSegment} files under {@code archive.dir/<tenant>/}, one or
+ * more per month. Mongo then holds, indexes and caches only the recent expenses that are actually
+ * read and written, and {@link ExpenseService} merges the archived ones back into its reads.
+ * Archiving is off unless {@code archive.hot-days} is set: segments live on the local disk of one
+ * instance, and the other read paths (exports, live stats, search, the reactive API) do not merge
+ * them. Rollups and the column store do include them.
+ *
+ * <p>Archived expenses are read-only, and {@link CategoryCascadeService} does not rewrite them
+ * either: after a category rename or delete they keep the old name, and a rollup rebuild counts
+ * them under it. Their rollups stay where they are when they move, so
+ * rollup-sourced stats still include them, and {@link ExpenseRollupService#rebuild()} adds them
+ * back. A segment is synced before its expenses are deleted from Mongo, and each delete only
+ * matches the values that were archived: an expense edited in between stays hot and is archived
+ * again next time. When an id is in several places, Mongo wins over the segments and a newer
+ * segment wins over an older one.
+ *
+ * <p>Mongo winning is made durable with tombstones, kept per tenant in {@code tombstones.log}: an
+ * archived copy whose expense was edited or deleted in Mongo is hidden, so it neither reappears
+ * after the delete nor is counted next to the live copy. A move settles its segment against Mongo
+ * before deleting, {@link ExpenseRollupService} tombstones on every write, and a move cut short by
+ * a crash is settled or undone on the next start. Moves and {@link #withoutMoves} callers, such as
+ * rollup rebuilds, run one at a time.
+ */
+@Service
+public class ExpenseArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseArchiveService.class);
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String MOVING_SUFFIX = ".moving";
+    private static final String TOMBSTONES = "tombstones.log";
+    // Phases of a move, recorded next to its segment until the move is done.
+    private static final String WRITTEN = "written";
+    private static final String DELETING = "deleting";
+    private static final int DELETE_BATCH_SIZE = 1000;
+    // Newest first: segment files are named <month>-<creation millis>.seg.
+    private static final Comparator<ExpenseSegment> NEWEST_FIRST =
+            Comparator.comparingLong(ExpenseArchiveService::createdAt).reversed();
+
+    private final MongoTemplate mongoTemplate;
+    private final CollectionVersions collectionVersions;
+    private final Path archiveDir;
+    private final int hotDays;
+    private final int segmentSize;
+    private final long initialDelayMillis;
+    private final long intervalMillis;
+    // Per tenant, newest first. Lists are replaced, never modified, so readers need no lock.
+    private final Map<String, List<ExpenseSegment>> segments = new ConcurrentHashMap<>();
+    // Per tenant, id to the creation millis of the newest segment whose copy it hides.
+    private final Map<String, Map<String, Long>> tombstones = new ConcurrentHashMap<>();
+    // Ids of the segment being moved, per tenant, which may still be in Mongo with other values.
+    private final Map<String, Set<String>> unsettled = new ConcurrentHashMap<>();
+    private final ReentrantLock moveLock = new ReentrantLock();
+    private final ScheduledExecutorService archiver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ExpenseArchiveService(MongoTemplate mongoTemplate,
+                                 CollectionVersions collectionVersions,
+                                 @Value("${archive.dir:data/archive}") String archiveDir,
+                                 @Value("${archive.hot-days:0}") int hotDays,
+                                 @Value("${archive.segment-size:50000}") int segmentSize,
+                                 @Value("${archive.initial-delay-ms:600000}") long initialDelayMillis,
+                                 @Value("${archive.interval-ms:86400000}") long intervalMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.collectionVersions = collectionVersions;
+        this.archiveDir = Path.of(archiveDir);
+        this.hotDays = hotDays;
+        this.segmentSize = segmentSize;
+        this.initialDelayMillis = initialDelayMillis;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(archiveDir);
+        try (Stream<Path> tenants = Files.list(archiveDir)) {
+            for (Path tenantDir : tenants.filter(Files::isDirectory).toList()) {
+                String tenantId = tenantDir.getFileName().toString();
+                loadTombstones(tenantId, tenantDir.resolve(TOMBSTONES));
+                List<ExpenseSegment> opened = new ArrayList<>();
+                List<Path> moving = new ArrayList<>();
+                try (Stream<Path> files = Files.list(tenantDir)) {
+                    for (Path file : files.toList()) {
+                        if (file.getFileName().toString().endsWith(SEGMENT_SUFFIX)) {
+                            opened.add(ExpenseSegment.open(file, tenantId));
+                        } else if (file.getFileName().toString().endsWith(MOVING_SUFFIX)) {
+                            moving.add(file);
+                        } else if (file.getFileName().toString().endsWith(".tmp")) {
+                            // Left by a write that never finished; its expenses are still in Mongo.
+                            Files.delete(file);
+                        }
+                    }
+                }
+                for (Path marker : moving) {
+                    recover(tenantId, marker, opened);
+                }
+                opened.sort(NEWEST_FIRST);
+                segments.put(tenantId, List.copyOf(opened));
+            }
+        }
+    }
+
+    /**
+     * Finishes a move the process died in. Before its deletes started, Mongo still has everything,
+     * so the segment is dropped; after, whatever is still in Mongo wins over the segment.
+     */
+    private void recover(String tenantId, Path marker, List<ExpenseSegment> opened) throws IOException {
+        String name = marker.getFileName().toString();
+        Path file = marker.resolveSibling(name.substring(0, name.length() - MOVING_SUFFIX.length()));
+        ExpenseSegment segment = opened.stream().filter(open -> open.getPath().equals(file)).findFirst().orElse(null);
+        if (segment != null) {
+            if (DELETING.equals(Files.readString(marker).trim())) {
+                List<String> ids = segment.read().stream().map(Expense::getId).toList();
+                tombstone(tenantId, findHot(tenantId, ids).keySet(), createdAt(segment));
+            } else {
+                opened.remove(segment);
+                Files.delete(file);
+            }
+        }
+        log.info("Recovered interrupted archive move {}", file);
+        Files.delete(marker);
+    }
+
+    /**
+     * Runs {@code work} while no expenses are being moved, so it sees each expense either in Mongo
+     * or in a segment, not in both or in neither.
+     */
+    public <T> T withoutMoves(Supplier<T> work) {
+        moveLock.lock();
+        try {
+            return work.get();
+        } finally {
+            moveLock.unlock();
+        }
+    }
+
+    /**
+     * Hides the archived copies of {@code ids}, which were just written or deleted in Mongo. Only
+     * expenses that were also in Mongo when they were archived can have one.
+     */
+    public void supersede(String tenantId, Collection<String> ids) {
+        List<ExpenseSegment> tenantSegments = segmentsOf(tenantId);
+        if (tenantSegments.isEmpty()) {
+            return;
+        }
+        Map<String, Long> superseded = new HashMap<>();
+        for (String id : ids) {
+            for (ExpenseSegment segment : tenantSegments) {
+                if (segment.mightContain(id) && segment.read().stream().anyMatch(row -> row.getId().equals(id))) {
+                    if (!isTombstoned(tenantId, id, segment)) {
+                        superseded.put(id, createdAt(segment));
+                    }
+                    break;
+                }
+            }
+        }
+        superseded.forEach((id, version) -> tombstone(tenantId, Set.of(id), version));
+    }
+
+    /**
+     * Drops the archived expenses of a move still in progress whose id is also in Mongo, where the
+     * live copy may have been edited since it was archived.
+     */
+    public List<Expense> withoutUnsettled(String tenantId, List<Expense> archived) {
+        Set<String> moving = unsettled.getOrDefault(tenantId, Set.of());
+        List<String> candidates = archived.stream().map(Expense::getId).filter(moving::contains).toList();
+        if (candidates.isEmpty()) {
+            return archived;
+        }
+        Set<String> hot = findHot(tenantId, candidates).keySet();
+        return archived.stream().filter(expense -> !hot.contains(expense.getId())).toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleArchiving() {
+        if (hotDays > 0) {
+            archiver.scheduleWithFixedDelay(this::archiveQuietly, initialDelayMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * The archived expenses of {@code tenantId} that match {@code filter}, in no particular order.
+     */
+    public List<Expense> find(String tenantId, ExpenseFilter filter) {
+        List<ExpenseSegment> candidates = segmentsOf(tenantId).stream()
+                .filter(segment -> filter == null || segment.overlaps(filter.getStartDate(), filter.getEndDate()))
+                .toList();
+        return new ArrayList<>(read(tenantId, candidates, ExpenseCriteria.matcher(filter)).values());
+    }
+
+    /**
+     * Up to {@code limit} archived expenses that follow {@code after} in
+     * {@link ExpenseCriteria#PAGE_ORDER}. Segments are visited from the newest month back, and the
+     * walk stops as soon as older segments can no longer make it into the page.
+     */
+    public List<Expense> findPage(String tenantId, ExpenseFilter filter, ExpenseCursor after, int limit) {
+        if (after != null && after.date() == null) {
+            // Undated expenses come last and are never archived.
+            return List.of();
+        }
+        Predicate<Expense> matcher = ExpenseCriteria.matcher(filter);
+        if (after != null) {
+            Expense cursor = new Expense();
+            cursor.setId(after.id());
+            cursor.setDate(after.date());
+            matcher = matcher.and(expense -> ExpenseCriteria.PAGE_ORDER.compare(expense, cursor) > 0);
+        }
+        List<ExpenseSegment> candidates = new ArrayList<>(segmentsOf(tenantId).stream()
+                .filter(segment -> filter == null || segment.overlaps(filter.getStartDate(), filter.getEndDate()))
+                .filter(segment -> after == null || segment.overlaps(null, after.date()))
+                .toList());
+        candidates.sort(Comparator.comparing(ExpenseSegment::getLastDate).reversed());
+
+        // Visited in date order rather than newest first, so the newest copy of an id is tracked explicitly.
+        Map<String, Expense> newest = new HashMap<>();
+        Map<String, Long> versions = new HashMap<>();
+        Predicate<Expense> live = matcher.and(expense -> !isTombstoned(tenantId, expense.getId(), versions.get(expense.getId())));
+        List<Expense> page = List.of();
+        for (ExpenseSegment segment : candidates) {
+            if (page.size() >= limit && segment.getLastDate().isBefore(page.getLast().getDate())) {
+                break;
+            }
+            long version = createdAt(segment);
+            for (Expense expense : segment.read()) {
+                Long known = versions.get(expense.getId());
+                if (known == null || known < version) {
+                    versions.put(expense.getId(), version);
+                    newest.put(expense.getId(), expense);
+                }
+            }
+            page = newest.values().stream()
+                    .filter(live)
+                    .sorted(ExpenseCriteria.PAGE_ORDER)
+                    .limit(limit)
+                    .toList();
+        }
+        return page;
+    }
+
+    public Optional<Expense> findById(String tenantId, String id) {
+        for (ExpenseSegment segment : segmentsOf(tenantId)) {
+            if (segment.mightContain(id)) {
+                for (Expense expense : segment.read()) {
+                    if (id.equals(expense.getId())) {
+                        return isTombstoned(tenantId, id, createdAt(segment)) ? Optional.empty() : Optional.of(expense);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Hands every tenant's archived expenses to {@code consumer}, one month at a time.
+     */
+    public void forEachArchivedMonth(Consumer<List<Expense>> consumer) {
+        segments.forEach((tenantId, tenantSegments) -> {
+            Map<YearMonth, List<ExpenseSegment>> byMonth = new LinkedHashMap<>();
+            for (ExpenseSegment segment : tenantSegments) {
+                byMonth.computeIfAbsent(YearMonth.from(segment.getFirstDate()), month -> new ArrayList<>()).add(segment);
+            }
+            byMonth.values().forEach(month -> consumer.accept(new ArrayList<>(read(tenantId, month, expense -> true).values())));
+        });
+    }
+
+    /**
+     * Total minor units and count of the archived expenses of {@code tenantId}, by category, with
+     * a missing category keyed as "".
+     */
+    public Map<String, long[]> totalsByCategory(String tenantId) {
+        Map<String, long[]> totals = new HashMap<>();
+        for (Expense expense : read(tenantId, segmentsOf(tenantId), expense -> true).values()) {
+            long[] total = totals.computeIfAbsent(expense.getCategory() == null ? "" : expense.getCategory(),
+                    category -> new long[2]);
+            total[0] += expense.getAmountCents();
+            total[1]++;
+        }
+        return totals;
+    }
+
+    /**
+     * Moves every expense dated before the cutoff into segments and returns how many left Mongo.
+     */
+    long archive(LocalDate today) throws IOException {
+        LocalDate cutoff = today.minusDays(hotDays).withDayOfMonth(1);
+        Query old = new Query(Criteria.where("date").lt(cutoff).and("tenantId").ne(null));
+        long archived = 0;
+        for (String tenantId : mongoTemplate.findDistinct(old, "tenantId", Expense.class, String.class)) {
+            while (true) {
+                Query oldest = new Query(Criteria.where("tenantId").is(tenantId).and("date").lt(cutoff))
+                        .with(Sort.by(Sort.Direction.ASC, "date"))
+                        .limit(1);
+                oldest.fields().include("date");
+                Expense first = mongoTemplate.findOne(oldest, Expense.class);
+                if (first == null) {
+                    break;
+                }
+                long moved = archiveMonth(tenantId, YearMonth.from(first.getDate()));
+                archived += moved;
+                if (moved == 0) {
+                    // Everything left in that month is being edited; try again next run.
+                    break;
+                }
+            }
+        }
+        if (archived > 0) {
+            collectionVersions.bump(CollectionVersions.EXPENSES);
+        }
+        return archived;
+    }
+
+    private long archiveMonth(String tenantId, YearMonth month) throws IOException {
+        Query query = new Query(Criteria.where("tenantId").is(tenantId)
+                .and("date").gte(month.atDay(1)).lt(month.plusMonths(1).atDay(1)))
+                .with(Sort.by(Sort.Direction.DESC, "date", "_id"));
+        query.fields().include("description", "amountCents", "currency", "category", "date");
+        long moved = 0;
+        List<Expense> chunk = new ArrayList<>();
+        try (Stream<Expense> expenses = mongoTemplate.stream(query, Expense.class)) {
+            Iterator<Expense> iterator = expenses.iterator();
+            while (iterator.hasNext()) {
+                Expense expense = iterator.next();
+                expense.setTenantId(tenantId);
+                chunk.add(expense);
+                if (chunk.size() == segmentSize) {
+                    moved += move(tenantId, month, chunk);
+                    chunk = new ArrayList<>();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            moved += move(tenantId, month, chunk);
+        }
+        return moved;
+    }
+
+    private long move(String tenantId, YearMonth month, List<Expense> expenses) throws IOException {
+        moveLock.lock();
+        try {
+            return moveLocked(tenantId, month, expenses);
+        } finally {
+            unsettled.remove(tenantId);
+            moveLock.unlock();
+        }
+    }
+
+    private long moveLocked(String tenantId, YearMonth month, List<Expense> expenses) throws IOException {
+        Path tenantDir = Files.createDirectories(archiveDir.resolve(tenantId));
+        long createdAt = System.currentTimeMillis();
+        Path file;
+        do {
+            file = tenantDir.resolve(month + "-" + createdAt++ + SEGMENT_SUFFIX);
+        } while (Files.exists(file));
+        Path marker = file.resolveSibling(file.getFileName() + MOVING_SUFFIX);
+        Files.writeString(marker, WRITTEN, StandardOpenOption.CREATE_NEW, StandardOpenOption.SYNC);
+        ExpenseSegment segment = ExpenseSegment.write(file, tenantId, expenses);
+        List<String> ids = expenses.stream().map(Expense::getId).toList();
+        unsettled.put(tenantId, Set.copyOf(ids));
+        // Readable before the Mongo copies go away, so no read misses these expenses in between.
+        segments.merge(tenantId, List.of(segment), (current, added) -> Stream.concat(added.stream(), current.stream())
+                .sorted(NEWEST_FIRST)
+                .toList());
+
+        // Expenses edited or deleted since they were read lose their archived copy. Writes from
+        // here on find the segment and tombstone it themselves (see supersede).
+        Map<String, Expense> hot = findHot(tenantId, ids);
+        Set<String> superseded = new HashSet<>();
+        for (Expense expense : expenses) {
+            Expense current = hot.get(expense.getId());
+            if (current == null || !sameValues(current, expense)) {
+                superseded.add(expense.getId());
+            }
+        }
+        tombstone(tenantId, superseded, createdAt(segment));
+        Files.writeString(marker, DELETING, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+
+        long removed = 0;
+        for (int from = 0; from < expenses.size(); from += DELETE_BATCH_SIZE) {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class);
+            for (Expense expense : expenses.subList(from, Math.min(from + DELETE_BATCH_SIZE, expenses.size()))) {
+                operations.remove(new Query(Criteria.where("id").is(expense.getId())
+                        .and("tenantId").is(tenantId)
+                        .and("description").is(expense.getDescription())
+                        .and("amountCents").is(expense.getAmountCents())
+                        .and("currency").is(expense.getCurrency())
+                        .and("category").is(expense.getCategory())
+                        .and("date").is(expense.getDate())));
+            }
+            removed += operations.execute().getDeletedCount();
+        }
+        Files.delete(marker);
+        log.info("Archived {} expenses of tenant {} from {} to {}", removed, tenantId, month, file);
+        return removed;
+    }
+
+    private static boolean sameValues(Expense a, Expense b) {
+        return Objects.equals(a.getDescription(), b.getDescription())
+                && a.getAmountCents() == b.getAmountCents()
+                && Objects.equals(a.getCurrency(), b.getCurrency())
+                && Objects.equals(a.getCategory(), b.getCategory())
+                && Objects.equals(a.getDate(), b.getDate());
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive(LocalDate.now());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Archiving expenses failed, will retry", ex);
+        }
+    }
+
+    private List<ExpenseSegment> segmentsOf(String tenantId) {
+        return segments.getOrDefault(tenantId, List.of());
+    }
+
+    /**
+     * Rows of {@code newestFirst} that pass {@code matcher}, keyed by id. Only the newest copy of an
+     * id is considered, whether or not it matches, and a tombstoned one hides the id.
+     */
+    private Map<String, Expense> read(String tenantId, List<ExpenseSegment> newestFirst, Predicate<Expense> matcher) {
+        Map<String, Expense> rows = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (ExpenseSegment segment : newestFirst) {
+            long version = createdAt(segment);
+            for (Expense expense : segment.read()) {
+                if (seen.add(expense.getId()) && !isTombstoned(tenantId, expense.getId(), version)
+                        && matcher.test(expense)) {
+                    rows.put(expense.getId(), expense);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private boolean isTombstoned(String tenantId, String id, long segmentVersion) {
+        Long hiddenUpTo = tombstones.getOrDefault(tenantId, Map.of()).get(id);
+        return hiddenUpTo != null && segmentVersion <= hiddenUpTo;
+    }
+
+    private boolean isTombstoned(String tenantId, String id, ExpenseSegment segment) {
+        return isTombstoned(tenantId, id, createdAt(segment));
+    }
+
+    /**
+     * Hides the copies of {@code ids} in segments created up to {@code segmentVersion}. The log is
+     * synced before the tombstones take effect, and a later segment holding an id shows again.
+     */
+    private synchronized void tombstone(String tenantId, Set<String> ids, long segmentVersion) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (String id : ids) {
+            lines.append(id).append(' ').append(segmentVersion).append('\n');
+        }
+        try {
+            Path file = Files.createDirectories(archiveDir.resolve(tenantId)).resolve(TOMBSTONES);
+            Files.writeString(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        Map<String, Long> tenantTombstones = tombstones.computeIfAbsent(tenantId, tenant -> new ConcurrentHashMap<>());
+        for (String id : ids) {
+            tenantTombstones.merge(id, segmentVersion, Math::max);
+        }
+    }
+
+    private void loadTombstones(String tenantId, Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Map<String, Long> tenantTombstones = tombstones.computeIfAbsent(tenantId, tenant -> new ConcurrentHashMap<>());
+        for (String line : Files.readAllLines(file)) {
+            int space = line.lastIndexOf(' ');
+            // A line cut short by a crash was never acknowledged, so it is skipped.
+            if (space > 0) {
+                try {
+                    tenantTombstones.merge(line.substring(0, space), Long.parseLong(line.substring(space + 1)), Math::max);
+                } catch (NumberFormatException ex) {
+                    log.debug("Skipping malformed tombstone line in {}", file);
+                }
+            }
+        }
+    }
+
+    /**
+     * The Mongo copies of {@code ids} that still exist, with the fields a segment keeps.
+     */
+    private Map<String, Expense> findHot(String tenantId, List<String> ids) {
+        Map<String, Expense> hot = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+            Query query = new Query(Criteria.where("id").in(ids.subList(from, Math.min(from + DELETE_BATCH_SIZE, ids.size())))
+                    .and("tenantId").is(tenantId));
+            query.fields().include("description", "amountCents", "currency", "category", "date");
+            for (Expense expense : mongoTemplate.find(query, Expense.class)) {
+                hot.put(expense.getId(), expense);
+            }
+        }
+        return hot;
+    }
+
+    private static long createdAt(ExpenseSegment segment) {
+        String name = segment.getPath().getFileName().toString();
+        String millis = name.substring(name.lastIndexOf('-') + 1, name.length() - SEGMENT_SUFFIX.length());
+        try {
+            return Long.parseLong(millis);
+        } catch (NumberFormatException ex) {
+            throw new UncheckedIOException(new IOException("Unexpected segment file name " + name, ex));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        archiver.shutdownNow();
+    }
+}
@@ -0,0 +1,262 @@
+package org.example.backend.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.example.backend.dto.BulkItemResultDTO;
+import org.example.backend.dto.BulkItemResultDTO.BulkItemStatus;
+import org.example.backend.dto.BulkResultDTO;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseSearchTerms;
+import org.example.backend.model.Money;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Timed("service.calls")
+@RequiredArgsConstructor
+public class ExpenseBulkService {
+
+    static final int MAX_CHUNK_SIZE = 10_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ExpenseRollupService expenseRollupService;
+    private final CollectionVersions collectionVersions;
+    private final SuggestionService suggestionService;
+    private final ExpenseArchiveService expenseArchiveService;
+
+    public BulkResultDTO createExpenses(List<ExpenseDTO> expenseDTOs, int chunkSize) {
+        int size = validateChunkSize(chunkSize);
+        String tenantId = TenantContext.current();
+        List<BulkItemResultDTO> results = new ArrayList<>(expenseDTOs.size());
+        for (int start = 0; start < expenseDTOs.size(); start += size) {
+            List<ExpenseDTO> chunk = expenseDTOs.subList(start, Math.min(start + size, expenseDTOs.size()));
+            List<Integer> itemIndexes = new ArrayList<>(chunk.size());
+            List<Expense> expenses = new ArrayList<>(chunk.size());
+            BulkItemResultDTO[] chunkResults = new BulkItemResultDTO[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                // Ids are assigned up front so every item can be reported even when the batch partially fails.
+                String id = new ObjectId().toHexString();
+                try {
+                    expenses.add(toExpense(tenantId, id, chunk.get(i), null));
+                    itemIndexes.add(i);
+                } catch (IllegalArgumentException ex) {
+                    chunkResults[i] = failed(start + i, id, ex.getMessage());
+                }
+            }
+
+            Map<Integer, String> errors = Map.of();
+            if (!expenses.isEmpty()) {
+                BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Expense.class);
+                operations.insert(expenses);
+                errors = execute(operations);
+            }
+
+            List<Expense> created = new ArrayList<>();
+            for (int op = 0; op < expenses.size(); op++) {
+                int i = itemIndexes.get(op);
+                Expense expense = expenses.get(op);
+                if (errors.containsKey(op)) {
+                    chunkResults[i] = failed(start + i, expense.getId(), errors.get(op));
+                } else {
+                    created.add(expense);
+                    chunkResults[i] = new BulkItemResultDTO(start + i, expense.getId(), BulkItemStatus.CREATED, null);
+                }
+            }
+            expenseRollupService.applyAll(created, List.of());
+            suggestionService.expensesWritten(created, List.of());
+            collectionVersions.bump(CollectionVersions.EXPENSES);
+            results.addAll(List.of(chunkResults));
+        }
+        return BulkResultDTO.of(results);
+    }
+
+    public BulkResultDTO upsertExpenses(List<ExpenseDTO> expenseDTOs, int chunkSize) {
+        int size = validateChunkSize(chunkSize);
+        String tenantId = TenantContext.current();
+        List<BulkItemResultDTO> results = new ArrayList<>(expenseDTOs.size());
+        Set<String> seenIds = new HashSet<>();
+        for (int start = 0; start < expenseDTOs.size(); start += size) {
+            List<ExpenseDTO> chunk = expenseDTOs.subList(start, Math.min(start + size, expenseDTOs.size()));
+            Map<String, Expense> existing = findExisting(tenantId, chunk.stream()
+                    .map(ExpenseDTO::getId)
+                    .filter(id -> id != null && !id.isBlank())
+                    .collect(Collectors.toSet()));
+
+            BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Expense.class);
+            List<Integer> itemIndexes = new ArrayList<>();
+            List<Expense> written = new ArrayList<>();
+            BulkItemResultDTO[] chunkResults = new BulkItemResultDTO[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                ExpenseDTO dto = chunk.get(i);
+                if (dto.getId() == null || dto.getId().isBlank()) {
+                    chunkResults[i] = failed(start + i, null, "Upserts require an id.");
+                    continue;
+                }
+                if (!seenIds.add(dto.getId())) {
+                    chunkResults[i] = failed(start + i, dto.getId(), "Duplicate id in request.");
+                    continue;
+                }
+                // As with a single update, archived expenses are read-only; a new live copy would
+                // count next to the archived one.
+                if (!existing.containsKey(dto.getId()) && expenseArchiveService.findById(tenantId, dto.getId()).isPresent()) {
+                    chunkResults[i] = failed(start + i, dto.getId(), "Expense " + dto.getId()
+                            + " is archived and can no longer be changed.");
+                    continue;
+                }
+                Expense expense;
+                try {
+                    expense = toExpense(tenantId, dto.getId(), dto, existing.get(dto.getId()));
+                } catch (IllegalArgumentException ex) {
+                    chunkResults[i] = failed(start + i, dto.getId(), ex.getMessage());
+                    continue;
+                }
+                // An insert takes tenantId from the filter; an id owned by another tenant fails on _id.
+                operations.upsert(byId(tenantId, expense.getId()), new Update()
+                        .set("description", expense.getDescription())
+                        .set("searchTerms", ExpenseSearchTerms.index(expense.getDescription()))
+                        .set("amountCents", expense.getAmountCents())
+                        .set("currency", expense.getCurrency())
+                        .set("category", expense.getCategory())
+                        .set("date", expense.getDate())
+                        .unset(ExpenseMoneyMigration.LEGACY_AMOUNT));
+                itemIndexes.add(i);
+                written.add(expense);
+            }
+
+            Map<Integer, String> errors = itemIndexes.isEmpty() ? Map.of() : execute(operations);
+            List<Expense> added = new ArrayList<>();
+            List<Expense> removed = new ArrayList<>();
+            for (int op = 0; op < itemIndexes.size(); op++) {
+                int i = itemIndexes.get(op);
+                Expense expense = written.get(op);
+                if (errors.containsKey(op)) {
+                    chunkResults[i] = failed(start + i, expense.getId(), errors.get(op));
+                    continue;
+                }
+                Expense previous = existing.get(expense.getId());
+                if (previous != null) {
+                    removed.add(previous);
+                }
+                added.add(expense);
+                chunkResults[i] = new BulkItemResultDTO(start + i, expense.getId(),
+                        previous == null ? BulkItemStatus.CREATED : BulkItemStatus.UPDATED, null);
+            }
+            expenseRollupService.applyAll(added, removed);
+            suggestionService.expensesWritten(added, removed);
+            collectionVersions.bump(CollectionVersions.EXPENSES);
+            results.addAll(List.of(chunkResults));
+        }
+        return BulkResultDTO.of(results);
+    }
+
+    public BulkResultDTO deleteExpenses(List<String> ids, int chunkSize) {
+        int size = validateChunkSize(chunkSize);
+        String tenantId = TenantContext.current();
+        List<BulkItemResultDTO> results = new ArrayList<>(ids.size());
+        for (int start = 0; start < ids.size(); start += size) {
+            List<String> chunk = ids.subList(start, Math.min(start + size, ids.size()));
+            Map<String, Expense> existing = findExisting(tenantId, new HashSet<>(chunk));
+
+            BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Expense.class);
+            List<Integer> itemIndexes = new ArrayList<>();
+            BulkItemResultDTO[] chunkResults = new BulkItemResultDTO[chunk.size()];
+            Set<String> scheduled = new HashSet<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                String id = chunk.get(i);
+                if (!existing.containsKey(id) || !scheduled.add(id)) {
+                    chunkResults[i] = new BulkItemResultDTO(start + i, id, BulkItemStatus.NOT_FOUND,
+                            "Expense not found with id: " + id);
+                    continue;
+                }
+                operations.remove(byId(tenantId, id));
+                itemIndexes.add(i);
+            }
+
+            Map<Integer, String> errors = itemIndexes.isEmpty() ? Map.of() : execute(operations);
+            List<Expense> removed = new ArrayList<>();
+            for (int op = 0; op < itemIndexes.size(); op++) {
+                int i = itemIndexes.get(op);
+                String id = chunk.get(i);
+                if (errors.containsKey(op)) {
+                    chunkResults[i] = failed(start + i, id, errors.get(op));
+                } else {
+                    removed.add(existing.get(id));
+                    chunkResults[i] = new BulkItemResultDTO(start + i, id, BulkItemStatus.DELETED, null);
+                }
+            }
+            expenseRollupService.applyAll(List.of(), removed);
+            suggestionService.expensesWritten(List.of(), removed);
+            collectionVersions.bump(CollectionVersions.EXPENSES);
+            results.addAll(List.of(chunkResults));
+        }
+        return BulkResultDTO.of(results);
+    }
+
+    private Map<String, Expense> findExisting(String tenantId, Set<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return mongoTemplate.find(new Query(Criteria.where("id").in(ids).and("tenantId").is(tenantId)), Expense.class).stream()
+                .collect(Collectors.toMap(Expense::getId, Function.identity()));
+    }
+
+    private static Map<Integer, String> execute(BulkOperations operations) {
+        try {
+            operations.execute();
+            return Map.of();
+        } catch (BulkOperationException ex) {
+            Map<Integer, String> errors = new HashMap<>();
+            for (BulkWriteError error : ex.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+            return errors;
+        }
+    }
+
+    private static Expense toExpense(String tenantId, String id, ExpenseDTO dto, Expense previous) {
+        LocalDate date = dto.getDate();
+        if (date == null) {
+            date = previous != null && previous.getDate() != null ? previous.getDate() : LocalDate.now();
+        }
+        String currency = Money.currency(dto.getCurrency());
+        Expense expense = new Expense(id, dto.getDescription(), Money.toMinorUnits(dto.getAmount(), currency),
+                dto.getCategory(), date);
+        expense.setTenantId(tenantId);
+        expense.setCurrency(currency);
+        return expense;
+    }
+
+    private static Query byId(String tenantId, String id) {
+        return new Query(Criteria.where("id").is(id).and("tenantId").is(tenantId));
+    }
+
+    private static BulkItemResultDTO failed(int index, String id, String error) {
+        return new BulkItemResultDTO(index, id, BulkItemStatus.FAILED, error);
+    }
+
+    private static int validateChunkSize(int chunkSize) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + MAX_CHUNK_SIZE + ".");
+        }
+        return chunkSize;
+    }
+}
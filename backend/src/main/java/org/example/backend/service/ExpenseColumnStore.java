@@ -0,0 +1,416 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Money;
+import org.example.backend.model.Tenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * An optional in-memory copy of the expenses, archived ones included, laid out as one primitive
+ * array per field: minor units and a dictionary-encoded day and category. Stats with
+ * {@link StatsSource#COLUMNS} are answered from it with plain loops over those arrays, without a
+ * round trip to Mongo.
+ *
+ * <p>The arrays are append-only. {@link ExpenseRollupService} forwards every delta it applies, and
+ * a delete or an update appends a row with sign -1 that repeats the old values, so it matches every
+ * filter the original row matched and cancels it out. Sums and counts stay exact; min and max are
+ * not kept, as with rollups. A periodic reload from Mongo and the archive drops the cancelled rows
+ * again. Deltas that arrive while a reload reads are recorded and replayed onto its result before
+ * it replaces the current columns, so they are not lost; one whose write the reload had already
+ * read is counted twice until the next reload, which is the rarer and smaller error.
+ */
+@Service
+public class ExpenseColumnStore implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseColumnStore.class);
+    // Undated expenses count towards totals and categories but not towards any period.
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final MongoTemplate mongoTemplate;
+    private final ExpenseArchiveService expenseArchiveService;
+    private final boolean enabled;
+    private final long reloadIntervalMillis;
+    // Null until the first load has finished.
+    private volatile Map<String, Columns> tenants;
+    // Loads take loadLock, then writeLock for the swap; deltas only take writeLock.
+    private final Object loadLock = new Object();
+    private final Object writeLock = new Object();
+    // The deltas applied since the running load started, null when none is running.
+    private List<Consumer<Map<String, Columns>>> pending;
+    private final ScheduledExecutorService loader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-column-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ExpenseColumnStore(MongoTemplate mongoTemplate,
+                              ExpenseArchiveService expenseArchiveService,
+                              @Value("${analytics.column-store.enabled:false}") boolean enabled,
+                              @Value("${analytics.column-store.reload-interval-ms:3600000}") long reloadIntervalMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.expenseArchiveService = expenseArchiveService;
+        this.enabled = enabled;
+        this.reloadIntervalMillis = reloadIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleLoading() {
+        if (enabled) {
+            loader.scheduleWithFixedDelay(this::loadQuietly, 0, reloadIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether stats can be served from here; false while disabled or before the first load.
+     */
+    public boolean isReady() {
+        return tenants != null;
+    }
+
+    /**
+     * Replaces the columns of every tenant with a fresh copy of Mongo and the archive. No expenses
+     * are archived meanwhile, since one moving between the two reads would be counted twice or not
+     * at all.
+     */
+    public long load() {
+        return expenseArchiveService.withoutMoves(this::loadColumns);
+    }
+
+    /**
+     * Loads the columns again on the loader thread, for callers that should not wait for it.
+     */
+    public void reload() {
+        loader.execute(this::loadQuietly);
+    }
+
+    public void applyAll(List<Expense> added, List<Expense> removed) {
+        apply(columns -> {
+            for (Expense expense : added) {
+                append(columns, expense, 1);
+            }
+            for (Expense expense : removed) {
+                append(columns, expense, -1);
+            }
+        });
+    }
+
+    public void applyUpdate(String oldCategory, LocalDate oldDate, long oldAmountCents, Expense updated) {
+        if (Objects.equals(oldCategory, updated.getCategory())
+                && Objects.equals(oldDate, updated.getDate()) && oldAmountCents == updated.getAmountCents()) {
+            return;
+        }
+        apply(columns -> {
+            Columns tenant = columns.computeIfAbsent(tenantOf(updated), tenantId -> new Columns());
+            tenant.append(oldCategory, oldDate, oldAmountCents, -1);
+            tenant.append(updated.getCategory(), updated.getDate(), updated.getAmountCents(), 1);
+        });
+    }
+
+    /**
+     * Totals of the expenses of {@code tenantId} that match {@code filter}, by category and by the
+     * period starting each bucket. Description filters are not supported, as there is no column
+     * for them.
+     */
+    public Stats stats(String tenantId, ExpenseFilter filter, StatsPeriod period) {
+        Map<String, Columns> current = tenants;
+        if (current == null) {
+            throw new IllegalStateException("The column store is not loaded");
+        }
+        if (filter != null && filter.getDescription() != null && !filter.getDescription().isBlank()) {
+            throw new IllegalArgumentException("Column stats cannot be filtered by description.");
+        }
+        Columns columns = current.get(tenantId);
+        return columns == null ? Stats.EMPTY : columns.snapshot().stats(filter, period);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("expenses.column.store.rows", this,
+                        store -> store.tenants == null ? 0
+                                : store.tenants.values().stream().mapToLong(Columns::size).sum())
+                .description("Rows held by the in-memory column store, cancelled ones included")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private long loadColumns() {
+        synchronized (loadLock) {
+            synchronized (writeLock) {
+                pending = new ArrayList<>();
+            }
+            Map<String, Columns> loaded = new ConcurrentHashMap<>();
+            try {
+                Query query = new Query();
+                query.fields().include("tenantId", "amountCents", "category", "date");
+                try (Stream<Expense> expenses = mongoTemplate.stream(query, Expense.class)) {
+                    expenses.forEach(expense -> append(loaded, expense, 1));
+                }
+                expenseArchiveService.forEachArchivedMonth(month -> month.forEach(expense -> append(loaded, expense, 1)));
+                synchronized (writeLock) {
+                    pending.forEach(delta -> delta.accept(loaded));
+                    tenants = loaded;
+                }
+            } finally {
+                synchronized (writeLock) {
+                    pending = null;
+                }
+            }
+            return loaded.values().stream().mapToLong(Columns::size).sum();
+        }
+    }
+
+    private void apply(Consumer<Map<String, Columns>> delta) {
+        synchronized (writeLock) {
+            // Before the first load there is nothing to apply to, unless that load is running.
+            if (tenants != null) {
+                delta.accept(tenants);
+            }
+            if (pending != null) {
+                pending.add(delta);
+            }
+        }
+    }
+
+    private void loadQuietly() {
+        try {
+            long start = System.nanoTime();
+            long rows = load();
+            log.info("Loaded {} expense rows into the column store in {} ms", rows,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException ex) {
+            log.warn("Loading the expense column store failed, will retry", ex);
+        }
+    }
+
+    private static void append(Map<String, Columns> tenants, Expense expense, int sign) {
+        tenants.computeIfAbsent(tenantOf(expense), tenantId -> new Columns())
+                .append(expense.getCategory(), expense.getDate(), expense.getAmountCents(), sign);
+    }
+
+    private static String tenantOf(Expense expense) {
+        // Expenses the tenant migration has not reached yet belong to the default tenant.
+        return expense.getTenantId() == null ? Tenant.DEFAULT : expense.getTenantId();
+    }
+
+    public record Group(String key, long totalCents, long count) {
+    }
+
+    public record Stats(Group totals, List<Group> byCategory, List<Group> byPeriod) {
+        static final Stats EMPTY = new Stats(null, List.of(), List.of());
+    }
+
+    /**
+     * The rows of one tenant. Appends happen under the lock; readers take a {@link Snapshot} under
+     * the same lock and then scan without it. Rows below the snapshot size are never written again
+     * and growing copies into new arrays, so a snapshot stays valid however long the scan takes.
+     * Days are dictionary-encoded like categories, so a query works per distinct day rather than
+     * per calendar day between the first and the last one.
+     */
+    static final class Columns {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final Map<String, Integer> categoryCodes = new HashMap<>();
+        private final List<String> categories = new ArrayList<>();
+        private final Map<Integer, Integer> dayCodes = new HashMap<>();
+        private int[] days = new int[64];
+        private int[] dayIndexes = new int[INITIAL_CAPACITY];
+        private long[] amounts = new long[INITIAL_CAPACITY];
+        private int[] categoryIndexes = new int[INITIAL_CAPACITY];
+        private byte[] signs = new byte[INITIAL_CAPACITY];
+        private int size;
+
+        synchronized void append(String category, LocalDate date, long amountCents, int sign) {
+            if (size == dayIndexes.length) {
+                int capacity = size * 2;
+                dayIndexes = Arrays.copyOf(dayIndexes, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                categoryIndexes = Arrays.copyOf(categoryIndexes, capacity);
+                signs = Arrays.copyOf(signs, capacity);
+            }
+            int epochDay = date == null ? NO_DATE : (int) date.toEpochDay();
+            Integer day = dayCodes.get(epochDay);
+            if (day == null) {
+                day = dayCodes.size();
+                if (day == days.length) {
+                    days = Arrays.copyOf(days, day * 2);
+                }
+                days[day] = epochDay;
+                dayCodes.put(epochDay, day);
+            }
+            // A map key may be null (a missing category), which HashMap allows.
+            Integer code = categoryCodes.get(category);
+            if (code == null) {
+                code = categories.size();
+                categoryCodes.put(category, code);
+                categories.add(category);
+            }
+            dayIndexes[size] = day;
+            amounts[size] = amountCents;
+            categoryIndexes[size] = code;
+            signs[size] = (byte) sign;
+            size++;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized Snapshot snapshot() {
+            return new Snapshot(size, dayIndexes, amounts, categoryIndexes, signs,
+                    categories.toArray(String[]::new), Arrays.copyOf(days, dayCodes.size()));
+        }
+    }
+
+    record Snapshot(int size, int[] dayIndexes, long[] amounts, int[] categoryIndexes, byte[] signs,
+                    String[] categories, int[] days) {
+
+        private static final Comparator<Group> BY_TOTAL = Comparator.comparingLong(Group::totalCents).reversed()
+                .thenComparing(Group::key, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        Stats stats(ExpenseFilter filter, StatsPeriod period) {
+            int category = -1;
+            int from = NO_DATE;
+            int to = Integer.MAX_VALUE;
+            long minAmount = Long.MIN_VALUE;
+            long maxAmount = Long.MAX_VALUE;
+            if (filter != null) {
+                if (filter.getCategory() != null && !filter.getCategory().isBlank()) {
+                    category = Arrays.asList(categories).indexOf(filter.getCategory());
+                    if (category < 0) {
+                        return Stats.EMPTY;
+                    }
+                }
+                // Like a Mongo range, any date bound leaves out the undated rows.
+                if (filter.getStartDate() != null || filter.getEndDate() != null) {
+                    from = NO_DATE + 1;
+                }
+                if (filter.getStartDate() != null) {
+                    from = (int) filter.getStartDate().toEpochDay();
+                }
+                if (filter.getEndDate() != null) {
+                    to = (int) filter.getEndDate().toEpochDay();
+                }
+                if (filter.getMinAmount() != null) {
+                    minAmount = Money.toMinorUnits(filter.getMinAmount(), Money.DEFAULT_CURRENCY, RoundingMode.CEILING);
+                }
+                if (filter.getMaxAmount() != null) {
+                    maxAmount = Money.toMinorUnits(filter.getMaxAmount(), Money.DEFAULT_CURRENCY, RoundingMode.FLOOR);
+                }
+            }
+
+            // Every distinct day maps to whether it is in range and to the index of its bucket, so
+            // the scan below only does array lookups. Days in range are visited in date order, which
+            // keeps the buckets sorted; the out-of-range and undated ones get no bucket.
+            boolean[] dayMatches = new boolean[days.length];
+            int[] bucketOfDay = new int[days.length];
+            long[] datedDays = new long[days.length];
+            int dated = 0;
+            for (int code = 0; code < days.length; code++) {
+                dayMatches[code] = days[code] >= from && days[code] <= to;
+                bucketOfDay[code] = -1;
+                if (dayMatches[code] && days[code] != NO_DATE) {
+                    // The day in the high half sorts by date; the code rides along in the low half.
+                    datedDays[dated++] = (long) days[code] << 32 | code;
+                }
+            }
+            Arrays.sort(datedDays, 0, dated);
+            List<LocalDate> bucketStarts = new ArrayList<>();
+            for (int i = 0; i < dated; i++) {
+                LocalDate start = bucketStart(LocalDate.ofEpochDay(datedDays[i] >> 32), period);
+                if (bucketStarts.isEmpty() || !bucketStarts.getLast().equals(start)) {
+                    bucketStarts.add(start);
+                }
+                bucketOfDay[(int) datedDays[i]] = bucketStarts.size() - 1;
+            }
+
+            long[] categoryTotals = new long[categories.length];
+            long[] categoryCounts = new long[categories.length];
+            long[] periodTotals = new long[bucketStarts.size()];
+            long[] periodCounts = new long[bucketStarts.size()];
+            // One pass over flat primitive arrays. A row that does not match gets weight 0 instead
+            // of being skipped, which keeps the category sums free of branches.
+            for (int i = 0; i < size; i++) {
+                int day = dayIndexes[i];
+                long amount = amounts[i];
+                int code = categoryIndexes[i];
+                boolean matches = dayMatches[day] && amount >= minAmount && amount <= maxAmount
+                        && (category < 0 || code == category);
+                int weight = matches ? signs[i] : 0;
+                categoryTotals[code] += weight * amount;
+                categoryCounts[code] += weight;
+                int bucket = bucketOfDay[day];
+                if (bucket >= 0 && weight != 0) {
+                    periodTotals[bucket] += weight * amount;
+                    periodCounts[bucket] += weight;
+                }
+            }
+
+            long total = 0;
+            long count = 0;
+            List<Group> byCategory = new ArrayList<>();
+            for (int code = 0; code < categories.length; code++) {
+                total += categoryTotals[code];
+                count += categoryCounts[code];
+                if (categoryCounts[code] > 0) {
+                    byCategory.add(new Group(categories[code], categoryTotals[code], categoryCounts[code]));
+                }
+            }
+            byCategory.sort(BY_TOTAL);
+            List<Group> byPeriod = new ArrayList<>();
+            for (int bucket = 0; bucket < bucketStarts.size(); bucket++) {
+                if (periodCounts[bucket] > 0) {
+                    byPeriod.add(new Group(bucketStarts.get(bucket).toString(), periodTotals[bucket], periodCounts[bucket]));
+                }
+            }
+            return new Stats(count > 0 ? new Group("total", total, count) : null, byCategory, byPeriod);
+        }
+
+        private static LocalDate bucketStart(LocalDate day, StatsPeriod period) {
+            return switch (period) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+                case YEAR -> day.withDayOfYear(1);
+            };
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import org.example.backend.repository.ExpenseRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ExpenseExportService {
+
+    private static final String CSV_HEADER = "id,description,amount,category,date";
+
+    private final ExpenseRepository expenseRepository;
+    private final ObjectMapper objectMapper;
+
+    public Export exportExpenses(ExpenseFilter filter, ExportFormat format) {
+        // The cursor is opened here so that query errors surface before the response is committed.
+        Stream<Expense> expenses = expenseRepository.streamByFilter(TenantContext.current(), filter);
+        return new Export(expenses, out -> {
+            try (expenses) {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(expenses.iterator(), out);
+                } else {
+                    writeNdjson(expenses.iterator(), out);
+                }
+            }
+        });
+    }
+
+    private void writeNdjson(Iterator<Expense> expenses, OutputStream out) throws IOException {
+        boolean written = false;
+        try (SequenceWriter writer = objectMapper.writerFor(ExpenseDTO.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(out)) {
+            while (expenses.hasNext()) {
+                writer.write(ExpenseService.convertToDTO(expenses.next()));
+                written = true;
+            }
+        }
+        // The separator only goes between records; an empty export stays empty rather than a blank line.
+        if (written) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private void writeCsv(Iterator<Expense> expenses, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (expenses.hasNext()) {
+            ExpenseDTO dto = ExpenseService.convertToDTO(expenses.next());
+            writer.write(csvField(dto.getId()));
+            writer.write(',');
+            writer.write(csvField(dto.getDescription()));
+            writer.write(',');
+            writer.write(dto.getAmount().toPlainString());
+            writer.write(',');
+            writer.write(csvField(dto.getCategory()));
+            writer.write(',');
+            writer.write(dto.getDate() == null ? "" : dto.getDate().toString());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * The body of an export response. It owns an open cursor, and with it a stream permit of the
+     * {@link MongoConcurrencyLimiter}, which writing the body releases; {@link #close()} releases
+     * them too, for when the body never runs, and does nothing once they are released.
+     */
+    public static final class Export implements StreamingResponseBody, AutoCloseable {
+
+        private final Stream<Expense> expenses;
+        private final StreamingResponseBody body;
+
+        private Export(Stream<Expense> expenses, StreamingResponseBody body) {
+            this.expenses = expenses;
+            this.body = body;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            body.writeTo(out);
+        }
+
+        @Override
+        public void close() {
+            expenses.close();
+        }
+    }
+
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,228 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.backend.dto.BulkItemResultDTO;
+import org.example.backend.dto.BulkResultDTO;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.dto.ImportJobDTO;
+import org.example.backend.exception.ImportJobNotFoundException;
+import org.example.backend.model.Category;
+import org.example.backend.repository.CategoryRepository;
+import org.example.backend.service.importer.ImportFormat;
+import org.example.backend.service.importer.ImportJob;
+import org.example.backend.service.importer.StatementRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ExpenseImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseImportService.class);
+    private static final String DEFAULT_CATEGORY = "Other";
+    private static final StatementRow END_OF_INPUT = StatementRow.invalid(-1, "end of input");
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    private final ExpenseBulkService expenseBulkService;
+    private final CategoryRepository categoryRepository;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final ExecutorService parserExecutor;
+    private final ExecutorService writerExecutor;
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+    public ExpenseImportService(ExpenseBulkService expenseBulkService,
+                                CategoryRepository categoryRepository,
+                                @Value("${imports.batch-size:1000}") int batchSize,
+                                @Value("${imports.queue-capacity:10000}") int queueCapacity,
+                                @Value("${imports.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        this.expenseBulkService = expenseBulkService;
+        this.categoryRepository = categoryRepository;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.parserExecutor = Executors.newFixedThreadPool(maxConcurrentJobs);
+        this.writerExecutor = Executors.newFixedThreadPool(maxConcurrentJobs);
+    }
+
+    public ImportJobDTO startImport(MultipartFile file, String format) throws IOException {
+        ImportFormat importFormat = format == null || format.isBlank()
+                ? ImportFormat.fromFileName(file.getOriginalFilename())
+                : ImportFormat.fromValue(format);
+        // The upload is spooled to disk so the request can return while the file is parsed in the background.
+        Path spooled = Files.createTempFile("expense-import-", "." + importFormat.name().toLowerCase(Locale.ROOT));
+        file.transferTo(spooled);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), TenantContext.current(), file.getOriginalFilename(),
+                importFormat);
+        register(job);
+        parserExecutor.submit(() -> run(job, importFormat, spooled));
+        return job.toDTO();
+    }
+
+    public ImportJobDTO getJob(String id) {
+        synchronized (jobs) {
+            ImportJob job = jobs.get(id);
+            if (job == null || !job.getTenantId().equals(TenantContext.current())) {
+                throw new ImportJobNotFoundException("Import job not found with id: " + id);
+            }
+            return job.toDTO();
+        }
+    }
+
+    void run(ImportJob job, ImportFormat format, Path input) {
+        job.start();
+        BlockingQueue<StatementRow> queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Both threads work for the tenant that started the import.
+        Future<?> writer = writerExecutor.submit(() -> {
+            try (TenantContext.Scope ignored = TenantContext.bind(job.getTenantId())) {
+                drain(job, queue);
+            }
+            return null;
+        });
+        Map<String, String> categories = loadCategoryNames(job.getTenantId());
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            try {
+                format.newParser().parse(reader, row -> {
+                    job.rowRead();
+                    if (!row.isValid()) {
+                        job.rowFailed(row.lineNumber(), row.error());
+                        return;
+                    }
+                    resolveCategory(row.expense(), categories);
+                    enqueue(queue, row, writer);
+                });
+                enqueue(queue, END_OF_INPUT, writer);
+            } catch (WriterStoppedException ex) {
+                // Parsing stops; get() below rethrows the writer's own failure, which is the real cause.
+            }
+            writer.get();
+            job.complete();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            writer.cancel(true);
+            job.fail("Import was interrupted.");
+        } catch (ExecutionException ex) {
+            log.warn("Import job {} failed while writing", job.getId(), ex.getCause());
+            job.fail(ex.getCause().getMessage());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Import job {} failed while parsing", job.getId(), ex);
+            writer.cancel(true);
+            job.fail(ex.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(input);
+            } catch (IOException ex) {
+                log.warn("Could not delete spooled import file {}", input, ex);
+            }
+        }
+    }
+
+    private void drain(ImportJob job, BlockingQueue<StatementRow> queue) throws InterruptedException {
+        List<StatementRow> batch = new ArrayList<>(batchSize);
+        while (true) {
+            StatementRow row = queue.take();
+            if (row == END_OF_INPUT) {
+                break;
+            }
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                flush(job, batch);
+            }
+        }
+        flush(job, batch);
+    }
+
+    private void flush(ImportJob job, List<StatementRow> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<ExpenseDTO> expenses = new ArrayList<>(batch.size());
+        for (StatementRow row : batch) {
+            expenses.add(row.expense());
+        }
+        BulkResultDTO result = expenseBulkService.createExpenses(expenses, expenses.size());
+        job.rowsImported(result.getSucceeded());
+        for (BulkItemResultDTO item : result.getItems()) {
+            if (item.getStatus() == BulkItemResultDTO.BulkItemStatus.FAILED) {
+                job.rowFailed(batch.get(item.getIndex()).lineNumber(), item.getError());
+            }
+        }
+        batch.clear();
+    }
+
+    private static void enqueue(BlockingQueue<StatementRow> queue, StatementRow row, Future<?> writer)
+            throws InterruptedException {
+        // Blocks while the writer is behind; that is the back-pressure on the parser.
+        while (!queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                throw new WriterStoppedException();
+            }
+        }
+    }
+
+    // The writer only finishes early when it failed; thrown out of the parser to stop it.
+    private static final class WriterStoppedException extends RuntimeException {
+        private WriterStoppedException() {
+            super("Import writer stopped unexpectedly.", null, false, false);
+        }
+    }
+
+    private Map<String, String> loadCategoryNames(String tenantId) {
+        Map<String, String> names = new HashMap<>();
+        for (Category category : categoryRepository.findByTenantId(tenantId)) {
+            names.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category.getName());
+        }
+        return names;
+    }
+
+    private static void resolveCategory(ExpenseDTO expense, Map<String, String> categories) {
+        String category = expense.getCategory();
+        if (category == null || category.isBlank()) {
+            expense.setCategory(DEFAULT_CATEGORY);
+            return;
+        }
+        expense.setCategory(categories.getOrDefault(category.trim().toLowerCase(Locale.ROOT), category.trim()));
+    }
+
+    private void register(ImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            Iterator<ImportJob> oldest = jobs.values().iterator();
+            while (jobs.size() > MAX_RETAINED_JOBS && oldest.hasNext()) {
+                ImportJob candidate = oldest.next();
+                if (candidate.getStatus() == ImportJob.Status.COMPLETED || candidate.getStatus() == ImportJob.Status.FAILED) {
+                    oldest.remove();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        parserExecutor.shutdownNow();
+        writerExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,346 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.example.backend.dto.BulkItemResultDTO;
+import org.example.backend.dto.BulkResultDTO;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.exception.IngestBufferFullException;
+import org.example.backend.model.Money;
+import org.example.backend.model.Tenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind path for {@code POST /api/expenses} with {@code Prefer: respond-async}. Accepted
+ * expenses get their id up front, are appended to a local journal and buffered in memory; a
+ * background flusher upserts them in batches. Each flush first rotates the journal, so the rotated
+ * file holds exactly the drained batch and is deleted once Mongo has it. Journals left over from a
+ * crash are replayed on startup; the flush is an upsert by id, so replaying an already written
+ * batch is harmless. Every journal entry records the tenant it was accepted for, and the flusher
+ * writes each tenant's expenses under that tenant. Expenses Mongo rejects were already
+ * acknowledged with a 202, so they are appended to {@code dead-letter.ndjson} in the journal
+ * directory, with the reason, before their journal is deleted.
+ *
+ * <p>With {@code ingest.journal-sync} a request returns only once its entry is on disk, but the
+ * sync is a group commit: appends happen under the journal lock, and the fsync runs outside it,
+ * covering every entry appended before it started. Requests that arrive during an fsync append
+ * meanwhile and share the next one, so throughput is not capped at one disk flush per request.
+ */
+@Service
+public class ExpenseIngestService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseIngestService.class);
+    private static final String CURRENT_JOURNAL = "current.ndjson";
+    private static final String FLUSHING_PREFIX = "flushing-";
+    private static final String DEAD_LETTER = "dead-letter.ndjson";
+
+    private final ExpenseBulkService expenseBulkService;
+    private final ObjectMapper objectMapper;
+    private final Path journalDir;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final boolean syncJournal;
+    private final BlockingQueue<JournalEntry> buffer;
+    private final LongAdder deadLettered = new LongAdder();
+
+    private final Object journalLock = new Object();
+    private FileChannel journal;
+    // Entries appended to any journal so far, guarded by journalLock.
+    private long appended;
+    // Entries known to be on disk; only grows. One thread at a time syncs, under syncLock.
+    private final AtomicLong synced = new AtomicLong();
+    private final Object syncLock = new Object();
+
+    // Owned by the flusher (guarded by "this"): the batch being written and the journals backing it.
+    private final List<JournalEntry> pending = new ArrayList<>();
+    private final List<Path> pendingJournals = new ArrayList<>();
+    private ScheduledExecutorService flusher;
+
+    public ExpenseIngestService(ExpenseBulkService expenseBulkService,
+                                ObjectMapper objectMapper,
+                                @Value("${ingest.journal-dir:data/ingest}") String journalDir,
+                                @Value("${ingest.buffer-capacity:10000}") int bufferCapacity,
+                                @Value("${ingest.batch-size:1000}") int batchSize,
+                                @Value("${ingest.flush-interval-ms:200}") long flushIntervalMillis,
+                                @Value("${ingest.journal-sync:true}") boolean syncJournal) {
+        this.expenseBulkService = expenseBulkService;
+        this.objectMapper = objectMapper;
+        this.journalDir = Path.of(journalDir);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.syncJournal = syncJournal;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(journalDir);
+        recover();
+        synchronized (journalLock) {
+            journal = openJournal();
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "expense-ingest-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public ExpenseDTO enqueue(ExpenseDTO expenseDTO) {
+        // Amounts are validated here, since a journaled expense that fails at flush time is dead-lettered.
+        String currency = Money.currency(expenseDTO.getCurrency());
+        long amountCents = Money.toMinorUnits(expenseDTO.getAmount(), currency);
+        ExpenseDTO accepted = ExpenseDTO.builder()
+                .id(new ObjectId().toHexString())
+                .description(expenseDTO.getDescription())
+                .amount(Money.fromMinorUnits(amountCents, currency))
+                .currency(currency)
+                .category(expenseDTO.getCategory())
+                .date(LocalDate.now())
+                .build();
+        JournalEntry entry = new JournalEntry(TenantContext.current(), accepted);
+        ByteBuffer line = jsonLine(entry);
+        long position;
+        synchronized (journalLock) {
+            if (buffer.remainingCapacity() == 0) {
+                throw new IngestBufferFullException("Expense ingestion buffer is full, try again later.");
+            }
+            try {
+                while (line.hasRemaining()) {
+                    journal.write(line);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not journal expense " + accepted.getId(), ex);
+            }
+            buffer.add(entry);
+            position = ++appended;
+        }
+        if (syncJournal) {
+            // A failed sync leaves the entry journaled and buffered, so it is still written, as
+            // after a crash between the append and the response.
+            awaitSynced(position, accepted.getId());
+        }
+        return accepted;
+    }
+
+    private void awaitSynced(long position, String expenseId) {
+        synchronized (syncLock) {
+            if (synced.get() >= position) {
+                // The fsync of an earlier request, or a rotation, already covered this entry.
+                return;
+            }
+            long target;
+            FileChannel channel;
+            synchronized (journalLock) {
+                target = appended;
+                channel = journal;
+            }
+            try {
+                channel.force(false);
+                synced.accumulateAndGet(target, Math::max);
+            } catch (ClosedChannelException ex) {
+                // Rotated meanwhile; the rotation synced the journal before closing it.
+                if (synced.get() < position) {
+                    throw new UncheckedIOException("Could not sync the journal of expense " + expenseId, ex);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not sync the journal of expense " + expenseId, ex);
+            }
+        }
+    }
+
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ingest.buffered", buffer, BlockingQueue::size).register(registry);
+        FunctionCounter.builder("ingest.dead.lettered", deadLettered, LongAdder::sum).register(registry);
+    }
+
+    synchronized void flush() throws IOException {
+        if (pending.isEmpty()) {
+            synchronized (journalLock) {
+                if (buffer.isEmpty()) {
+                    return;
+                }
+                if (syncJournal) {
+                    // Requests still waiting for their group commit find their entries synced here.
+                    journal.force(false);
+                    synced.accumulateAndGet(appended, Math::max);
+                }
+                journal.close();
+                pendingJournals.add(rotate(journalDir.resolve(CURRENT_JOURNAL)));
+                journal = openJournal();
+                buffer.drainTo(pending);
+            }
+        }
+        Map<String, List<ExpenseDTO>> byTenant = new LinkedHashMap<>();
+        for (JournalEntry entry : pending) {
+            byTenant.computeIfAbsent(entry.tenantId(), tenantId -> new ArrayList<>()).add(entry.expense());
+        }
+        // A Mongo failure throws here and leaves the batch and its journal in place for the next run.
+        List<DeadLetter> rejected = new ArrayList<>();
+        for (Map.Entry<String, List<ExpenseDTO>> tenantBatch : byTenant.entrySet()) {
+            BulkResultDTO result;
+            try (TenantContext.Scope ignored = TenantContext.bind(tenantBatch.getKey())) {
+                result = expenseBulkService.upsertExpenses(tenantBatch.getValue(), batchSize);
+            }
+            for (BulkItemResultDTO item : result.getItems()) {
+                if (item.getStatus() == BulkItemResultDTO.BulkItemStatus.FAILED) {
+                    rejected.add(new DeadLetter(tenantBatch.getKey(), tenantBatch.getValue().get(item.getIndex()),
+                            item.getError(), Instant.now()));
+                }
+            }
+        }
+        if (!rejected.isEmpty()) {
+            // Written and synced before the journal goes, so a rejected expense is never only in memory.
+            writeDeadLetters(rejected);
+            log.warn("Moved {} of {} buffered expenses that Mongo rejected to {}", rejected.size(), pending.size(),
+                    journalDir.resolve(DEAD_LETTER));
+        }
+        for (Path path : pendingJournals) {
+            Files.deleteIfExists(path);
+        }
+        pending.clear();
+        pendingJournals.clear();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Flushing buffered expenses failed, will retry", ex);
+        }
+    }
+
+    private void recover() throws IOException {
+        Path current = journalDir.resolve(CURRENT_JOURNAL);
+        if (Files.exists(current)) {
+            rotate(current);
+        }
+        try (DirectoryStream<Path> journals = Files.newDirectoryStream(journalDir, FLUSHING_PREFIX + "*.ndjson")) {
+            for (Path path : journals) {
+                pending.addAll(readJournal(path));
+                pendingJournals.add(path);
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} journaled expenses from {} file(s)", pending.size(), pendingJournals.size());
+        }
+    }
+
+    private List<JournalEntry> readJournal(Path path) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    // Journals written before tenants existed hold bare expenses of the default tenant.
+                    entries.add(node.has("expense")
+                            ? objectMapper.treeToValue(node, JournalEntry.class)
+                            : new JournalEntry(Tenant.DEFAULT, objectMapper.treeToValue(node, ExpenseDTO.class)));
+                } catch (IOException ex) {
+                    // Only the tail can be torn by a crash mid-append; that expense was never acknowledged.
+                    log.warn("Skipping unreadable journal entry in {}", path);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void writeDeadLetters(List<DeadLetter> rejected) throws IOException {
+        try (FileChannel deadLetters = FileChannel.open(journalDir.resolve(DEAD_LETTER),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (DeadLetter deadLetter : rejected) {
+                ByteBuffer line = jsonLine(deadLetter);
+                while (line.hasRemaining()) {
+                    deadLetters.write(line);
+                }
+            }
+            deadLetters.force(false);
+        }
+        deadLettered.add(rejected.size());
+    }
+
+    private Path rotate(Path journalFile) throws IOException {
+        Path rotated = journalDir.resolve(FLUSHING_PREFIX + System.nanoTime() + ".ndjson");
+        return Files.move(journalFile, rotated, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journalDir.resolve(CURRENT_JOURNAL),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private ByteBuffer jsonLine(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        // Best effort: anything not written stays journaled and is replayed on the next start.
+        flushQuietly();
+        synchronized (journalLock) {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+    record JournalEntry(String tenantId, ExpenseDTO expense) {
+    }
+
+    record DeadLetter(String tenantId, ExpenseDTO expense, String error, Instant rejectedAt) {
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.backend.service;
+
+import com.mongodb.client.model.Filters;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseRollup;
+import org.example.backend.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts expenses stored with a floating point {@code amount} to integer {@code amountCents} plus
+ * {@code currency}. The legacy field is the checkpoint: it is removed in the same update that sets
+ * the new ones, so an interrupted migration simply carries on at the next start.
+ *
+ * <p>The conversion finishes before the application accepts requests: an unconverted expense reads
+ * as zero, and an edit to one would be overwritten by the conversion later. Writes that set
+ * {@code amountCents} also remove the legacy field for the same reason.
+ */
+@Service
+public class ExpenseMoneyMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseMoneyMigration.class);
+    private static final int BATCH_SIZE = 1000;
+    static final String LEGACY_AMOUNT = "amount";
+    static final String LEGACY_INDEX = "date_amount";
+
+    // Rounded on the server, so 19.99 (stored as 19.989999...) becomes 1999 and not 1998.
+    private static final List<Document> CONVERT = List.of(
+            new Document("$set", new Document("amountCents", new Document("$toLong", new Document("$round", List.of(
+                    new Document("$multiply", List.of(new Document("$ifNull", List.of("$" + LEGACY_AMOUNT, 0)), 100)), 0))))
+                    .append("currency", new Document("$ifNull", List.of("$currency", Money.DEFAULT_CURRENCY)))),
+            new Document("$unset", LEGACY_AMOUNT));
+
+    private final MongoTemplate mongoTemplate;
+    private final ExpenseRollupService expenseRollupService;
+
+    public ExpenseMoneyMigration(MongoTemplate mongoTemplate, ExpenseRollupService expenseRollupService) {
+        this.mongoTemplate = mongoTemplate;
+        this.expenseRollupService = expenseRollupService;
+    }
+
+    // Runs while the context starts, before the web server opens its port; a failure stops startup.
+    @PostConstruct
+    void migrateBeforeServing() {
+        long migrated = migrate();
+        if (migrated > 0) {
+            log.info("Converted {} expenses to integer minor units", migrated);
+        }
+    }
+
+    long migrate() {
+        String collection = mongoTemplate.getCollectionName(Expense.class);
+        long migrated = 0;
+        while (true) {
+            Query query = new Query(Criteria.where(LEGACY_AMOUNT).exists(true)).limit(BATCH_SIZE);
+            query.fields().include("_id");
+            List<Document> batch = mongoTemplate.find(query, Document.class, collection);
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<Object> ids = new ArrayList<>(batch.size());
+            for (Document document : batch) {
+                ids.add(document.get("_id"));
+            }
+            migrated += mongoTemplate.getCollection(collection)
+                    .updateMany(Filters.and(Filters.in("_id", ids), Filters.exists(LEGACY_AMOUNT)), CONVERT)
+                    .getModifiedCount();
+        }
+        dropLegacyIndex();
+        // Rollups written before the conversion hold floating point totals; rebuilding replaces them.
+        if (migrated > 0 || mongoTemplate.exists(new Query(Criteria.where("total").exists(true)), ExpenseRollup.class)) {
+            expenseRollupService.rebuild();
+        }
+        return migrated;
+    }
+
+    private void dropLegacyIndex() {
+        IndexOperations indexes = mongoTemplate.indexOps(Expense.class);
+        if (indexes.getIndexInfo().stream().anyMatch(index -> LEGACY_INDEX.equals(index.getName()))) {
+            indexes.dropIndex(LEGACY_INDEX);
+        }
+    }
+}
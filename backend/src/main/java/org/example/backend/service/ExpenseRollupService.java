@@ -0,0 +1,336 @@
+package org.example.backend.service;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.example.backend.dto.RollupVerificationDTO;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseRollup;
+import org.example.backend.model.Tenant;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+@RequiredArgsConstructor
+public class ExpenseRollupService {
+
+    static final String STAGING_SUFFIX = "_rebuild";
+
+    private final MongoTemplate mongoTemplate;
+    private final CollectionVersions collectionVersions;
+    private final ExpenseArchiveService expenseArchiveService;
+    // Every expense write already reports its delta here, so the column store is fed from the same calls.
+    private final ExpenseColumnStore expenseColumnStore;
+    // Deltas take the read lock; a rebuild takes the write lock only to replay them and swap.
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    // The deltas applied since the running rebuild started, null when none is running.
+    private Map<String, RollupDelta> rebuilding;
+
+    public void applyCreate(Expense expense) {
+        increment(expense.getTenantId(), expense.getCategory(), expense.getDate(), expense.getAmountCents(), 1);
+        expenseColumnStore.applyAll(List.of(expense), List.of());
+    }
+
+    public void applyDelete(Expense expense) {
+        increment(expense.getTenantId(), expense.getCategory(), expense.getDate(), -expense.getAmountCents(), -1);
+        expenseColumnStore.applyAll(List.of(), List.of(expense));
+        expenseArchiveService.supersede(expense.getTenantId(), List.of(expense.getId()));
+    }
+
+    public void applyUpdate(String oldCategory, LocalDate oldDate, long oldAmountCents, Expense updated) {
+        expenseColumnStore.applyUpdate(oldCategory, oldDate, oldAmountCents, updated);
+        // The rollups counted the live copy only, so a stale archived one is just hidden.
+        expenseArchiveService.supersede(updated.getTenantId(), List.of(updated.getId()));
+        String tenantId = updated.getTenantId();
+        if (Objects.equals(oldCategory, updated.getCategory()) && Objects.equals(oldDate, updated.getDate())) {
+            if (oldAmountCents != updated.getAmountCents()) {
+                increment(tenantId, oldCategory, oldDate, updated.getAmountCents() - oldAmountCents, 0);
+            }
+            return;
+        }
+        increment(tenantId, oldCategory, oldDate, -oldAmountCents, -1);
+        increment(tenantId, updated.getCategory(), updated.getDate(), updated.getAmountCents(), 1);
+    }
+
+    public void applyAll(List<Expense> added, List<Expense> removed) {
+        expenseColumnStore.applyAll(added, removed);
+        incrementAll(added, removed);
+        Map<String, List<String>> written = new HashMap<>();
+        for (List<Expense> expenses : List.of(added, removed)) {
+            for (Expense expense : expenses) {
+                written.computeIfAbsent(expense.getTenantId(), tenant -> new ArrayList<>()).add(expense.getId());
+            }
+        }
+        written.forEach(expenseArchiveService::supersede);
+    }
+
+    private void incrementAll(List<Expense> added, List<Expense> removed) {
+        // Collapse a batch into one delta per (tenant, category, day) so it costs one bulk write.
+        Map<String, RollupDelta> deltas = new LinkedHashMap<>();
+        for (Expense expense : added) {
+            addDelta(deltas, expense, 1);
+        }
+        for (Expense expense : removed) {
+            addDelta(deltas, expense, -1);
+        }
+        rebuildLock.readLock().lock();
+        try {
+            writeDeltas(mongoTemplate.getCollectionName(ExpenseRollup.class), deltas);
+            record(deltas.values());
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void writeDeltas(String collection, Map<String, RollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseRollup.class, collection);
+        deltas.forEach((key, delta) -> operations.upsert(
+                new Query(Criteria.where("id").is(key)),
+                incrementUpdate(delta.tenantId, delta.category, delta.day, delta.totalCents, delta.count)));
+        operations.execute();
+    }
+
+    // Called under the read lock, so a rebuild cannot swap between a delta's write and its record.
+    private void record(Iterable<RollupDelta> deltas) {
+        Map<String, RollupDelta> pending = rebuilding;
+        if (pending == null) {
+            return;
+        }
+        synchronized (pending) {
+            for (RollupDelta delta : deltas) {
+                RollupDelta merged = pending.computeIfAbsent(rollupKey(delta.tenantId, delta.category, delta.day),
+                        key -> new RollupDelta(delta.tenantId, delta.category, delta.day));
+                merged.totalCents += delta.totalCents;
+                merged.count += delta.count;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the rollups of all tenants from the expenses, archived ones included, and verifies
+     * those of the current one. No expenses are archived meanwhile, since one moving from Mongo to
+     * a segment between the two reads would be counted twice or not at all.
+     *
+     * <p>The new rollups are built in a staging collection, Mongo and archive alike, and renamed
+     * over the old ones in one step, so readers never see a half-built rollup. Deltas that arrive
+     * during the rebuild still go to the old rollups, and are recorded and replayed onto the
+     * staging collection just before the rename, under a lock that holds new deltas back. One
+     * whose expense write the aggregation had already read is counted twice, which
+     * {@link #verify()} reports and the next rebuild corrects.
+     */
+    public RollupVerificationDTO rebuild() {
+        return expenseArchiveService.withoutMoves(this::rebuildRollups);
+    }
+
+    private RollupVerificationDTO rebuildRollups() {
+        String rollups = mongoTemplate.getCollectionName(ExpenseRollup.class);
+        String staging = rollups + STAGING_SUFFIX;
+        rebuildLock.writeLock().lock();
+        try {
+            rebuilding = new LinkedHashMap<>();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        try {
+            buildRollups(staging);
+            rebuildLock.writeLock().lock();
+            try {
+                writeDeltas(staging, rebuilding);
+                mongoTemplate.getCollection(staging).renameCollection(
+                        new MongoNamespace(mongoTemplate.getDb().getName(), rollups),
+                        new RenameCollectionOptions().dropTarget(true));
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.writeLock().lock();
+            try {
+                rebuilding = null;
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+        }
+        // A rebuild means some delta may have been missed, and the column store shares them. Its
+        // reload reads every expense again, so it runs on its own thread rather than this request's.
+        if (expenseColumnStore.isReady()) {
+            expenseColumnStore.reload();
+        }
+        // Rollup-sourced stats are tagged with the expense version, so a rebuild invalidates them too.
+        collectionVersions.bump(CollectionVersions.EXPENSES);
+        return verifyRollups();
+    }
+
+    private void buildRollups(String staging) {
+        Document dayKey = new Document("$dateToString", new Document("format", "%Y-%m-%d")
+                .append("date", "$date")
+                .append("timezone", ZoneId.systemDefault().getId()));
+        List<AggregationOperation> operations = List.of(
+                context -> new Document("$match", new Document("date", new Document("$ne", null))),
+                // Expenses the tenant migration has not reached yet belong to the default tenant.
+                context -> new Document("$group", new Document("_id", new Document("tenantId",
+                                new Document("$ifNull", List.of("$tenantId", Tenant.DEFAULT)))
+                        .append("category", "$category")
+                        .append("day", "$date"))
+                        .append("totalCents", new Document("$sum", "$amountCents"))
+                        .append("count", new Document("$sum", 1))
+                        .append("dayKey", new Document("$first", dayKey))),
+                context -> new Document("$project", new Document("_id", new Document("$concat", List.of(
+                        "$_id.tenantId", "|", new Document("$ifNull", List.of("$_id.category", "")), "|", "$dayKey")))
+                        .append("tenantId", "$_id.tenantId")
+                        .append("category", "$_id.category")
+                        .append("day", "$_id.day")
+                        .append("totalCents", 1)
+                        .append("count", 1)),
+                context -> new Document("$out", staging));
+        mongoTemplate.aggregate(Aggregation.newAggregation(operations),
+                mongoTemplate.getCollectionName(Expense.class), Document.class);
+        // $out only sees Mongo; archived months are added back one bulk write each.
+        expenseArchiveService.forEachArchivedMonth(archived -> {
+            Map<String, RollupDelta> deltas = new LinkedHashMap<>();
+            archived.forEach(expense -> addDelta(deltas, expense, 1));
+            writeDeltas(staging, deltas);
+        });
+        // The rename keeps the staging collection's indexes, and $out created it with none.
+        IndexOperations indexes = mongoTemplate.indexOps(staging);
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(ExpenseRollup.class)
+                .forEach(indexes::ensureIndex);
+    }
+
+    /**
+     * Compares the rollups of the current tenant with totals computed from its expenses, both the
+     * ones in Mongo and the archived ones.
+     */
+    public RollupVerificationDTO verify() {
+        return expenseArchiveService.withoutMoves(this::verifyRollups);
+    }
+
+    private RollupVerificationDTO verifyRollups() {
+        String tenantId = TenantContext.current();
+        Map<String, long[]> live = totalsByCategory(mongoTemplate.getCollectionName(Expense.class),
+                new Document("$sum", "$amountCents"), new Document("$sum", 1),
+                new Document("tenantId", tenantId).append("date", new Document("$ne", null)));
+        expenseArchiveService.totalsByCategory(tenantId).forEach((category, archived) -> live.merge(category, archived,
+                (hot, cold) -> new long[]{hot[0] + cold[0], hot[1] + cold[1]}));
+        Map<String, long[]> rolled = totalsByCategory(mongoTemplate.getCollectionName(ExpenseRollup.class),
+                new Document("$sum", "$totalCents"), new Document("$sum", "$count"),
+                new Document("tenantId", tenantId));
+
+        TreeSet<String> categories = new TreeSet<>(live.keySet());
+        categories.addAll(rolled.keySet());
+        List<String> mismatched = new ArrayList<>();
+        long expenseCount = 0;
+        long rollupCount = 0;
+        for (String category : categories) {
+            long[] expected = live.getOrDefault(category, new long[2]);
+            long[] actual = rolled.getOrDefault(category, new long[2]);
+            expenseCount += expected[1];
+            rollupCount += actual[1];
+            // Minor units add up exactly, so any difference at all is drift.
+            if (expected[0] != actual[0] || expected[1] != actual[1]) {
+                mismatched.add(category);
+            }
+        }
+        return RollupVerificationDTO.builder()
+                .rollupRows(mongoTemplate.count(new Query(Criteria.where("tenantId").is(tenantId)), ExpenseRollup.class))
+                .expenseCount(expenseCount)
+                .rollupCount(rollupCount)
+                .mismatchedCategories(mismatched)
+                .consistent(mismatched.isEmpty())
+                .build();
+    }
+
+    private Map<String, long[]> totalsByCategory(String collection, Document total, Document count, Document match) {
+        List<AggregationOperation> operations = List.of(
+                context -> new Document("$match", match),
+                context -> new Document("$group", new Document("_id", "$category")
+                        .append("total", total)
+                        .append("count", count)));
+        Map<String, long[]> totals = new HashMap<>();
+        for (Document document : mongoTemplate.aggregate(Aggregation.newAggregation(operations), collection, Document.class)) {
+            String category = document.get("_id") == null ? "" : document.getString("_id");
+            totals.put(category, new long[]{
+                    ((Number) document.get("total")).longValue(),
+                    ((Number) document.get("count")).longValue()});
+        }
+        return totals;
+    }
+
+    private void increment(String tenantId, String category, LocalDate day, long amountCents, long count) {
+        if (day == null) {
+            return;
+        }
+        Query query = new Query(Criteria.where("id").is(rollupKey(tenantId, category, day)));
+        RollupDelta delta = new RollupDelta(tenantId, category, day);
+        delta.totalCents = amountCents;
+        delta.count = count;
+        rebuildLock.readLock().lock();
+        try {
+            mongoTemplate.upsert(query, incrementUpdate(tenantId, category, day, amountCents, count), ExpenseRollup.class);
+            record(List.of(delta));
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private static Update incrementUpdate(String tenantId, String category, LocalDate day, long amountCents, long count) {
+        return new Update()
+                .inc("totalCents", amountCents)
+                .inc("count", count)
+                .setOnInsert("tenantId", tenantId)
+                .setOnInsert("category", category)
+                .setOnInsert("day", day);
+    }
+
+    private static void addDelta(Map<String, RollupDelta> deltas, Expense expense, int sign) {
+        if (expense.getDate() == null) {
+            return;
+        }
+        RollupDelta delta = deltas.computeIfAbsent(rollupKey(expense.getTenantId(), expense.getCategory(), expense.getDate()),
+                key -> new RollupDelta(expense.getTenantId(), expense.getCategory(), expense.getDate()));
+        delta.totalCents += sign * expense.getAmountCents();
+        delta.count += sign;
+    }
+
+    static String rollupKey(String tenantId, String category, LocalDate day) {
+        return tenantId + "|" + (category == null ? "" : category) + "|" + day;
+    }
+
+    private static final class RollupDelta {
+        private final String tenantId;
+        private final String category;
+        private final LocalDate day;
+        private long totalCents;
+        private long count;
+
+        private RollupDelta(String tenantId, String category, LocalDate day) {
+            this.tenantId = tenantId;
+            this.category = category;
+            this.day = day;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseSearchTerms;
+import org.example.backend.repository.ExpenseCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ranked description search over the {@code searchTerms} index. Every query word must match a
+ * description word, either directly (as the word or its prefix) or within one typo; direct matches
+ * score higher, and ties go to the most recent expense.
+ */
+@Service
+@Timed("service.calls")
+public class ExpenseSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseSearchService.class);
+    static final int MAX_QUERY_WORDS = 8;
+    static final int MAX_RESULTS = 100;
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxCandidates;
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-search-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ExpenseSearchService(MongoTemplate mongoTemplate,
+                                @Value("${search.max-candidates:2000}") int maxCandidates) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxCandidates = maxCandidates;
+    }
+
+    public List<ExpenseDTO> search(String text, ExpenseFilter filter, int limit) {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RESULTS + ".");
+        }
+        List<String> words = ExpenseSearchTerms.words(text, MAX_QUERY_WORDS);
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("Search query needs a word of at least "
+                    + ExpenseSearchTerms.MIN_TERM_LENGTH + " characters.");
+        }
+
+        if (filter != null) {
+            // The description is matched through the search terms, not the list endpoint's substring regex.
+            filter.setDescription(null);
+        }
+        List<Criteria> criteria = ExpenseCriteria.fromFilter(TenantContext.current(), filter);
+        List<Object> scores = new ArrayList<>();
+        for (String word : words) {
+            String exact = ExpenseSearchTerms.exactTerm(word);
+            List<String> candidates = new ArrayList<>();
+            candidates.add(exact);
+            candidates.addAll(ExpenseSearchTerms.typoTerms(word));
+            criteria.add(Criteria.where("searchTerms").in(candidates));
+            scores.add(new Document("$cond", List.of(new Document("$in", List.of(exact, "$searchTerms")), 2, 1)));
+        }
+
+        // Candidates are capped before scoring so a very common word cannot turn into a collection scan.
+        // The cap keeps the most recent matches, in the order of the (tenantId, date, _id) index, so
+        // which candidates get scored does not depend on the plan Mongo happens to pick.
+        List<AggregationOperation> operations = List.of(
+                Aggregation.match(new Criteria().andOperator(criteria)),
+                context -> new Document("$sort", new Document("date", -1).append("_id", -1)),
+                Aggregation.limit(maxCandidates),
+                context -> new Document("$project", new Document("description", 1)
+                        .append("amountCents", 1)
+                        .append("currency", 1)
+                        .append("category", 1)
+                        .append("date", 1)
+                        .append("score", new Document("$add", scores))),
+                context -> new Document("$sort", new Document("score", -1).append("date", -1).append("_id", -1)),
+                Aggregation.limit(limit));
+        return mongoTemplate.aggregate(Aggregation.newAggregation(Expense.class, operations), Expense.class)
+                .getMappedResults().stream()
+                .map(ExpenseService::convertToDTO)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillInBackground() {
+        backfillExecutor.submit(() -> {
+            try {
+                long indexed = backfill();
+                if (indexed > 0) {
+                    log.info("Indexed {} expenses written before search terms existed", indexed);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Search term backfill stopped; it resumes on the next start", ex);
+            }
+        });
+    }
+
+    /**
+     * Fills in search terms for expenses stored before they existed. The missing field is the
+     * checkpoint, so an interrupted backfill simply carries on at the next start.
+     */
+    long backfill() {
+        long indexed = 0;
+        while (true) {
+            Query query = new Query(Criteria.where("searchTerms").exists(false)).limit(BACKFILL_BATCH_SIZE);
+            query.fields().include("description");
+            List<Expense> batch = mongoTemplate.find(query, Expense.class);
+            if (batch.isEmpty()) {
+                return indexed;
+            }
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class);
+            for (Expense expense : batch) {
+                operations.updateOne(new Query(Criteria.where("id").is(expense.getId())),
+                        new Update().set("searchTerms", ExpenseSearchTerms.index(expense.getDescription())));
+            }
+            operations.execute();
+            indexed += batch.size();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        backfillExecutor.shutdownNow();
+    }
+}
@@ -1,68 +1,208 @@
 package org.example.backend.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.backend.dto.ExpenseColumnsDTO;
 import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.dto.PageDTO;
+import org.example.backend.exception.ExpenseArchivedException;
 import org.example.backend.exception.ExpenseNotFoundException;
 import org.example.backend.model.Expense;
+import org.example.backend.model.Money;
+import org.example.backend.repository.ExpenseCriteria;
+import org.example.backend.repository.ExpenseCursor;
 import org.example.backend.repository.ExpenseRepository;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 @RequiredArgsConstructor
 public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupService expenseRollupService;
+    private final CollectionVersions collectionVersions;
+    private final SuggestionService suggestionService;
+    private final ExpenseArchiveService expenseArchiveService;
 
     public List<ExpenseDTO> getAllExpenses() {
-        return expenseRepository.findAll().stream()
-                .map(this::convertToDTO)
+        String tenantId = TenantContext.current();
+        return withArchived(tenantId, expenseRepository.findByTenantId(tenantId), expenseArchiveService.find(tenantId, null), null)
+                .stream()
+                .map(ExpenseService::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    public List<ExpenseDTO> searchExpenses(ExpenseFilter filter) {
+        return search(filter).stream()
+                .map(ExpenseService::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public ExpenseColumnsDTO searchExpenseColumns(ExpenseFilter filter) {
+        return convertToColumns(search(filter));
+    }
+
+    public PageDTO<ExpenseDTO> getExpensePage(ExpenseFilter filter, String cursor, int size) {
+        int pageSize = CursorCodec.clampPageSize(size);
+        ExpenseCursor after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+        String tenantId = TenantContext.current();
+        List<Expense> hot = expenseRepository.findPage(tenantId, filter, after, pageSize + 1);
+        List<Expense> archived = expenseArchiveService.findPage(tenantId, filter, after, pageSize + 1);
+        List<Expense> expenses = withArchived(tenantId, hot, archived, ExpenseCriteria.PAGE_ORDER);
+
+        String nextCursor = null;
+        // Either side having a row past the page means there is more, even if a copy was dropped in the merge.
+        boolean more = expenses.size() > pageSize || hot.size() > pageSize || archived.size() > pageSize;
+        if (more && !expenses.isEmpty()) {
+            expenses = expenses.subList(0, Math.min(pageSize, expenses.size()));
+            Expense last = expenses.getLast();
+            nextCursor = CursorCodec.encode(last.getDate() == null ? "" : last.getDate().toString(), last.getId());
+        }
+        List<ExpenseDTO> items = expenses.stream()
+                .map(ExpenseService::convertToDTO)
+                .collect(Collectors.toList());
+        return new PageDTO<>(items, nextCursor, null);
+    }
+
     public ExpenseDTO createExpense(ExpenseDTO expenseDTO) {
         Expense expense = new Expense();
+        expense.setTenantId(TenantContext.current());
         expense.setDescription(expenseDTO.getDescription());
-        expense.setAmount(expenseDTO.getAmount());
+        expense.setCurrency(Money.currency(expenseDTO.getCurrency()));
+        expense.setAmountCents(Money.toMinorUnits(expenseDTO.getAmount(), expense.getCurrency()));
         expense.setCategory(expenseDTO.getCategory());
         expense.setDate(LocalDate.now());
         Expense savedExpense = expenseRepository.save(expense);
+        expenseRollupService.applyCreate(savedExpense);
+        suggestionService.expenseWritten(null, savedExpense);
+        collectionVersions.bump(CollectionVersions.EXPENSES);
         return convertToDTO(savedExpense);
     }
 
     public Optional<ExpenseDTO> getExpenseById(String id) {
-        return expenseRepository.findById(id)
-                .map(this::convertToDTO);
+        String tenantId = TenantContext.current();
+        return expenseRepository.findByIdAndTenantId(id, tenantId)
+                .or(() -> expenseArchiveService.findById(tenantId, id))
+                .map(ExpenseService::convertToDTO);
     }
     //Corrected Method
     public void deleteExpense(String id) {
-        if (!expenseRepository.existsById(id)) {
-            throw new ExpenseNotFoundException("Expense not found with id: " + id);
-        }
-        expenseRepository.deleteById(id);
+        Expense expense = expenseRepository.removeById(TenantContext.current(), id)
+                .orElseThrow(() -> notFound(id));
+        expenseRollupService.applyDelete(expense);
+        suggestionService.expenseWritten(expense, null);
+        collectionVersions.bump(CollectionVersions.EXPENSES);
     }
 
     public ExpenseDTO updateExpense(String id, ExpenseDTO updatedExpenseDTO) {
-        Expense expense = expenseRepository.findById(id)
-                .orElseThrow(() -> new ExpenseNotFoundException("Expense not found with id: " + id));
-
-        expense.setDescription(updatedExpenseDTO.getDescription());
-        expense.setAmount(updatedExpenseDTO.getAmount());
-        expense.setCategory(updatedExpenseDTO.getCategory());
-        Expense savedExpense = expenseRepository.save(expense);
+        String currency = Money.currency(updatedExpenseDTO.getCurrency());
+        long amountCents = Money.toMinorUnits(updatedExpenseDTO.getAmount(), currency);
+        // One findAndModify: only the editable fields are $set, and the pre-image feeds the rollup delta.
+        Expense previous = expenseRepository.updateDetails(TenantContext.current(), id, updatedExpenseDTO.getDescription(),
+                        amountCents, currency, updatedExpenseDTO.getCategory())
+                .orElseThrow(() -> notFound(id));
+        Expense savedExpense = new Expense(id, updatedExpenseDTO.getDescription(), amountCents,
+                updatedExpenseDTO.getCategory(), previous.getDate());
+        savedExpense.setTenantId(previous.getTenantId());
+        savedExpense.setCurrency(currency);
+        expenseRollupService.applyUpdate(previous.getCategory(), previous.getDate(), previous.getAmountCents(), savedExpense);
+        suggestionService.expenseWritten(previous, savedExpense);
+        collectionVersions.bump(CollectionVersions.EXPENSES);
         return convertToDTO(savedExpense);
     }
 
+    private List<Expense> search(ExpenseFilter filter) {
+        String tenantId = TenantContext.current();
+        return withArchived(tenantId, expenseRepository.findByFilter(tenantId, filter),
+                expenseArchiveService.find(tenantId, filter), ExpenseCriteria.comparator(filter));
+    }
+
+    /**
+     * Adds archived expenses to ones read from Mongo, which win when an id is in both, and restores
+     * {@code order} if one is given. With nothing archived the Mongo result is returned as it is.
+     * Mongo is read first: an expense archived in between is then in both reads rather than neither.
+     */
+    private List<Expense> withArchived(String tenantId, List<Expense> hot, List<Expense> archived,
+                                       Comparator<Expense> order) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        // Outside the filter in Mongo does not mean gone: a copy edited during its move is dropped too.
+        archived = expenseArchiveService.withoutUnsettled(tenantId, archived);
+        Set<String> hotIds = new HashSet<>();
+        for (Expense expense : hot) {
+            hotIds.add(expense.getId());
+        }
+        List<Expense> merged = new ArrayList<>(hot);
+        for (Expense expense : archived) {
+            if (!hotIds.contains(expense.getId())) {
+                merged.add(expense);
+            }
+        }
+        if (order != null) {
+            merged.sort(order);
+        }
+        return merged;
+    }
+
+    // Archived expenses are read-only, which deserves a clearer answer than "not found".
+    private RuntimeException notFound(String id) {
+        if (expenseArchiveService.findById(TenantContext.current(), id).isPresent()) {
+            return new ExpenseArchivedException("Expense " + id + " is archived and can no longer be changed.");
+        }
+        return new ExpenseNotFoundException("Expense not found with id: " + id);
+    }
+
+    private ExpenseCursor decodeCursor(String cursor) {
+        String[] parts = CursorCodec.decode(cursor, 2);
+        try {
+            LocalDate date = parts[0].isEmpty() ? null : LocalDate.parse(parts[0]);
+            return new ExpenseCursor(date, parts[1]);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
+    }
+
+    static ExpenseColumnsDTO convertToColumns(List<Expense> expenses) {
+        int count = expenses.size();
+        List<String> ids = new ArrayList<>(count);
+        List<String> descriptions = new ArrayList<>(count);
+        long[] amountCents = new long[count];
+        int[] categoryIndexes = new int[count];
+        int[] epochDays = new int[count];
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            Expense expense = expenses.get(i);
+            ids.add(expense.getId());
+            descriptions.add(expense.getDescription());
+            amountCents[i] = expense.getAmountCents();
+            categoryIndexes[i] = dictionary.computeIfAbsent(expense.getCategory(), category -> dictionary.size());
+            epochDays[i] = expense.getDate() == null ? ExpenseColumnsDTO.NO_DATE : (int) expense.getDate().toEpochDay();
+        }
+        return new ExpenseColumnsDTO(count, Money.DEFAULT_CURRENCY, ids, descriptions, amountCents, new ArrayList<>(dictionary.keySet()),
+                categoryIndexes, epochDays);
+    }
 
-    private ExpenseDTO convertToDTO(Expense expense) {
+    static ExpenseDTO convertToDTO(Expense expense) {
         return ExpenseDTO.builder()
                 .id(expense.getId())
                 .description(expense.getDescription())
-                .amount(expense.getAmount())
+                .amount(Money.fromMinorUnits(expense.getAmountCents(), expense.getCurrency()))
+                .currency(expense.getCurrency())
                 .category(expense.getCategory())
                 .date(expense.getDate())
                 .build();
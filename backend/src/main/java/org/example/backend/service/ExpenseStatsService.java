@@ -0,0 +1,190 @@
+package org.example.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.dto.ExpenseStatsDTO;
+import org.example.backend.dto.StatsBucketDTO;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseRollup;
+import org.example.backend.model.Money;
+import org.example.backend.repository.ExpenseCriteria;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Timed("service.calls")
+@RequiredArgsConstructor
+public class ExpenseStatsService {
+
+    // LocalDate values are persisted as midnight in the JVM's zone, so buckets are cut in that zone too.
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final MongoTemplate mongoTemplate;
+    private final ExpenseColumnStore expenseColumnStore;
+
+    public ExpenseStatsDTO getStats(ExpenseFilter filter, StatsPeriod period) {
+        return getStats(filter, period, StatsSource.LIVE);
+    }
+
+    public ExpenseStatsDTO getStats(ExpenseFilter filter, StatsPeriod period, StatsSource source) {
+        String tenantId = TenantContext.current();
+        if (source == StatsSource.COLUMNS) {
+            if (!expenseColumnStore.isEnabled()) {
+                throw new IllegalArgumentException("Column stats are disabled.");
+            }
+            // Until the first load has finished, the live aggregation answers instead.
+            if (expenseColumnStore.isReady()) {
+                return columnStats(tenantId, filter, period);
+            }
+            source = StatsSource.LIVE;
+        }
+        TypedAggregation<?> aggregation = source == StatsSource.ROLLUPS
+                ? rollupAggregation(tenantId, filter, period)
+                : liveAggregation(tenantId, filter, period);
+
+        Document result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            result = new Document();
+        }
+        List<Document> totals = result.getList("totals", Document.class, List.of());
+        return ExpenseStatsDTO.builder()
+                .period(period.getUnit())
+                .totals(totals.isEmpty() ? emptyBucket() : toBucket(totals.getFirst(), "total"))
+                .byCategory(result.getList("byCategory", Document.class, List.of()).stream()
+                        .map(document -> toBucket(document, (String) document.get("_id")))
+                        .collect(Collectors.toList()))
+                .byPeriod(result.getList("byPeriod", Document.class, List.of()).stream()
+                        .map(document -> toBucket(document, toPeriodKey(document.get("_id"))))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private ExpenseStatsDTO columnStats(String tenantId, ExpenseFilter filter, StatsPeriod period) {
+        ExpenseColumnStore.Stats stats = expenseColumnStore.stats(tenantId, filter, period);
+        return ExpenseStatsDTO.builder()
+                .period(period.getUnit())
+                .totals(stats.totals() == null ? emptyBucket() : toBucket(stats.totals()))
+                .byCategory(stats.byCategory().stream().map(ExpenseStatsService::toBucket).collect(Collectors.toList()))
+                .byPeriod(stats.byPeriod().stream().map(ExpenseStatsService::toBucket).collect(Collectors.toList()))
+                .build();
+    }
+
+    private static TypedAggregation<Expense> liveAggregation(String tenantId, ExpenseFilter filter, StatsPeriod period) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(new Criteria().andOperator(ExpenseCriteria.fromFilter(tenantId, filter))));
+        operations.add(facetStage(period, "$date", StatsSource.LIVE));
+        return Aggregation.newAggregation(Expense.class, operations);
+    }
+
+    private static TypedAggregation<ExpenseRollup> rollupAggregation(String tenantId, ExpenseFilter filter,
+                                                                     StatsPeriod period) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("tenantId").is(tenantId));
+        criteria.add(Criteria.where("count").gt(0));
+        if (filter != null) {
+            if (filter.getMinAmount() != null || filter.getMaxAmount() != null
+                    || (filter.getDescription() != null && !filter.getDescription().isBlank())) {
+                throw new IllegalArgumentException("Rollup stats can only be filtered by category and date.");
+            }
+            if (filter.getCategory() != null && !filter.getCategory().isBlank()) {
+                criteria.add(Criteria.where("category").is(filter.getCategory()));
+            }
+            if (filter.getStartDate() != null) {
+                criteria.add(Criteria.where("day").gte(filter.getStartDate()));
+            }
+            if (filter.getEndDate() != null) {
+                criteria.add(Criteria.where("day").lte(filter.getEndDate()));
+            }
+        }
+        return Aggregation.newAggregation(ExpenseRollup.class,
+                Aggregation.match(new Criteria().andOperator(criteria)),
+                facetStage(period, "$day", StatsSource.ROLLUPS));
+    }
+
+    private static AggregationOperation facetStage(StatsPeriod period, String dateField, StatsSource source) {
+        Document dateTrunc = new Document("date", dateField)
+                .append("unit", period.getUnit())
+                .append("timezone", ZONE.getId());
+        if (period == StatsPeriod.WEEK) {
+            dateTrunc.append("startOfWeek", "monday");
+        }
+        Document facet = new Document("totals", List.of(groupStage(null, source)))
+                .append("byCategory", List.of(
+                        groupStage("$category", source),
+                        new Document("$sort", new Document("total", -1).append("_id", 1))))
+                .append("byPeriod", List.of(
+                        new Document("$match", new Document(dateField.substring(1), new Document("$ne", null))),
+                        groupStage(new Document("$dateTrunc", dateTrunc), source),
+                        new Document("$sort", new Document("_id", 1))));
+        return context -> new Document("$facet", facet);
+    }
+
+    private static Document groupStage(Object key, StatsSource source) {
+        if (source == StatsSource.ROLLUPS) {
+            // Rollups only keep running sums, so min and max are not available here.
+            return new Document("$group", new Document("_id", key)
+                    .append("total", new Document("$sum", "$totalCents"))
+                    .append("count", new Document("$sum", "$count")));
+        }
+        return new Document("$group", new Document("_id", key)
+                .append("total", new Document("$sum", "$amountCents"))
+                .append("count", new Document("$sum", 1))
+                .append("min", new Document("$min", "$amountCents"))
+                .append("max", new Document("$max", "$amountCents")));
+    }
+
+    private static StatsBucketDTO toBucket(Document document, String key) {
+        // Sums arrive as exact minor units; decimals are only built once per bucket.
+        long totalCents = document.get("total") instanceof Number total ? total.longValue() : 0L;
+        long count = ((Number) document.get("count")).longValue();
+        return toBucket(key, totalCents, count, document.get("min"), document.get("max"));
+    }
+
+    private static StatsBucketDTO toBucket(ExpenseColumnStore.Group group) {
+        // The column store keeps no min and max, like rollups.
+        return toBucket(group.key(), group.totalCents(), group.count(), null, null);
+    }
+
+    private static StatsBucketDTO toBucket(String key, long totalCents, long count, Object min, Object max) {
+        BigDecimal total = Money.fromMinorUnits(totalCents, Money.DEFAULT_CURRENCY);
+        return StatsBucketDTO.builder()
+                .key(key)
+                .total(total)
+                .count(count)
+                .average(count == 0 ? BigDecimal.ZERO
+                        : total.divide(BigDecimal.valueOf(count), total.scale(), RoundingMode.HALF_EVEN))
+                .min(toNullableAmount(min))
+                .max(toNullableAmount(max))
+                .build();
+    }
+
+    private static StatsBucketDTO emptyBucket() {
+        return StatsBucketDTO.builder().key("total").build();
+    }
+
+    private static String toPeriodKey(Object bucketStart) {
+        if (bucketStart instanceof Date date) {
+            return LocalDate.ofInstant(date.toInstant(), ZONE).toString();
+        }
+        return String.valueOf(bucketStart);
+    }
+
+    private static BigDecimal toNullableAmount(Object value) {
+        return value instanceof Number number ? Money.fromMinorUnits(number.longValue(), Money.DEFAULT_CURRENCY) : null;
+    }
+}
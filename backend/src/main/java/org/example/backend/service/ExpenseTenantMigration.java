@@ -0,0 +1,160 @@
+package org.example.backend.service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.example.backend.model.Category;
+import org.example.backend.model.CategoryCascadeJob;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseRollup;
+import org.example.backend.model.Tenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves data written before tenants existed into {@link Tenant#DEFAULT} and drops the indexes that
+ * did not lead with {@code tenantId}. As with {@link ExpenseMoneyMigration}, the missing field is
+ * the checkpoint, so an interrupted run carries on at the next start. It finishes before the
+ * application accepts requests, since every read filters on {@code tenantId} and would not see
+ * data that has not been assigned yet.
+ *
+ * <p>With {@code tenancy.shard-collections} set, expenses are then sharded on
+ * {@code {tenantId: 1, _id: 1}}: each tenant's expenses stay together on as few shards as its size
+ * allows, and large tenants can still be split by id.
+ */
+@Service
+public class ExpenseTenantMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseTenantMigration.class);
+    private static final int BATCH_SIZE = 1000;
+    static final String SHARD_KEY_INDEX = "tenant_id";
+    static final Map<Class<?>, List<String>> LEGACY_INDEXES = Map.of(
+            Expense.class, List.of("category_date", "date_amount_cents", "date_id", "search_terms"),
+            Category.class, List.of("name_unique"),
+            ExpenseRollup.class, List.of("day_category"));
+
+    private final MongoTemplate mongoTemplate;
+    private final ExpenseRollupService expenseRollupService;
+    private final boolean shardCollections;
+    private final ExecutorService shardExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-shard-setup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ExpenseTenantMigration(MongoTemplate mongoTemplate, ExpenseRollupService expenseRollupService,
+                                  @Value("${tenancy.shard-collections:false}") boolean shardCollections) {
+        this.mongoTemplate = mongoTemplate;
+        this.expenseRollupService = expenseRollupService;
+        this.shardCollections = shardCollections;
+    }
+
+    // Runs while the context starts, before the web server opens its port; a failure stops startup.
+    @PostConstruct
+    void migrateBeforeServing() {
+        long migrated = migrate();
+        if (migrated > 0) {
+            log.info("Assigned {} expenses to the default tenant", migrated);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void shardInBackground() {
+        if (!shardCollections) {
+            return;
+        }
+        shardExecutor.submit(() -> {
+            try {
+                shardExpenses();
+            } catch (RuntimeException ex) {
+                log.warn("Sharding expenses stopped; it is retried on the next start", ex);
+            }
+        });
+    }
+
+    long migrate() {
+        String collection = mongoTemplate.getCollectionName(Expense.class);
+        long migrated = 0;
+        while (true) {
+            Query query = new Query(Criteria.where("tenantId").exists(false)).limit(BATCH_SIZE);
+            query.fields().include("_id");
+            List<Document> batch = mongoTemplate.find(query, Document.class, collection);
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<Object> ids = new ArrayList<>(batch.size());
+            for (Document document : batch) {
+                ids.add(document.get("_id"));
+            }
+            migrated += mongoTemplate.getCollection(collection)
+                    .updateMany(Filters.and(Filters.in("_id", ids), Filters.exists("tenantId", false)),
+                            Updates.set("tenantId", Tenant.DEFAULT))
+                    .getModifiedCount();
+        }
+        // Categories and cascade jobs are few; one update each is enough.
+        Query untenanted = new Query(Criteria.where("tenantId").exists(false));
+        Update assignDefault = new Update().set("tenantId", Tenant.DEFAULT);
+        mongoTemplate.updateMulti(untenanted, assignDefault, Category.class);
+        mongoTemplate.updateMulti(untenanted, assignDefault, CategoryCascadeJob.class);
+        LEGACY_INDEXES.forEach(this::dropLegacyIndexes);
+        // Rollup ids now include the tenant; rebuilding replaces the ones written without it.
+        if (migrated > 0 || mongoTemplate.exists(untenanted, ExpenseRollup.class)) {
+            expenseRollupService.rebuild();
+        }
+        return migrated;
+    }
+
+    /**
+     * Shards expenses on the tenant. Rollups are not sharded: {@link ExpenseRollupService#rebuild()}
+     * replaces the collection with {@code $out}, which cannot write to a sharded collection.
+     */
+    void shardExpenses() {
+        String collection = mongoTemplate.getCollectionName(Expense.class);
+        mongoTemplate.indexOps(Expense.class).ensureIndex(new Index()
+                .on("tenantId", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named(SHARD_KEY_INDEX));
+        String database = mongoTemplate.getDb().getName();
+        try {
+            mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("admin")
+                    .runCommand(new Document("enableSharding", database));
+            mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("admin")
+                    .runCommand(new Document("shardCollection", database + "." + collection)
+                            .append("key", new Document("tenantId", 1).append("_id", 1)));
+            log.info("Sharded {}.{} on tenantId", database, collection);
+        } catch (RuntimeException ex) {
+            log.warn("Could not shard {}.{} on tenantId; is this a mongos?", database, collection, ex);
+        }
+    }
+
+    private void dropLegacyIndexes(Class<?> type, List<String> names) {
+        IndexOperations indexes = mongoTemplate.indexOps(type);
+        indexes.getIndexInfo().stream()
+                .filter(index -> names.contains(index.getName()))
+                .forEach(index -> indexes.dropIndex(index.getName()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shardExecutor.shutdownNow();
+    }
+}
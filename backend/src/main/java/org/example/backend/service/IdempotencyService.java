@@ -0,0 +1,163 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.exception.IdempotencyConflictException;
+import org.example.backend.model.IdempotencyRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.UnaryOperator;
+
+/**
+ * Deduplicates expense creation by Idempotency-Key. The first request claims the key with an
+ * insert on {@code _id} (idempotency_keys, TTL one day); the stored id is prefixed with the tenant,
+ * since clients pick keys independently of each other. Concurrent duplicates lose that insert and
+ * either get the stored response or a 409 while the original is still running. Completed responses
+ * are also kept in a bounded in-memory cache so hot retries do not reach Mongo at all.
+ */
+@Service
+public class IdempotencyService implements MeterBinder {
+
+    static final Duration RETENTION = Duration.ofDays(1);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration claimTimeout;
+    private final Cache<String, IdempotencyRecord> completed;
+
+    public IdempotencyService(MongoTemplate mongoTemplate,
+                              @Value("${idempotency.cache-size:10000}") long cacheSize,
+                              @Value("${idempotency.claim-timeout-ms:30000}") long claimTimeoutMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMillis);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(RETENTION)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Same tag keys as the Spring caches, which Prometheus requires for meters sharing a name.
+        CaffeineCacheMetrics.monitor(registry, completed, "idempotency",
+                "cache.manager", "idempotencyService", "name", "idempotency");
+    }
+
+    public record Result(ExpenseDTO expense, boolean replayed) {
+    }
+
+    public Result createOnce(String key, ExpenseDTO request, UnaryOperator<ExpenseDTO> create) {
+        validateKey(key);
+        return createOnce(TenantContext.current() + ":" + key, key, fingerprint(request), request, create);
+    }
+
+    private Result createOnce(String id, String key, String requestHash, ExpenseDTO request,
+                              UnaryOperator<ExpenseDTO> create) {
+        IdempotencyRecord cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, key, requestHash);
+        }
+        if (!claim(id, requestHash)) {
+            IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+            if (existing == null) {
+                // Expired between the failed insert and the read; the key is free again.
+                return createOnce(id, key, requestHash, request, create);
+            }
+            if (existing.getStatus() != IdempotencyRecord.Status.COMPLETED) {
+                if (existing.getRequestHash().equals(requestHash) && takeOverStaleClaim(id)) {
+                    return run(id, requestHash, request, create);
+                }
+                throw new IdempotencyConflictException(
+                        "A request with Idempotency-Key '" + key + "' is still being processed.");
+            }
+            completed.put(id, existing);
+            return replay(existing, key, requestHash);
+        }
+        return run(id, requestHash, request, create);
+    }
+
+    private Result run(String id, String requestHash, ExpenseDTO request, UnaryOperator<ExpenseDTO> create) {
+        ExpenseDTO response;
+        try {
+            response = create.apply(request);
+        } catch (RuntimeException ex) {
+            // Nothing was created, so a retry with the same key must be allowed to try again.
+            mongoTemplate.remove(byId(id), IdempotencyRecord.class);
+            throw ex;
+        }
+        mongoTemplate.updateFirst(byId(id), new Update()
+                .set("status", IdempotencyRecord.Status.COMPLETED)
+                .set("response", response), IdempotencyRecord.class);
+        completed.put(id, new IdempotencyRecord(id, requestHash, IdempotencyRecord.Status.COMPLETED,
+                response, Instant.now()));
+        return new Result(response, false);
+    }
+
+    private boolean claim(String id, String requestHash) {
+        try {
+            mongoTemplate.insert(new IdempotencyRecord(id, requestHash, IdempotencyRecord.Status.IN_PROGRESS,
+                    null, Instant.now()));
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    private boolean takeOverStaleClaim(String id) {
+        // A claim that never completed (the node died mid-request) is handed to the next retry.
+        Query stale = new Query(Criteria.where("id").is(id)
+                .and("status").is(IdempotencyRecord.Status.IN_PROGRESS)
+                .and("createdAt").lt(Instant.now().minus(claimTimeout)));
+        return mongoTemplate.findAndModify(stale, new Update().set("createdAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true), IdempotencyRecord.class) != null;
+    }
+
+    private static Result replay(IdempotencyRecord record, String key, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(
+                    "Idempotency-Key '" + key + "' was already used with a different request body.");
+        }
+        return new Result(record.getResponse(), true);
+    }
+
+    private static void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+    }
+
+    static String fingerprint(ExpenseDTO request) {
+        // 12.5 and 12.50 are the same amount, so the decimal is compared without trailing zeros.
+        String amount = request.getAmount() == null ? null : request.getAmount().stripTrailingZeros().toPlainString();
+        String canonical = request.getDescription() + '\u0000' + amount + '\u0000' + request.getCurrency()
+                + '\u0000' + request.getCategory();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+}
@@ -0,0 +1,244 @@
+package org.example.backend.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches every command the Mongo driver sends. It records how many documents each command returned
+ * or touched, and logs commands slower than {@code mongo.monitor.slow-query-threshold-ms} with
+ * their query shape. A sample of reads is explained in the background to flag the ones that scan
+ * the whole collection instead of using an index. The spans for the same commands come from the
+ * observation listener registered next to this one (see MongoObservabilityConfig).
+ */
+@Component
+public class MongoCommandMonitor implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoCommandMonitor.class);
+    // Reads that explain can describe; their text is kept until the command finishes.
+    static final Set<String> EXPLAINABLE_COMMANDS = Set.of("find", "aggregate", "count", "distinct", "findAndModify");
+    private static final Set<String> SESSION_FIELDS = Set.of("lsid", "txnNumber", "autocommit", "startTransaction");
+    // Where each read keeps the part of the command the slow query log shows.
+    private static final List<String> QUERY_FIELDS = List.of("filter", "pipeline", "query");
+    private static final int EXPLAIN_QUEUE_CAPACITY = 100;
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final long slowThresholdNanos;
+    private final double explainSampleRate;
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    // One explain at a time and a short queue: when reads pile up, samples are dropped, not queued.
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(EXPLAIN_QUEUE_CAPACITY), runnable -> {
+        Thread thread = new Thread(runnable, "mongo-explain");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public MongoCommandMonitor(MeterRegistry meterRegistry,
+                               ObjectProvider<MongoClient> mongoClient,
+                               @Value("${mongo.monitor.slow-query-threshold-ms:100}") long slowThresholdMillis,
+                               @Value("${mongo.monitor.explain-sample-rate:0.01}") double explainSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.mongoClient = mongoClient;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.explainSampleRate = explainSampleRate;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String name = event.getCommandName();
+        BsonDocument command = event.getCommand();
+        BsonValue target = command.get(name);
+        String collection = target != null && target.isString() ? target.asString().getValue() : "";
+        // The driver reuses the command buffer after this callback, so whatever is kept is copied.
+        // Reads keep their query for the slow query log and, when sampled, the whole command for
+        // explain; writes can carry thousands of documents and only keep their collection name.
+        if (!EXPLAINABLE_COMMANDS.contains(name)) {
+            inFlight.put(event.getRequestId(), new Started(collection, null, null));
+            return;
+        }
+        boolean sampled = !collection.isEmpty() && ThreadLocalRandom.current().nextDouble() < explainSampleRate;
+        inFlight.put(event.getRequestId(), new Started(collection, copy(queryOf(command)),
+                sampled ? command.clone() : null));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+        String name = event.getCommandName();
+        long documents = documentCount(event.getResponse());
+        DistributionSummary.builder("mongodb.driver.commands.documents")
+                .baseUnit("documents")
+                .tag("command", name)
+                .tag("collection", started.collection)
+                .register(meterRegistry)
+                .record(documents);
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (elapsed >= slowThresholdNanos) {
+            log.warn("Slow Mongo {} on '{}' took {} ms and returned {} documents: {}", name, started.collection,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), documents,
+                    EXPLAINABLE_COMMANDS.contains(name) ? shape(started.query) : "-");
+        }
+        if (started.command != null) {
+            explainExecutor.execute(() -> explain(event.getDatabaseName(), name, started));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (started != null && elapsed >= slowThresholdNanos) {
+            log.warn("Slow Mongo {} on '{}' failed after {} ms: {}", event.getCommandName(), started.collection,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), event.getThrowable().getMessage());
+        }
+    }
+
+    void explain(String database, String commandName, Started started) {
+        MongoClient client = mongoClient.getIfAvailable();
+        if (client == null) {
+            return;
+        }
+        BsonDocument command = new BsonDocument();
+        started.command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !SESSION_FIELDS.contains(key)) {
+                command.put(key, value);
+            }
+        });
+        try {
+            Document plan = client.getDatabase(database).runCommand(new BsonDocument("explain", command)
+                    .append("verbosity", new BsonString("queryPlanner")));
+            boolean scan = scansCollection(plan);
+            Counter.builder("mongodb.driver.commands.explained")
+                    .tag("command", commandName)
+                    .tag("collection", started.collection)
+                    .tag("plan", scan ? "COLLSCAN" : "INDEX")
+                    .register(meterRegistry)
+                    .increment();
+            if (scan) {
+                log.warn("Mongo {} on '{}' is not using an index: {}", commandName, started.collection, shape(command));
+            }
+        } catch (RuntimeException ex) {
+            log.debug("Could not explain {} on '{}'", commandName, started.collection, ex);
+        }
+    }
+
+    /**
+     * Whether the chosen plan reads the collection front to back. Plans the optimizer rejected are
+     * skipped, since only the winning plan ever runs.
+     */
+    static boolean scansCollection(Object plan) {
+        if (plan instanceof Map<?, ?> document) {
+            if ("COLLSCAN".equals(document.get("stage"))) {
+                return true;
+            }
+            for (Map.Entry<?, ?> entry : document.entrySet()) {
+                if (!"rejectedPlans".equals(entry.getKey()) && scansCollection(entry.getValue())) {
+                    return true;
+                }
+            }
+        } else if (plan instanceof List<?> list) {
+            for (Object item : list) {
+                if (scansCollection(item)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The part of a read that selects documents: {@code filter} for find, {@code pipeline} for
+     * aggregate and {@code query} for count, distinct and findAndModify.
+     */
+    static BsonValue queryOf(BsonDocument command) {
+        for (String field : QUERY_FIELDS) {
+            BsonValue query = command.get(field);
+            if (query != null) {
+                return query;
+            }
+        }
+        return null;
+    }
+
+    private static BsonValue copy(BsonValue value) {
+        if (value == null) {
+            return null;
+        }
+        return value.isDocument() ? value.asDocument().clone() : value.isArray() ? value.asArray().clone() : value;
+    }
+
+    /**
+     * The query with every value replaced by {@code ?}, so logs group by shape and carry no user data.
+     */
+    static String shape(BsonValue value) {
+        if (value == null) {
+            return "{}";
+        }
+        if (value.isDocument()) {
+            StringBuilder shape = new StringBuilder("{");
+            value.asDocument().forEach((key, nested) -> {
+                if (shape.length() > 1) {
+                    shape.append(", ");
+                }
+                shape.append(key).append(": ").append(shape(nested));
+            });
+            return shape.append('}').toString();
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            return array.isEmpty() ? "[]" : "[" + shape(array.get(0)) + (array.size() > 1 ? ", ..." : "") + "]";
+        }
+        return "?";
+    }
+
+    private static long documentCount(BsonDocument response) {
+        BsonDocument cursor = response.getDocument("cursor", null);
+        if (cursor != null) {
+            BsonArray batch = cursor.getArray("firstBatch", cursor.getArray("nextBatch", new BsonArray()));
+            return batch.size();
+        }
+        if (response.containsKey("value")) {
+            return response.get("value").isNull() ? 0 : 1;
+        }
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().longValue() : 0;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    record Started(String collection, BsonValue query, BsonDocument command) {
+    }
+}
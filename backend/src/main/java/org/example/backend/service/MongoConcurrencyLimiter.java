@@ -0,0 +1,130 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.backend.dto.MongoLimiterStatsDTO;
+import org.example.backend.exception.MongoBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many repository calls run against Mongo at once. With virtual threads every request
+ * gets its own thread, so without this the only bound would be the driver's connection pool
+ * wait queue. Callers that cannot get a permit within the timeout fail with a 503.
+ *
+ * <p>Streamed reads draw from a separate, smaller pool: a stream keeps its cursor, and its permit,
+ * for as long as the client takes to download it, so a few slow exports would otherwise starve
+ * every other repository call.
+ */
+@Component
+public class MongoConcurrencyLimiter implements MeterBinder {
+
+    private final int maxConcurrent;
+    private final int maxStreams;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+    private final Semaphore streamPermits;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public MongoConcurrencyLimiter(@Value("${mongo.limiter.max-concurrent:100}") int maxConcurrent,
+                                   @Value("${mongo.limiter.max-streams:10}") int maxStreams,
+                                   @Value("${mongo.limiter.acquire-timeout-ms:5000}") long acquireTimeoutMillis) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("mongo.limiter.max-concurrent must be at least 1.");
+        }
+        if (maxStreams < 1) {
+            throw new IllegalArgumentException("mongo.limiter.max-streams must be at least 1.");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxStreams = maxStreams;
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.streamPermits = new Semaphore(maxStreams, true);
+    }
+
+    public void acquire() {
+        acquire(permits);
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Takes a permit for a call that returns an open stream, from the stream pool only.
+     */
+    public void acquireStream() {
+        acquire(streamPermits);
+    }
+
+    public void releaseStream() {
+        streamPermits.release();
+    }
+
+    private void acquire(Semaphore permits) {
+        long start = System.nanoTime();
+        boolean granted;
+        try {
+            // The untimed tryAcquire() barges past queued waiters; a zero timeout respects fairness.
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                acquired.increment();
+                return;
+            }
+            granted = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            throw new MongoBusyException("Interrupted while waiting for a database slot.");
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (!granted) {
+            rejected.increment();
+            throw new MongoBusyException("Database is busy, try again later.");
+        }
+        acquired.increment();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mongo.limiter.in.flight", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .register(registry);
+        Gauge.builder("mongo.limiter.waiting", permits, Semaphore::getQueueLength).register(registry);
+        Gauge.builder("mongo.limiter.streams.in.flight", streamPermits, semaphore -> maxStreams - semaphore.availablePermits())
+                .register(registry);
+        FunctionCounter.builder("mongo.limiter.acquired", acquired, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mongo.limiter.rejected", rejected, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mongo.limiter.wait", totalWaitNanos, wait -> wait.sum() / 1e9)
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    public MongoLimiterStatsDTO getStats() {
+        long acquiredCount = acquired.sum();
+        long rejectedCount = rejected.sum();
+        long attempts = acquiredCount + rejectedCount;
+        return MongoLimiterStatsDTO.builder()
+                .maxConcurrent(maxConcurrent)
+                .inFlight(maxConcurrent - permits.availablePermits())
+                .waiting(permits.getQueueLength())
+                .maxStreams(maxStreams)
+                .streamsInFlight(maxStreams - streamPermits.availablePermits())
+                .acquired(acquiredCount)
+                .rejected(rejectedCount)
+                .averageWaitMillis(attempts == 0 ? 0 : totalWaitNanos.sum() / 1e6 / attempts)
+                .maxWaitMillis(maxWaitNanos.get() / 1e6)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CategoryDTO;
+import org.example.backend.exception.CategoryNotFoundException;
+import org.example.backend.model.Category;
+import org.example.backend.repository.ReactiveCategoryRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking counterpart of {@link CategoryService} used when the app runs on WebFlux
+ * (the {@code reactive} profile).
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveCategoryService {
+
+    private final ReactiveCategoryRepository categoryRepository;
+    private final CollectionVersions collectionVersions;
+    private final CategoryCascadeService categoryCascadeService;
+
+    public Flux<CategoryDTO> getAllCategories() {
+        return TenantContext.reactive()
+                .flatMapMany(categoryRepository::findByTenantId)
+                .map(CategoryService::convertToDTO);
+    }
+
+    public Mono<CategoryDTO> getCategoryById(String id) {
+        return findForTenant(id)
+                .map(CategoryService::convertToDTO);
+    }
+
+    public Mono<CategoryDTO> createCategory(CategoryDTO categoryDTO) {
+        return TenantContext.reactive()
+                .flatMap(tenantId -> categoryRepository.insert(new Category(null, tenantId, categoryDTO.getName())))
+                .onErrorMap(DuplicateKeyException.class, ex -> new IllegalArgumentException(
+                        "Category with name '" + categoryDTO.getName() + "' already exists."))
+                .doOnNext(saved -> collectionVersions.bump(CollectionVersions.CATEGORIES))
+                .map(CategoryService::convertToDTO);
+    }
+
+    public Mono<CategoryDTO> updateCategory(String id, CategoryDTO updatedCategoryDTO) {
+        return TenantContext.reactive()
+                .flatMap(tenantId -> rename(tenantId, id, updatedCategoryDTO.getName()));
+    }
+
+    public Mono<Void> deleteCategory(String id) {
+        return TenantContext.reactive()
+                .flatMap(tenantId -> delete(tenantId, id));
+    }
+
+    // Same protocol as CategoryService: record the cascade job, write the category only if it still
+    // has the name the job was recorded for, then start the job, or discard it and start over.
+    private Mono<CategoryDTO> rename(String tenantId, String id, String name) {
+        return categoryRepository.findByIdAndTenantId(id, tenantId)
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .flatMap(current -> current.getName().equals(name)
+                        ? Mono.just(CategoryService.convertToDTO(current))
+                        : call(() -> categoryCascadeService.prepareRename(tenantId, id, current.getName(), name))
+                                .flatMap(jobId -> categoryRepository.rename(tenantId, id, current.getName(), name)
+                                        .onErrorResume(ex -> schedule(() -> categoryCascadeService.discard(jobId))
+                                                .then(Mono.error(ex instanceof DuplicateKeyException
+                                                        ? new IllegalArgumentException("Another category with name '" + name + "' already exists.")
+                                                        : ex)))
+                                        .flatMap(previous -> {
+                                            collectionVersions.bump(CollectionVersions.CATEGORIES);
+                                            return schedule(() -> categoryCascadeService.start(jobId))
+                                                    .thenReturn(CategoryService.convertToDTO(new Category(id, tenantId, name)));
+                                        })
+                                        .switchIfEmpty(Mono.defer(() -> schedule(() -> categoryCascadeService.discard(jobId))
+                                                .then(rename(tenantId, id, name))))));
+    }
+
+    private Mono<Void> delete(String tenantId, String id) {
+        return categoryRepository.findByIdAndTenantId(id, tenantId)
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .flatMap(current -> call(() -> categoryCascadeService.prepareDelete(tenantId, id, current.getName()))
+                        .flatMap(jobId -> categoryRepository.removeById(tenantId, id, current.getName())
+                                .onErrorResume(ex -> schedule(() -> categoryCascadeService.discard(jobId))
+                                        .then(Mono.error(ex)))
+                                .flatMap(removed -> {
+                                    collectionVersions.bump(CollectionVersions.CATEGORIES);
+                                    return schedule(() -> categoryCascadeService.start(jobId)).thenReturn(true);
+                                })
+                                .switchIfEmpty(Mono.defer(() -> schedule(() -> categoryCascadeService.discard(jobId))
+                                        .then(delete(tenantId, id)).thenReturn(true)))))
+                .then();
+    }
+
+    private Mono<Category> findForTenant(String id) {
+        return TenantContext.reactive()
+                .flatMap(tenantId -> categoryRepository.findByIdAndTenantId(id, tenantId));
+    }
+
+    private static CategoryNotFoundException notFound(String id) {
+        return new CategoryNotFoundException("Category not found with id: " + id);
+    }
+
+    // Cascade jobs are recorded through the blocking template, so those calls are kept off the event loop.
+    private static Mono<Void> schedule(Runnable scheduling) {
+        return Mono.fromRunnable(scheduling)
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private static <T> Mono<T> call(Callable<T> callable) {
+        return Mono.fromCallable(callable)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.exception.ExpenseNotFoundException;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Money;
+import org.example.backend.repository.ReactiveExpenseRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking counterpart of {@link ExpenseService} used when the app runs on WebFlux
+ * (the {@code reactive} profile). Rollup maintenance still goes through the blocking
+ * {@link ExpenseRollupService}, so it is moved off the event loop.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveExpenseService {
+
+    private final ReactiveExpenseRepository expenseRepository;
+    private final ExpenseRollupService expenseRollupService;
+    private final CollectionVersions collectionVersions;
+
+    public Flux<ExpenseDTO> searchExpenses(ExpenseFilter filter) {
+        return TenantContext.reactive()
+                .flatMapMany(tenantId -> expenseRepository.findByFilter(tenantId, filter))
+                .map(ExpenseService::convertToDTO);
+    }
+
+    public Mono<ExpenseDTO> getExpenseById(String id) {
+        return TenantContext.reactive()
+                .flatMap(tenantId -> expenseRepository.findByIdAndTenantId(id, tenantId))
+                .map(ExpenseService::convertToDTO);
+    }
+
+    public Mono<ExpenseDTO> createExpense(ExpenseDTO expenseDTO) {
+        Expense expense = new Expense();
+        expense.setDescription(expenseDTO.getDescription());
+        expense.setCurrency(Money.currency(expenseDTO.getCurrency()));
+        expense.setAmountCents(Money.toMinorUnits(expenseDTO.getAmount(), expense.getCurrency()));
+        expense.setCategory(expenseDTO.getCategory());
+        expense.setDate(LocalDate.now());
+        return TenantContext.reactive()
+                .flatMap(tenantId -> {
+                    expense.setTenantId(tenantId);
+                    return expenseRepository.save(expense);
+                })
+                .flatMap(saved -> afterWrite(() -> expenseRollupService.applyCreate(saved)).thenReturn(saved))
+                .map(ExpenseService::convertToDTO);
+    }
+
+    public Mono<ExpenseDTO> updateExpense(String id, ExpenseDTO updatedExpenseDTO) {
+        return findExisting(id)
+                .flatMap(expense -> {
+                    String oldCategory = expense.getCategory();
+                    LocalDate oldDate = expense.getDate();
+                    long oldAmountCents = expense.getAmountCents();
+                    expense.setDescription(updatedExpenseDTO.getDescription());
+                    expense.setCurrency(Money.currency(updatedExpenseDTO.getCurrency()));
+                    expense.setAmountCents(Money.toMinorUnits(updatedExpenseDTO.getAmount(), expense.getCurrency()));
+                    expense.setCategory(updatedExpenseDTO.getCategory());
+                    return expenseRepository.save(expense)
+                            .flatMap(saved -> afterWrite(() -> expenseRollupService.applyUpdate(oldCategory, oldDate, oldAmountCents, saved))
+                                    .thenReturn(saved));
+                })
+                .map(ExpenseService::convertToDTO);
+    }
+
+    public Mono<Void> deleteExpense(String id) {
+        return findExisting(id)
+                .flatMap(expense -> expenseRepository.delete(expense)
+                        .then(afterWrite(() -> expenseRollupService.applyDelete(expense))));
+    }
+
+    private Mono<Expense> findExisting(String id) {
+        return TenantContext.reactive()
+                .flatMap(tenantId -> expenseRepository.findByIdAndTenantId(id, tenantId))
+                .switchIfEmpty(Mono.error(() -> new ExpenseNotFoundException("Expense not found with id: " + id)));
+    }
+
+    private Mono<Void> afterWrite(Runnable rollupUpdate) {
+        return Mono.fromRunnable(() -> {
+                    rollupUpdate.run();
+                    collectionVersions.bump(CollectionVersions.EXPENSES);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.backend.service;
+
+import java.util.Locale;
+
+public enum StatsPeriod {
+    DAY, WEEK, MONTH, YEAR;
+
+    public String getUnit() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static StatsPeriod fromValue(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported stats period '" + value + "'.");
+        }
+    }
+}
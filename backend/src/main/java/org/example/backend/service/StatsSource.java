@@ -0,0 +1,15 @@
+package org.example.backend.service;
+
+import java.util.Locale;
+
+public enum StatsSource {
+    LIVE, ROLLUPS, COLUMNS;
+
+    public static StatsSource fromValue(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported stats source '" + value + "'.");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.example.backend.dto.SuggestionsDTO;
+import org.example.backend.model.Category;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Tenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves {@code /api/expenses/suggest} from memory, with a separate pair of indexes per tenant. The
+ * indexes are loaded from Mongo after startup and then kept current by the expense and category
+ * writes of this instance; a periodic reload picks up writes made elsewhere and evens out any drift.
+ */
+@Service
+@Timed("service.calls")
+public class SuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionService.class);
+    static final int MAX_SUGGESTIONS = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxDescriptions;
+    private final long reloadIntervalMillis;
+    private volatile Map<String, TypeaheadIndex> descriptions = new ConcurrentHashMap<>();
+    private volatile Map<String, TypeaheadIndex> categories = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggestion-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SuggestionService(MongoTemplate mongoTemplate,
+                             @Value("${suggest.max-descriptions:100000}") int maxDescriptions,
+                             @Value("${suggest.reload-interval-ms:600000}") long reloadIntervalMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxDescriptions = maxDescriptions;
+        this.reloadIntervalMillis = reloadIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleReload() {
+        reloader.scheduleWithFixedDelay(this::reloadQuietly, 0, reloadIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public SuggestionsDTO suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUGGESTIONS + ".");
+        }
+        String tenantId = TenantContext.current();
+        TypeaheadIndex tenantDescriptions = descriptions.get(tenantId);
+        TypeaheadIndex tenantCategories = categories.get(tenantId);
+        return new SuggestionsDTO(
+                tenantDescriptions == null ? List.of() : tenantDescriptions.suggest(prefix, limit),
+                tenantCategories == null ? List.of() : tenantCategories.suggest(prefix, limit));
+    }
+
+    public void expenseWritten(Expense previous, Expense current) {
+        if (previous != null) {
+            index(descriptions, previous.getTenantId()).add(previous.getDescription(), -1);
+        }
+        if (current != null) {
+            index(descriptions, current.getTenantId()).add(current.getDescription(), 1);
+        }
+    }
+
+    public void expensesWritten(List<Expense> added, List<Expense> removed) {
+        removed.forEach(expense -> index(descriptions, expense.getTenantId()).add(expense.getDescription(), -1));
+        added.forEach(expense -> index(descriptions, expense.getTenantId()).add(expense.getDescription(), 1));
+    }
+
+    public void categoryWritten(String tenantId, String previousName, String currentName) {
+        if (previousName != null) {
+            index(categories, tenantId).add(previousName, -1);
+        }
+        if (currentName != null) {
+            index(categories, tenantId).add(currentName, 1);
+        }
+    }
+
+    void reload() {
+        // Only the most frequent descriptions are kept, which bounds the memory of all indexes
+        // together; the cap is shared, so a tenant with few expenses may start out with none.
+        List<AggregationOperation> operations = List.of(
+                context -> new Document("$group", new Document("_id", new Document("tenantId", "$tenantId")
+                        .append("description", "$description"))
+                        .append("count", new Document("$sum", 1))),
+                context -> new Document("$match", new Document("_id.description", new Document("$type", "string"))),
+                context -> new Document("$sort", new Document("count", -1)),
+                context -> new Document("$limit", maxDescriptions));
+        Map<String, Map<String, Long>> descriptionCounts = new HashMap<>();
+        for (Document document : mongoTemplate.aggregate(
+                Aggregation.newAggregation(operations).withOptions(AggregationOptions.builder().allowDiskUse(true).build()),
+                mongoTemplate.getCollectionName(Expense.class), Document.class)) {
+            Document key = document.get("_id", Document.class);
+            descriptionCounts.computeIfAbsent(tenantOf(key.getString("tenantId")), tenant -> new HashMap<>())
+                    .merge(key.getString("description"), ((Number) document.get("count")).longValue(), Long::sum);
+        }
+        Map<String, Map<String, Long>> categoryNames = new HashMap<>();
+        for (Category category : mongoTemplate.findAll(Category.class)) {
+            categoryNames.computeIfAbsent(tenantOf(category.getTenantId()), tenant -> new HashMap<>())
+                    .put(category.getName(), 1L);
+        }
+        descriptions = build(descriptionCounts);
+        categories = build(categoryNames);
+    }
+
+    private static Map<String, TypeaheadIndex> build(Map<String, Map<String, Long>> weightsByTenant) {
+        Map<String, TypeaheadIndex> indexes = new ConcurrentHashMap<>();
+        weightsByTenant.forEach((tenantId, weights) -> indexes.put(tenantId, TypeaheadIndex.of(weights, MAX_SUGGESTIONS)));
+        return indexes;
+    }
+
+    private static TypeaheadIndex index(Map<String, TypeaheadIndex> indexes, String tenantId) {
+        return indexes.computeIfAbsent(tenantOf(tenantId), tenant -> new TypeaheadIndex(MAX_SUGGESTIONS));
+    }
+
+    // Documents the tenant migration has not reached yet belong to the default tenant.
+    private static String tenantOf(String tenantId) {
+        return tenantId == null ? Tenant.DEFAULT : tenantId;
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            log.warn("Could not reload typeahead suggestions", ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reloader.shutdownNow();
+    }
+}
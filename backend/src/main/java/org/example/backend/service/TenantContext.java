@@ -0,0 +1,54 @@
+package org.example.backend.service;
+
+import org.example.backend.model.Tenant;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * The tenant the current work is done for. Servlet requests bind it to the handling thread; code
+ * that moves work to another thread (imports, the ingest flusher, cascade jobs) takes the tenant
+ * along and binds it there. WebFlux requests carry it in the Reactor context instead. Nothing
+ * bound means {@link Tenant#DEFAULT}.
+ */
+public final class TenantContext {
+
+    private static final String CONTEXT_KEY = TenantContext.class.getName();
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenantId = CURRENT.get();
+        return tenantId == null ? Tenant.DEFAULT : tenantId;
+    }
+
+    /**
+     * Binds {@code tenantId} to this thread until the returned scope is closed, which restores
+     * whatever was bound before.
+     */
+    public static Scope bind(String tenantId) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenantId);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public static Mono<String> reactive() {
+        return Mono.deferContextual(context -> Mono.just(context.getOrDefault(CONTEXT_KEY, Tenant.DEFAULT)));
+    }
+
+    public static Context withTenant(Context context, String tenantId) {
+        return context.put(CONTEXT_KEY, tenantId);
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
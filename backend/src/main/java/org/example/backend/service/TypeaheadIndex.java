@@ -0,0 +1,193 @@
+package org.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Weighted prefix index: a radix trie in which every node keeps the best {@code maxSuggestions}
+ * values of its subtree, so a lookup is one walk down the prefix and no search below it. Keys are
+ * matched case-insensitively; the casing most recently added is the one suggested.
+ */
+final class TypeaheadIndex {
+
+    static final int MAX_KEY_LENGTH = 100;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Comparator<Node> BY_WEIGHT = Comparator.<Node>comparingLong(node -> node.weight).reversed()
+            .thenComparing(node -> node.key);
+
+    private final int maxSuggestions;
+    private final Node root = new Node("", "");
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    TypeaheadIndex(int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    /**
+     * Loads many values at once and ranks every node in a single pass afterwards.
+     */
+    static TypeaheadIndex of(Map<String, Long> weights, int maxSuggestions) {
+        TypeaheadIndex index = new TypeaheadIndex(maxSuggestions);
+        weights.forEach((value, weight) -> {
+            String key = normalize(value);
+            if (!key.isEmpty() && weight > 0) {
+                Node node = index.locate(key, new ArrayList<>());
+                node.value = value.trim();
+                node.weight += weight;
+            }
+        });
+        index.rankAll(index.root);
+        return index;
+    }
+
+    void add(String value, long delta) {
+        String key = normalize(value);
+        if (key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            Node node = locate(key, path);
+            node.weight = Math.max(0, node.weight + delta);
+            if (node.weight == 0) {
+                node.value = null;
+            } else if (delta > 0) {
+                node.value = value.trim();
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node current = path.get(i);
+                if (i > 0 && current.value == null && current.children.isEmpty()) {
+                    path.get(i - 1).children.remove(current.edge.charAt(0));
+                }
+                rank(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            String rest = key;
+            while (!rest.isEmpty()) {
+                Node child = node.children.get(rest.charAt(0));
+                if (child == null) {
+                    return List.of();
+                }
+                if (child.edge.startsWith(rest)) {
+                    node = child;
+                    break;
+                }
+                if (!rest.startsWith(child.edge)) {
+                    return List.of();
+                }
+                rest = rest.substring(child.edge.length());
+                node = child;
+            }
+            List<String> suggestions = new ArrayList<>(Math.min(limit, node.top.size()));
+            for (Node ranked : node.top) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                suggestions.add(ranked.value);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String key = WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    /**
+     * Finds or creates the node for {@code key}, splitting edges as needed, and records the nodes
+     * walked through (root first, target last) in {@code path}.
+     */
+    private Node locate(String key, List<Node> path) {
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            String rest = key.substring(position);
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                child = new Node(rest, key);
+                node.children.put(rest.charAt(0), child);
+                path.add(child);
+                return child;
+            }
+            int common = commonPrefix(child.edge, rest);
+            if (common < child.edge.length()) {
+                // The key leaves (or ends inside) this edge, so the edge is split at that point.
+                Node split = new Node(child.edge.substring(0, common), key.substring(0, position + common));
+                child.edge = child.edge.substring(common);
+                split.children.put(child.edge.charAt(0), child);
+                node.children.put(split.edge.charAt(0), split);
+                child = split;
+            }
+            node = child;
+            path.add(node);
+            position += common;
+        }
+        return node;
+    }
+
+    private void rankAll(Node node) {
+        for (Node child : node.children.values()) {
+            rankAll(child);
+        }
+        rank(node);
+    }
+
+    private void rank(Node node) {
+        List<Node> candidates = new ArrayList<>();
+        if (node.value != null) {
+            candidates.add(node);
+        }
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        candidates.sort(BY_WEIGHT);
+        node.top = candidates.size() > maxSuggestions ? List.copyOf(candidates.subList(0, maxSuggestions)) : List.copyOf(candidates);
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String edge;
+        private final String key;
+        private final Map<Character, Node> children = new HashMap<>();
+        private String value;
+        private long weight;
+        private List<Node> top = List.of();
+
+        private Node(String edge, String key) {
+            this.edge = edge;
+            this.key = key;
+        }
+    }
+}
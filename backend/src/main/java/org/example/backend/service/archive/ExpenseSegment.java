@@ -0,0 +1,352 @@
+package org.example.backend.service.archive;
+
+import org.example.backend.model.Expense;
+import org.example.backend.repository.ExpenseCriteria;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An immutable file of archived expenses, all of one tenant and one month:
+ * <pre>
+ * header    magic, version, row count, first and last epoch day, raw and deflated payload length
+ * id index  a 64-bit hash of every id, sorted, uncompressed
+ * payload   deflated columns: ids, epoch days, amounts, currency and category dictionaries, descriptions
+ * </pre>
+ * An opened segment stays memory-mapped. The header and the id index are read straight from the
+ * mapping, so pruning by date and looking up an id inflate nothing; the payload is only inflated
+ * when rows are actually needed. Rows are stored newest first, in {@link ExpenseCriteria#PAGE_ORDER}.
+ */
+public final class ExpenseSegment {
+
+    private static final int MAGIC = 0x45585347;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 7 * Integer.BYTES;
+    private static final int NULL_STRING = -1;
+
+    private final Path path;
+    private final String tenantId;
+    private final MappedByteBuffer mapped;
+    private final int count;
+    private final int firstEpochDay;
+    private final int lastEpochDay;
+    private final int rawLength;
+    private final int deflatedLength;
+
+    private ExpenseSegment(Path path, String tenantId, MappedByteBuffer mapped) throws IOException {
+        if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not an expense segment");
+        }
+        if (mapped.getInt(4) != VERSION) {
+            throw new IOException(path + " has unsupported segment version " + mapped.getInt(4));
+        }
+        this.path = path;
+        this.tenantId = tenantId;
+        this.mapped = mapped;
+        this.count = mapped.getInt(8);
+        this.firstEpochDay = mapped.getInt(12);
+        this.lastEpochDay = mapped.getInt(16);
+        this.rawLength = mapped.getInt(20);
+        this.deflatedLength = mapped.getInt(24);
+        if (mapped.capacity() != payloadOffset() + deflatedLength) {
+            throw new IOException(path + " is truncated");
+        }
+    }
+
+    public static ExpenseSegment open(Path path, String tenantId) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping outlives the channel.
+            return new ExpenseSegment(path, tenantId, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes {@code expenses}, which must all be dated, to {@code path} and opens the result. The
+     * file is written under a temporary name, synced and then renamed, so a segment that exists is
+     * always complete.
+     */
+    public static ExpenseSegment write(Path path, String tenantId, List<Expense> expenses) throws IOException {
+        List<Expense> rows = new ArrayList<>(expenses);
+        rows.sort(ExpenseCriteria.PAGE_ORDER);
+        int count = rows.size();
+
+        long[] hashes = new long[count];
+        for (int i = 0; i < count; i++) {
+            hashes[i] = idHash(rows.get(i).getId());
+        }
+        Arrays.sort(hashes);
+
+        byte[] raw = encode(rows);
+        byte[] deflated = deflate(raw);
+        ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES + count * Long.BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(count)
+                .putInt(count == 0 ? 0 : (int) rows.getLast().getDate().toEpochDay())
+                .putInt(count == 0 ? 0 : (int) rows.getFirst().getDate().toEpochDay())
+                .putInt(raw.length)
+                .putInt(deflated.length);
+        for (long hash : hashes) {
+            head.putLong(hash);
+        }
+        head.flip();
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer payload = ByteBuffer.wrap(deflated);
+            while (head.hasRemaining() || payload.hasRemaining()) {
+                channel.write(new ByteBuffer[]{head, payload});
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        return open(path, tenantId);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public LocalDate getFirstDate() {
+        return LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    public LocalDate getLastDate() {
+        return LocalDate.ofEpochDay(lastEpochDay);
+    }
+
+    /**
+     * Whether any row may fall within {@code [from, to]}; either bound may be null.
+     */
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return count > 0
+                && (from == null || lastEpochDay >= from.toEpochDay())
+                && (to == null || firstEpochDay <= to.toEpochDay());
+    }
+
+    /**
+     * False when the segment certainly does not hold {@code id}; true means it probably does.
+     */
+    public boolean mightContain(String id) {
+        long hash = idHash(id);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long candidate = mapped.getLong(HEADER_BYTES + middle * Long.BYTES);
+            if (candidate < hash) {
+                low = middle + 1;
+            } else if (candidate > hash) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inflates and decodes every row. Reads only use absolute positions on the mapping, so
+     * concurrent readers do not interfere.
+     */
+    public List<Expense> read() {
+        ByteBuffer raw = ByteBuffer.wrap(inflate());
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = readString(raw);
+        }
+        int[] epochDays = new int[count];
+        for (int i = 0; i < count; i++) {
+            epochDays[i] = raw.getInt();
+        }
+        long[] amounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = raw.getLong();
+        }
+        String[] currencies = readDictionary(raw);
+        String[] categories = readDictionary(raw);
+        int[] currencyIndexes = new int[count];
+        int[] categoryIndexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            currencyIndexes[i] = raw.getInt();
+        }
+        for (int i = 0; i < count; i++) {
+            categoryIndexes[i] = raw.getInt();
+        }
+        List<Expense> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Expense expense = new Expense(ids[i], readString(raw), amounts[i], categories[categoryIndexes[i]],
+                    LocalDate.ofEpochDay(epochDays[i]));
+            expense.setTenantId(tenantId);
+            expense.setCurrency(currencies[currencyIndexes[i]]);
+            rows.add(expense);
+        }
+        return rows;
+    }
+
+    static long idHash(String id) {
+        // 64-bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private int payloadOffset() {
+        return HEADER_BYTES + count * Long.BYTES;
+    }
+
+    private byte[] inflate() {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(mapped.slice(payloadOffset(), deflatedLength));
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IOException(path + " is corrupt: expected " + rawLength + " bytes, inflated " + length);
+            }
+            return raw;
+        } catch (DataFormatException ex) {
+            throw new UncheckedIOException(new IOException(path + " is corrupt", ex));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] encode(List<Expense> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        // Column by column, so similar values sit next to each other and deflate well.
+        for (Expense row : rows) {
+            writeString(out, row.getId());
+        }
+        for (Expense row : rows) {
+            out.writeInt((int) row.getDate().toEpochDay());
+        }
+        for (Expense row : rows) {
+            out.writeLong(row.getAmountCents());
+        }
+        Map<String, Integer> currencies = new LinkedHashMap<>();
+        Map<String, Integer> categories = new LinkedHashMap<>();
+        int[] currencyIndexes = new int[rows.size()];
+        int[] categoryIndexes = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            currencyIndexes[i] = index(currencies, rows.get(i).getCurrency());
+            categoryIndexes[i] = index(categories, rows.get(i).getCategory());
+        }
+        writeDictionary(out, currencies);
+        writeDictionary(out, categories);
+        for (int index : currencyIndexes) {
+            out.writeInt(index);
+        }
+        for (int index : categoryIndexes) {
+            out.writeInt(index);
+        }
+        for (Expense row : rows) {
+            writeString(out, row.getDescription());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        // Segments are written once and read many times, so the slowest compression pays off.
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                deflated.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return deflated.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // A map key may be null (a missing category), which HashMap-backed maps allow.
+    private static int index(Map<String, Integer> dictionary, String value) {
+        Integer index = dictionary.get(value);
+        if (index == null) {
+            index = dictionary.size();
+            dictionary.put(value, index);
+        }
+        return index;
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<String, Integer> dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            writeString(out, value);
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer in) {
+        String[] values = new String[in.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(in);
+        }
+        return values;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
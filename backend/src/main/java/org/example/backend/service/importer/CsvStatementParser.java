@@ -0,0 +1,118 @@
+package org.example.backend.service.importer;
+
+import org.example.backend.dto.ExpenseDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class CsvStatementParser implements StatementParser {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("date", "description", "amount");
+
+    @Override
+    public void parse(BufferedReader reader, RowConsumer consumer) throws IOException, InterruptedException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> headerFields = splitLine(stripBom(header));
+        for (int i = 0; i < headerFields.size(); i++) {
+            columns.put(headerFields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header is missing the '" + column + "' column.");
+            }
+        }
+
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            consumer.accept(parseRow(lineNumber, line, columns));
+        }
+    }
+
+    private static StatementRow parseRow(long lineNumber, String line, Map<String, Integer> columns) {
+        List<String> fields;
+        try {
+            fields = splitLine(line);
+        } catch (IllegalArgumentException ex) {
+            return StatementRow.invalid(lineNumber, ex.getMessage());
+        }
+        try {
+            LocalDate date = LocalDate.parse(field(fields, columns, "date"));
+            // Statements book money going out as negative; credits, refunds and deposits are not expenses.
+            BigDecimal amount = new BigDecimal(field(fields, columns, "amount"));
+            if (amount.signum() > 0) {
+                return StatementRow.invalid(lineNumber, "Credit of " + amount.toPlainString() + " is not an expense.");
+            }
+            ExpenseDTO expense = ExpenseDTO.builder()
+                    .date(date)
+                    .description(field(fields, columns, "description"))
+                    .amount(amount.negate())
+                    .category(field(fields, columns, "category"))
+                    .build();
+            return StatementRow.valid(lineNumber, expense);
+        } catch (DateTimeParseException ex) {
+            return StatementRow.invalid(lineNumber, "Invalid date: " + ex.getParsedString());
+        } catch (NumberFormatException ex) {
+            return StatementRow.invalid(lineNumber, "Invalid amount: " + field(fields, columns, "amount"));
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        return fields.get(index).trim();
+    }
+
+    static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String stripBom(String header) {
+        return !header.isEmpty() && header.charAt(0) == '\uFEFF' ? header.substring(1) : header;
+    }
+}
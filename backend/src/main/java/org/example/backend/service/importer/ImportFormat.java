@@ -0,0 +1,37 @@
+package org.example.backend.service.importer;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+public enum ImportFormat {
+    CSV(CsvStatementParser::new),
+    OFX(OfxStatementParser::new);
+
+    private final Supplier<StatementParser> parserFactory;
+
+    ImportFormat(Supplier<StatementParser> parserFactory) {
+        this.parserFactory = parserFactory;
+    }
+
+    public StatementParser newParser() {
+        return parserFactory.get();
+    }
+
+    public static ImportFormat fromValue(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported import format '" + value + "'.");
+        }
+    }
+
+    public static ImportFormat fromFileName(String fileName) {
+        if (fileName != null) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".ofx") || lower.endsWith(".qfx")) {
+                return OFX;
+            }
+        }
+        return CSV;
+    }
+}
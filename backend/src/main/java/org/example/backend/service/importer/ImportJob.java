@@ -0,0 +1,109 @@
+package org.example.backend.service.importer;
+
+import org.example.backend.dto.ImportJobDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final String id;
+    private final String tenantId;
+    private final String fileName;
+    private final ImportFormat format;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<ImportJobDTO.ImportErrorDTO> errors = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+
+    public ImportJob(String id, String tenantId, String fileName, ImportFormat format) {
+        this.id = id;
+        this.tenantId = tenantId;
+        this.fileName = fileName;
+        this.format = format;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String reason) {
+        message = reason;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    public void rowsImported(long count) {
+        rowsImported.addAndGet(count);
+    }
+
+    public void rowFailed(long line, String error) {
+        rowsFailed.incrementAndGet();
+        // Only the first errors are kept so a badly broken file cannot grow the job without bound.
+        synchronized (errors) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportJobDTO.ImportErrorDTO(line, error));
+            }
+        }
+    }
+
+    public ImportJobDTO toDTO() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = start == null ? 0.0 : Duration.between(start, end).toMillis() / 1000.0;
+        List<ImportJobDTO.ImportErrorDTO> reportedErrors;
+        synchronized (errors) {
+            reportedErrors = List.copyOf(errors);
+        }
+        return ImportJobDTO.builder()
+                .id(id)
+                .fileName(fileName)
+                .format(format.name().toLowerCase(Locale.ROOT))
+                .status(status.name())
+                .rowsRead(rowsRead.get())
+                .rowsImported(rowsImported.get())
+                .rowsFailed(rowsFailed.get())
+                .rowsPerSecond(seconds > 0 ? rowsImported.get() / seconds : 0.0)
+                .startedAt(start)
+                .finishedAt(finishedAt)
+                .message(message)
+                .errors(reportedErrors)
+                .build();
+    }
+}
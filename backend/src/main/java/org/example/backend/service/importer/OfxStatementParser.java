@@ -0,0 +1,80 @@
+package org.example.backend.service.importer;
+
+import org.example.backend.dto.ExpenseDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class OfxStatementParser implements StatementParser {
+
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Override
+    public void parse(BufferedReader reader, RowConsumer consumer) throws IOException, InterruptedException {
+        Map<String, String> transaction = null;
+        long lineNumber = 0;
+        long transactionLine = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            // OFX 1.x is SGML and may put several tags on one line or leave closing tags out.
+            for (String token : line.split("(?=<)")) {
+                String trimmed = token.trim();
+                if (!trimmed.startsWith("<")) {
+                    continue;
+                }
+                int end = trimmed.indexOf('>');
+                if (end < 0) {
+                    continue;
+                }
+                String tag = trimmed.substring(1, end).toUpperCase(Locale.ROOT);
+                String value = trimmed.substring(end + 1).trim();
+                if (tag.equals("STMTTRN")) {
+                    transaction = new HashMap<>();
+                    transactionLine = lineNumber;
+                } else if (tag.equals("/STMTTRN")) {
+                    if (transaction != null) {
+                        consumer.accept(toRow(transactionLine, transaction));
+                    }
+                    transaction = null;
+                } else if (transaction != null && !tag.startsWith("/") && !value.isEmpty()) {
+                    transaction.put(tag, value);
+                }
+            }
+        }
+    }
+
+    private static StatementRow toRow(long lineNumber, Map<String, String> transaction) {
+        String posted = transaction.get("DTPOSTED");
+        String amount = transaction.get("TRNAMT");
+        if (posted == null || posted.length() < 8 || amount == null) {
+            return StatementRow.invalid(lineNumber, "Transaction is missing DTPOSTED or TRNAMT.");
+        }
+        String description = transaction.getOrDefault("NAME", transaction.get("MEMO"));
+        try {
+            LocalDate date = LocalDate.parse(posted.substring(0, 8), OFX_DATE);
+            // TRNAMT is negative for debits; credits, refunds and deposits are not expenses.
+            BigDecimal signed = new BigDecimal(amount.replace(',', '.'));
+            if (signed.signum() > 0) {
+                return StatementRow.invalid(lineNumber, "Credit of " + signed.toPlainString() + " is not an expense.");
+            }
+            ExpenseDTO expense = ExpenseDTO.builder()
+                    .date(date)
+                    .description(description)
+                    .amount(signed.negate())
+                    .build();
+            return StatementRow.valid(lineNumber, expense);
+        } catch (DateTimeParseException ex) {
+            return StatementRow.invalid(lineNumber, "Invalid date: " + posted);
+        } catch (NumberFormatException ex) {
+            return StatementRow.invalid(lineNumber, "Invalid amount: " + amount);
+        }
+    }
+}
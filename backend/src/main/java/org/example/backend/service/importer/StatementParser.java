@@ -0,0 +1,14 @@
+package org.example.backend.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+public interface StatementParser {
+
+    void parse(BufferedReader reader, RowConsumer consumer) throws IOException, InterruptedException;
+
+    @FunctionalInterface
+    interface RowConsumer {
+        void accept(StatementRow row) throws InterruptedException;
+    }
+}
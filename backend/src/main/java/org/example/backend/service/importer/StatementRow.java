@@ -0,0 +1,18 @@
+package org.example.backend.service.importer;
+
+import org.example.backend.dto.ExpenseDTO;
+
+public record StatementRow(long lineNumber, ExpenseDTO expense, String error) {
+
+    public static StatementRow valid(long lineNumber, ExpenseDTO expense) {
+        return new StatementRow(lineNumber, expense, null);
+    }
+
+    public static StatementRow invalid(long lineNumber, String error) {
+        return new StatementRow(lineNumber, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -15,6 +16,7 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -31,9 +33,13 @@ class CategoryControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @BeforeEach
     void setUp() {
         categoryRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
 
@@ -163,4 +169,32 @@ class CategoryControllerIntegrationTest {
         mockMvc.perform(get("/api/categories/nonExistentId"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllCategories_shouldReflectWritesAfterBeingCached() throws Exception {
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryDTO(null, "Cached"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Cached"));
+    }
+
+    @Test
+    void getCacheStats_shouldCountHits() throws Exception {
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/categories/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("categories"))
+                .andExpect(jsonPath("$[0].hits").value(greaterThanOrEqualTo(1)));
+    }
+}
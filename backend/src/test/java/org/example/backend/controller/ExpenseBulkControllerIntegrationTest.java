@@ -0,0 +1,101 @@
+package org.example.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.model.Expense;
+import org.example.backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpenseBulkControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        expenseRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCreateExpensesInChunks() throws Exception {
+        List<ExpenseDTO> expenses = List.of(
+                new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", LocalDate.of(2024, 1, 1)),
+                new ExpenseDTO(null, "Bus", new BigDecimal("2.0"), null, "Transport", LocalDate.of(2024, 1, 2)),
+                new ExpenseDTO(null, "Book", new BigDecimal("15.0"), null, "Hobbies", LocalDate.of(2024, 1, 3)));
+
+        mockMvc.perform(post("/api/expenses/bulk")
+                        .param("chunkSize", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(expenses)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(3))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.items[2].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[2].id").exists());
+
+        assertEquals(3, expenseRepository.count());
+    }
+
+    @Test
+    void shouldUpsertAndDeleteExpenses() throws Exception {
+        Expense existing = expenseRepository.save(new Expense(null, "Old", 500, "Food", LocalDate.of(2024, 1, 1)));
+        List<ExpenseDTO> expenses = List.of(
+                new ExpenseDTO(existing.getId(), "Renamed", new BigDecimal("6.0"), null, "Food", null),
+                new ExpenseDTO("65a000000000000000000001", "New", new BigDecimal("1.0"), null, "Food", LocalDate.of(2024, 1, 5)));
+
+        mockMvc.perform(put("/api/expenses/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(expenses)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$.items[1].status").value("CREATED"));
+
+        assertEquals("Renamed", expenseRepository.findById(existing.getId()).orElseThrow().getDescription());
+
+        mockMvc.perform(post("/api/expenses/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(existing.getId(), "nonexistent-id"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].status").value("DELETED"))
+                .andExpect(jsonPath("$.items[1].status").value("NOT_FOUND"));
+
+        assertEquals(1, expenseRepository.count());
+    }
+
+    @Test
+    void shouldRejectInvalidChunkSize() throws Exception {
+        mockMvc.perform(post("/api/expenses/bulk")
+                        .param("chunkSize", "0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.backend.controller;
 
+import org.example.backend.dto.ExpenseColumnsDTO;
 import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.model.Expense;
 import org.example.backend.repository.ExpenseRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,17 +10,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 
 
 
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -41,7 +48,7 @@ class ExpenseControllerIntegrationTest {
     @BeforeEach
     void setUp() {
         expenseRepository.deleteAll();
-        testExpenseFood = new ExpenseDTO(null, "Groceries", 50.0, "Food", LocalDate.now());
+        testExpenseFood = new ExpenseDTO(null, "Groceries", new BigDecimal("50.0"), null, "Food", LocalDate.now());
     }
 
     @AfterEach
@@ -78,6 +85,81 @@ class ExpenseControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].date").exists());
     }
 
+    @Test
+    void shouldFilterAndSortExpenses() throws Exception {
+        expenseRepository.save(new Expense(null, "Weekly groceries", 4000, "Food", LocalDate.of(2024, 1, 5)));
+        expenseRepository.save(new Expense(null, "Dinner", 8000, "Food", LocalDate.of(2024, 2, 10)));
+        expenseRepository.save(new Expense(null, "Train ticket", 6000, "Travel", LocalDate.of(2024, 2, 12)));
+        expenseRepository.save(new Expense(null, "Groceries", 2000, "Food", LocalDate.of(2023, 12, 30)));
+
+        mockMvc.perform(get("/api/expenses")
+                        .param("category", "Food")
+                        .param("minAmount", "30")
+                        .param("startDate", "2024-01-01")
+                        .param("endDate", "2024-12-31")
+                        .param("sortBy", "amount")
+                        .param("sortDirection", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].description").value("Dinner"))
+                .andExpect(jsonPath("$[1].description").value("Weekly groceries"));
+
+        mockMvc.perform(get("/api/expenses").param("description", "GROCER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void shouldRejectUnknownSortField() throws Exception {
+        mockMvc.perform(get("/api/expenses").param("sortBy", "id; drop"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldPageThroughExpensesWithCursor() throws Exception {
+        expenseRepository.save(new Expense(null, "First", 1000, "Food", LocalDate.of(2024, 3, 1)));
+        expenseRepository.save(new Expense(null, "Second", 2000, "Food", LocalDate.of(2024, 2, 1)));
+        expenseRepository.save(new Expense(null, "Third", 3000, "Food", LocalDate.of(2024, 2, 1)));
+
+        String response = mockMvc.perform(get("/api/expenses/page").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].description").value("First"))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andExpect(jsonPath("$.next").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = objectMapper.readTree(response).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/expenses/page").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].description").value("Second"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldExportExpensesAsNdjson() throws Exception {
+        expenseRepository.save(new Expense(null, "Groceries", 5000, "Food", LocalDate.of(2024, 1, 2)));
+        expenseRepository.save(new Expense(null, "Train ticket", 6000, "Travel", LocalDate.of(2024, 1, 3)));
+
+        MvcResult result = mockMvc.perform(get("/api/expenses/export").param("category", "Food"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"description\":\"Groceries\"")))
+                .andExpect(content().string(not(containsString("Train ticket"))));
+    }
+
+    @Test
+    void shouldRejectUnknownExportFormat() throws Exception {
+        mockMvc.perform(get("/api/expenses/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldGetExpenseById() throws Exception {
         String response = mockMvc.perform(post("/api/expenses")
@@ -115,7 +197,7 @@ class ExpenseControllerIntegrationTest {
 
 
 
-        ExpenseDTO updatedExpense = new ExpenseDTO(savedExpense.getId(), "Updated Description", 75.0, "Food", savedExpense.getDate());
+        ExpenseDTO updatedExpense = new ExpenseDTO(savedExpense.getId(), "Updated Description", new BigDecimal("75.0"), null, "Food", savedExpense.getDate());
 
         mockMvc.perform(put("/api/expenses/" + savedExpense.getId())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -132,7 +214,7 @@ class ExpenseControllerIntegrationTest {
 
     @Test
     void shouldReturnNotFoundWhenUpdatingNonexistentExpense() throws Exception {
-        ExpenseDTO updatedExpense = new ExpenseDTO("nonexistent-id", "Updated", 100.0, "Other", LocalDate.now());
+        ExpenseDTO updatedExpense = new ExpenseDTO("nonexistent-id", "Updated", new BigDecimal("100.0"), null, "Other", LocalDate.now());
         mockMvc.perform(put("/api/expenses/nonexistent-id")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updatedExpense)))
@@ -157,4 +239,119 @@ class ExpenseControllerIntegrationTest {
         mockMvc.perform(delete("/api/expenses/nonexistent-id"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllExpenses_shouldReturnNotModifiedUntilAWriteHappens() throws Exception {
+        String etag = mockMvc.perform(get("/api/expenses"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/expenses").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        ExpenseDTO newExpense = new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null);
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newExpense)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/expenses").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void createExpense_withRespondAsync_shouldAcceptAndReturnPreGeneratedId() throws Exception {
+        ExpenseDTO newExpense = new ExpenseDTO(null, "Card payment", new BigDecimal("12.0"), null, "Food", null);
+
+        mockMvc.perform(post("/api/expenses")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newExpense)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(header().string(HttpHeaders.LOCATION, containsString("/api/expenses/")))
+                .andExpect(jsonPath("$.id").exists())
+                .andExpect(jsonPath("$.description").value("Card payment"));
+    }
+
+    @Test
+    void createExpense_withSameIdempotencyKey_shouldCreateOnlyOnce() throws Exception {
+        String body = objectMapper.writeValueAsString(new ExpenseDTO(null, "Retry me", new BigDecimal("9.0"), null, "Food", null));
+        String key = "retry-" + System.nanoTime();
+
+        String firstId = objectMapper.readValue(mockMvc.perform(post("/api/expenses")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn().getResponse().getContentAsString(), ExpenseDTO.class).getId();
+
+        mockMvc.perform(post("/api/expenses")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(firstId));
+
+        mockMvc.perform(get("/api/expenses").param("description", "Retry me"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void searchExpenses_shouldRankDirectMatchesAboveTyposAndApplyFilters() throws Exception {
+        expenseRepository.save(new Expense(null, "Coffee beans", 1200, "Food", LocalDate.of(2024, 3, 1)));
+        expenseRepository.save(new Expense(null, "Cofee with a typo", 300, "Food", LocalDate.of(2024, 3, 2)));
+        expenseRepository.save(new Expense(null, "Coffee machine", 25000, "Home", LocalDate.of(2024, 3, 3)));
+        expenseRepository.save(new Expense(null, "Train ticket", 4000, "Travel", LocalDate.of(2024, 3, 4)));
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "coff"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].description").value("Coffee machine"))
+                .andExpect(jsonPath("$[1].description").value("Coffee beans"))
+                .andExpect(jsonPath("$[2].description").value("Cofee with a typo"));
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "coffee").param("category", "Food"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].description").value("Coffee beans"));
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "x"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void suggest_shouldOfferDescriptionsWrittenThroughTheApi() throws Exception {
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ExpenseDTO(null, "Zanzibar ferry", new BigDecimal("30.0"), null, "Travel", null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/expenses/suggest").param("prefix", "zanz"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.descriptions[0]").value("Zanzibar ferry"));
+    }
+
+    @Test
+    void getAllExpenses_shouldNegotiateColumnarAndCborRepresentations() throws Exception {
+        expenseRepository.save(new Expense(null, "Lunch", 1250, "Food", LocalDate.of(2024, 3, 1)));
+        expenseRepository.save(new Expense(null, "Dinner", 3000, "Food", LocalDate.of(2024, 3, 2)));
+
+        mockMvc.perform(get("/api/expenses").accept(ExpenseColumnsDTO.JSON_MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ExpenseColumnsDTO.JSON_MEDIA_TYPE))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.categories.length()").value(1))
+                .andExpect(jsonPath("$.epochDays[0]").value(LocalDate.of(2024, 3, 2).toEpochDay()));
+
+        mockMvc.perform(get("/api/expenses").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR));
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.backend.controller;
+
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseRollup;
+import org.example.backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpenseStatsControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        expenseRepository.deleteAll();
+        mongoTemplate.remove(new Query(), ExpenseRollup.class);
+        expenseRepository.save(new Expense(null, "Groceries", 2000, "Food", LocalDate.of(2024, 1, 5)));
+        expenseRepository.save(new Expense(null, "Dinner", 8000, "Food", LocalDate.of(2024, 2, 10)));
+        expenseRepository.save(new Expense(null, "Train ticket", 5000, "Travel", LocalDate.of(2024, 2, 12)));
+        expenseRepository.save(new Expense(null, "Old trip", 50000, "Travel", LocalDate.of(2023, 6, 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseRepository.deleteAll();
+        mongoTemplate.remove(new Query(), ExpenseRollup.class);
+    }
+
+    @Test
+    void shouldAggregateTotalsByCategoryAndMonth() throws Exception {
+        mockMvc.perform(get("/api/expenses/stats")
+                        .param("startDate", "2024-01-01")
+                        .param("endDate", "2024-12-31")
+                        .param("period", "month"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totals.total").value(150.0))
+                .andExpect(jsonPath("$.totals.count").value(3))
+                .andExpect(jsonPath("$.totals.min").value(20.0))
+                .andExpect(jsonPath("$.totals.max").value(80.0))
+                .andExpect(jsonPath("$.byCategory.length()").value(2))
+                .andExpect(jsonPath("$.byCategory[0].key").value("Food"))
+                .andExpect(jsonPath("$.byCategory[0].total").value(100.0))
+                .andExpect(jsonPath("$.byPeriod.length()").value(2))
+                .andExpect(jsonPath("$.byPeriod[0].key").value("2024-01-01"))
+                .andExpect(jsonPath("$.byPeriod[1].key").value("2024-02-01"))
+                .andExpect(jsonPath("$.byPeriod[1].total").value(130.0));
+    }
+
+    @Test
+    void shouldRebuildRollupsAndServeStatsFromThem() throws Exception {
+        mockMvc.perform(post("/actuator/rollups"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consistent").value(true))
+                .andExpect(jsonPath("$.rollupRows").value(4))
+                .andExpect(jsonPath("$.expenseCount").value(4));
+
+        mockMvc.perform(get("/api/expenses/stats")
+                        .param("source", "rollups")
+                        .param("startDate", "2024-01-01")
+                        .param("endDate", "2024-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totals.total").value(150.0))
+                .andExpect(jsonPath("$.totals.count").value(3))
+                .andExpect(jsonPath("$.byCategory[0].key").value("Food"))
+                .andExpect(jsonPath("$.byPeriod[1].key").value("2024-02-01"));
+    }
+
+    @Test
+    void shouldRejectUnknownPeriod() throws Exception {
+        mockMvc.perform(get("/api/expenses/stats").param("period", "decade"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImportControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        expenseRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseRepository.deleteAll();
+    }
+
+    @Test
+    void shouldImportCsvStatementAndReportProgress() throws Exception {
+        String csv = "date,description,amount,category\n"
+                + "2024-01-01,Supermarket,-12.50,Groceries\n"
+                + "2024-01-02,Bus,-2.80,Transportation\n"
+                + "2024-01-03,Refund,5.00,Groceries\n";
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        String response = mockMvc.perform(multipart("/api/imports").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.id").exists())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(response).get("id").asText();
+
+        JsonNode job = null;
+        for (int i = 0; i < 100; i++) {
+            job = objectMapper.readTree(mockMvc.perform(get("/api/imports/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (job.get("status").asText().equals("COMPLETED")) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertEquals("COMPLETED", job.get("status").asText());
+        assertEquals(2, job.get("rowsImported").asInt());
+        assertEquals(1, job.get("rowsFailed").asInt());
+        assertEquals(2, expenseRepository.count());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownJob() throws Exception {
+        mockMvc.perform(get("/api/imports/unknown"))
+                .andExpect(status().isNotFound());
+    }
+}
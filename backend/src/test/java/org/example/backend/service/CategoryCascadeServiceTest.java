@@ -0,0 +1,230 @@
+package org.example.backend.service;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.example.backend.exception.CategoryCascadeJobNotFoundException;
+import org.example.backend.model.Category;
+import org.example.backend.model.CategoryCascadeJob;
+import org.example.backend.model.Expense;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCascadeServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ExpenseRollupService expenseRollupService;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    private CategoryCascadeService categoryCascadeService;
+
+    @BeforeEach
+    void setUp() {
+        categoryCascadeService = new CategoryCascadeService(mongoTemplate, expenseRollupService, collectionVersions, 2, "Other",
+                3, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryCascadeService.shutdown();
+    }
+
+    @Test
+    void run_shouldRewriteBatchesAndMoveRollups() {
+        List<Expense> batch = List.of(
+                new Expense("a", null, 1000, "Food", DAY),
+                new Expense("b", null, 500, "Food", DAY));
+        when(mongoTemplate.findById("job", CategoryCascadeJob.class)).thenReturn(job(CategoryCascadeJob.Status.QUEUED));
+        when(mongoTemplate.findOne(any(Query.class), eq(Category.class))).thenReturn(new Category("1", "Groceries"));
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(batch, List.of());
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Expense.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+        categoryCascadeService.run("job", false);
+
+        verify(expenseRollupService).applyAll(List.of(
+                new Expense("a", null, 1000, "Groceries", DAY),
+                new Expense("b", null, 500, "Groceries", DAY)), batch);
+        verify(expenseRollupService, never()).rebuild();
+        verify(collectionVersions).bump(CollectionVersions.EXPENSES);
+
+        List<Update> jobUpdates = captureJobUpdates(3);
+        assertEquals("b", jobUpdates.get(1).getUpdateObject().get("$set", Document.class).get("lastExpenseId"));
+        assertEquals(CategoryCascadeJob.Status.COMPLETED,
+                jobUpdates.get(2).getUpdateObject().get("$set", Document.class).get("status"));
+
+        ArgumentCaptor<Query> batchQuery = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(batchQuery.capture(), eq(Expense.class));
+        assertEquals(2, batchQuery.getAllValues().get(0).getLimit());
+        assertTrue(batchQuery.getAllValues().get(1).getQueryObject().containsKey("id"));
+    }
+
+    @Test
+    void run_shouldContinueFromCheckpointAndRebuildRollupsAfterCrash() {
+        CategoryCascadeJob job = job(CategoryCascadeJob.Status.RUNNING);
+        job.setLastExpenseId("b");
+        when(mongoTemplate.findById("job", CategoryCascadeJob.class)).thenReturn(job);
+        when(mongoTemplate.findOne(any(Query.class), eq(Category.class))).thenReturn(new Category("1", "Groceries"));
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(List.of());
+
+        categoryCascadeService.run("job", true);
+
+        ArgumentCaptor<Query> batchQuery = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(batchQuery.capture(), eq(Expense.class));
+        assertTrue(batchQuery.getValue().getQueryObject().containsKey("id"));
+        verify(expenseRollupService).rebuild();
+    }
+
+    @Test
+    void run_shouldRebuildRollupsWhenBatchWasChangedConcurrently() {
+        List<Expense> batch = List.of(
+                new Expense("a", null, 1000, "Food", DAY),
+                new Expense("b", null, 500, "Food", DAY));
+        when(mongoTemplate.findById("job", CategoryCascadeJob.class)).thenReturn(job(CategoryCascadeJob.Status.QUEUED));
+        when(mongoTemplate.findOne(any(Query.class), eq(Category.class))).thenReturn(new Category("1", "Groceries"));
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(batch, List.of());
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Expense.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        categoryCascadeService.run("job", false);
+
+        verify(expenseRollupService).rebuild();
+    }
+
+    @Test
+    void run_shouldMoveExpensesToTheCurrentNameOfARenamedCategory() {
+        List<Expense> batch = List.of(new Expense("a", null, 1000, "Food", DAY));
+        when(mongoTemplate.findById("job", CategoryCascadeJob.class)).thenReturn(job(CategoryCascadeJob.Status.QUEUED));
+        // Deleted since the rename was recorded, so a late run must not resurrect "Groceries".
+        when(mongoTemplate.findOne(any(Query.class), eq(Category.class))).thenReturn(null);
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(batch, List.of());
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Expense.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        categoryCascadeService.run("job", false);
+
+        verify(expenseRollupService).applyAll(List.of(new Expense("a", null, 1000, "Other", DAY)), batch);
+    }
+
+    @Test
+    void run_shouldRequeueFailedJobWhileAttemptsRemain() {
+        when(mongoTemplate.findById("job", CategoryCascadeJob.class)).thenReturn(job(CategoryCascadeJob.Status.QUEUED));
+        when(mongoTemplate.findOne(any(Query.class), eq(Category.class))).thenReturn(new Category("1", "Groceries"));
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenThrow(new IllegalStateException("boom"));
+
+        categoryCascadeService.run("job", false);
+
+        List<Update> jobUpdates = captureJobUpdates(2);
+        Document set = jobUpdates.get(1).getUpdateObject().get("$set", Document.class);
+        assertEquals(CategoryCascadeJob.Status.QUEUED, set.get("status"));
+        assertEquals(1, set.get("attempts"));
+        assertEquals("boom", set.get("message"));
+    }
+
+    @Test
+    void run_shouldMarkJobFailedWhenAttemptsAreUsedUp() {
+        CategoryCascadeJob job = job(CategoryCascadeJob.Status.QUEUED);
+        job.setAttempts(2);
+        when(mongoTemplate.findById("job", CategoryCascadeJob.class)).thenReturn(job);
+        when(mongoTemplate.findOne(any(Query.class), eq(Category.class))).thenReturn(new Category("1", "Groceries"));
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenThrow(new IllegalStateException("boom"));
+
+        categoryCascadeService.run("job", false);
+
+        List<Update> jobUpdates = captureJobUpdates(2);
+        Document set = jobUpdates.get(1).getUpdateObject().get("$set", Document.class);
+        assertEquals(CategoryCascadeJob.Status.FAILED, set.get("status"));
+        assertEquals(3, set.get("attempts"));
+        assertEquals("boom", set.get("message"));
+    }
+
+    @Test
+    void run_shouldNotStartPendingJobs() {
+        when(mongoTemplate.findById("job", CategoryCascadeJob.class)).thenReturn(job(CategoryCascadeJob.Status.PENDING));
+
+        categoryCascadeService.run("job", false);
+
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(CategoryCascadeJob.class));
+    }
+
+    @Test
+    void recoverPendingJobs_shouldStartAppliedRenamesAndDropTheRest() {
+        CategoryCascadeJob applied = job(CategoryCascadeJob.Status.PENDING);
+        CategoryCascadeJob notApplied = job(CategoryCascadeJob.Status.PENDING);
+        notApplied.setId("other");
+        when(mongoTemplate.find(any(Query.class), eq(CategoryCascadeJob.class))).thenReturn(List.of(applied, notApplied));
+        when(mongoTemplate.findOne(any(Query.class), eq(Category.class)))
+                .thenReturn(new Category("1", "Groceries"), new Category("1", "Food"));
+
+        categoryCascadeService.recoverPendingJobs();
+
+        ArgumentCaptor<Query> started = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(started.capture(), any(Update.class), eq(CategoryCascadeJob.class));
+        assertEquals("job", started.getValue().getQueryObject().get("id"));
+        ArgumentCaptor<Query> discarded = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(discarded.capture(), eq(CategoryCascadeJob.class));
+        assertEquals("other", discarded.getValue().getQueryObject().get("id"));
+    }
+
+    @Test
+    void retryJob_shouldRejectJobsThatDidNotFail() {
+        when(mongoTemplate.findOne(any(Query.class), eq(CategoryCascadeJob.class)))
+                .thenReturn(job(CategoryCascadeJob.Status.RUNNING));
+
+        assertThrows(IllegalArgumentException.class, () -> categoryCascadeService.retryJob("job"));
+    }
+
+    @Test
+    void run_shouldSkipFinishedJobs() {
+        when(mongoTemplate.findById("job", CategoryCascadeJob.class)).thenReturn(job(CategoryCascadeJob.Status.COMPLETED));
+
+        categoryCascadeService.run("job", false);
+
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Expense.class));
+    }
+
+    @Test
+    void getJob_shouldThrowWhenMissing() {
+        assertThrows(CategoryCascadeJobNotFoundException.class, () -> categoryCascadeService.getJob("missing"));
+    }
+
+    private static CategoryCascadeJob job(CategoryCascadeJob.Status status) {
+        return CategoryCascadeJob.builder()
+                .id("job")
+                .type(CategoryCascadeJob.Type.RENAME)
+                .categoryId("1")
+                .fromName("Food")
+                .toName("Groceries")
+                .status(status)
+                .build();
+    }
+
+    private List<Update> captureJobUpdates(int expected) {
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(expected)).updateFirst(any(Query.class), updates.capture(), eq(CategoryCascadeJob.class));
+        return updates.getAllValues();
+    }
+}
@@ -1,14 +1,19 @@
 package org.example.backend.service;
 
 import org.example.backend.dto.CategoryDTO;
+import org.example.backend.dto.PageDTO;
 import org.example.backend.exception.CategoryNotFoundException;
 import org.example.backend.model.Category;
+import org.example.backend.model.Tenant;
 import org.example.backend.repository.CategoryRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.List;
@@ -23,6 +28,15 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private CategoryCascadeService categoryCascadeService;
+
+    @Mock
+    private SuggestionService suggestionService;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -32,122 +46,183 @@ class CategoryServiceTest {
                 new Category("1", "Groceries"),
                 new Category("2", "Utilities")
         );
-        when(categoryRepository.findAll()).thenReturn(categories);
+        when(categoryRepository.findByTenantId(Tenant.DEFAULT)).thenReturn(categories);
 
         List<CategoryDTO> result = categoryService.getAllCategories();
 
         assertEquals(2, result.size());
         assertEquals("Groceries", result.get(0).getName());
         assertEquals("Utilities", result.get(1).getName());
-        verify(categoryRepository).findAll();
+        verify(categoryRepository).findByTenantId(Tenant.DEFAULT);
+    }
+
+    @Test
+    void getCategoryPage_shouldFollowCursorToNextPage() {
+        when(categoryRepository.findByTenantIdOrderByIdAsc(Tenant.DEFAULT, Limit.of(2))).thenReturn(Arrays.asList(
+                new Category("1", "Groceries"),
+                new Category("2", "Utilities")
+        ));
+
+        PageDTO<CategoryDTO> firstPage = categoryService.getCategoryPage(null, 1);
+
+        assertEquals(1, firstPage.getItems().size());
+        assertEquals("Groceries", firstPage.getItems().get(0).getName());
+        assertNotNull(firstPage.getNextCursor());
+
+        when(categoryRepository.findByTenantIdAndIdGreaterThanOrderByIdAsc(Tenant.DEFAULT, "1", Limit.of(2)))
+                .thenReturn(List.of(new Category("2", "Utilities")));
+
+        PageDTO<CategoryDTO> secondPage = categoryService.getCategoryPage(firstPage.getNextCursor(), 1);
+
+        assertEquals("Utilities", secondPage.getItems().get(0).getName());
+        assertNull(secondPage.getNextCursor());
     }
 
     @Test
     void createCategory_shouldCreateAndReturnNewCategory() {
         CategoryDTO newCategoryDTO = new CategoryDTO(null, "Electronics");
         Category savedCategory = new Category("3", "Electronics");
-        when(categoryRepository.findByName("Electronics")).thenReturn(Optional.empty());
-        when(categoryRepository.save(any(Category.class))).thenReturn(savedCategory);
+        when(categoryRepository.insert(any(Category.class))).thenReturn(savedCategory);
 
         CategoryDTO result = categoryService.createCategory(newCategoryDTO);
 
         assertNotNull(result);
         assertEquals("Electronics", result.getName());
         assertEquals("3", result.getId());
-        verify(categoryRepository).findByName("Electronics");
-        verify(categoryRepository).save(any(Category.class));
+        verify(categoryRepository).insert(argThat((Category category) -> Tenant.DEFAULT.equals(category.getTenantId())));
+        // The unique index is the only check; there is no lookup before the insert.
+        verifyNoMoreInteractions(categoryRepository);
     }
 
     @Test
     void createCategory_shouldThrowExceptionIfCategoryExists() {
         CategoryDTO existingCategoryDTO = new CategoryDTO(null, "Groceries");
-        when(categoryRepository.findByName("Groceries")).thenReturn(Optional.of(new Category()));
+        when(categoryRepository.insert(any(Category.class))).thenThrow(new DuplicateKeyException("E11000"));
 
         assertThrows(IllegalArgumentException.class, () -> {
             categoryService.createCategory(existingCategoryDTO);
         });
-        verify(categoryRepository).findByName("Groceries");
-        verify(categoryRepository, never()).save(any(Category.class));
+        verify(collectionVersions, never()).bump(anyString());
     }
     @Test
     void updateCategory_shouldUpdateAndReturnCategory() {
         CategoryDTO updatedCategoryDTO = new CategoryDTO("1", "Updated Groceries");
-        Category existingCategory = new Category("1", "Groceries");
-        Category updatedCategory = new Category("1", "Updated Groceries");
+        Category previousCategory = new Category("1", "Groceries");
 
-        when(categoryRepository.findById("1")).thenReturn(Optional.of(existingCategory));
-        when(categoryRepository.findByName("Updated Groceries")).thenReturn(Optional.empty());
-        when(categoryRepository.save(any(Category.class))).thenReturn(updatedCategory);
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT)).thenReturn(Optional.of(previousCategory));
+        when(categoryCascadeService.prepareRename(Tenant.DEFAULT, "1", "Groceries", "Updated Groceries")).thenReturn("job");
+        when(categoryRepository.rename(Tenant.DEFAULT, "1", "Groceries", "Updated Groceries")).thenReturn(Optional.of(previousCategory));
 
         CategoryDTO result = categoryService.updateCategory("1", updatedCategoryDTO);
 
         assertNotNull(result);
         assertEquals("Updated Groceries", result.getName());
         assertEquals("1", result.getId());
-        verify(categoryRepository).findById("1");
-        verify(categoryRepository).findByName("Updated Groceries");
-        verify(categoryRepository).save(any(Category.class));
+        verify(categoryRepository, never()).save(any(Category.class));
+        // The job is recorded before the category is renamed and only started afterwards.
+        InOrder inOrder = inOrder(categoryCascadeService, categoryRepository);
+        inOrder.verify(categoryCascadeService).prepareRename(Tenant.DEFAULT, "1", "Groceries", "Updated Groceries");
+        inOrder.verify(categoryRepository).rename(Tenant.DEFAULT, "1", "Groceries", "Updated Groceries");
+        inOrder.verify(categoryCascadeService).start("job");
+    }
+
+    @Test
+    void updateCategory_shouldNotCascadeWhenNameIsUnchanged() {
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT)).thenReturn(Optional.of(new Category("1", "Groceries")));
+
+        categoryService.updateCategory("1", new CategoryDTO("1", "Groceries"));
+
+        verifyNoInteractions(categoryCascadeService);
+        verify(categoryRepository, never()).rename(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void updateCategory_shouldRetryWhenRenamedConcurrently() {
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT))
+                .thenReturn(Optional.of(new Category("1", "Groceries")), Optional.of(new Category("1", "Food")));
+        when(categoryCascadeService.prepareRename(eq(Tenant.DEFAULT), eq("1"), anyString(), eq("Updated Groceries")))
+                .thenReturn("stale", "job");
+        when(categoryRepository.rename(Tenant.DEFAULT, "1", "Groceries", "Updated Groceries")).thenReturn(Optional.empty());
+        when(categoryRepository.rename(Tenant.DEFAULT, "1", "Food", "Updated Groceries")).thenReturn(Optional.of(new Category("1", "Food")));
+
+        categoryService.updateCategory("1", new CategoryDTO("1", "Updated Groceries"));
+
+        verify(categoryCascadeService).discard("stale");
+        verify(categoryCascadeService).prepareRename(Tenant.DEFAULT, "1", "Food", "Updated Groceries");
+        verify(categoryCascadeService).start("job");
+        verify(collectionVersions).bump(CollectionVersions.CATEGORIES);
     }
 
     @Test
     void updateCategory_shouldThrowExceptionIfCategoryNotFound() {
         CategoryDTO updatedCategoryDTO = new CategoryDTO("2", "Updated Groceries");
-        when(categoryRepository.findById("2")).thenReturn(Optional.empty());
+        when(categoryRepository.findByIdAndTenantId("2", Tenant.DEFAULT)).thenReturn(Optional.empty());
 
         assertThrows(CategoryNotFoundException.class, () -> {
             categoryService.updateCategory("2", updatedCategoryDTO);
         });
-        verify(categoryRepository).findById("2");
-        verify(categoryRepository, never()).save(any(Category.class));
+        verify(collectionVersions, never()).bump(anyString());
+        verifyNoInteractions(categoryCascadeService);
     }
     @Test
     void updateCategory_shouldThrowExceptionIfNewNameExists() {
         CategoryDTO updatedCategoryDTO = new CategoryDTO("1", "ExistingCategory");
-        Category existingCategory = new Category("1", "Groceries");
-        Category anotherExistingCategory = new Category("2", "ExistingCategory");
-        when(categoryRepository.findById("1")).thenReturn(Optional.of(existingCategory));
-        when(categoryRepository.findByName("ExistingCategory")).thenReturn(Optional.of(anotherExistingCategory));
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT)).thenReturn(Optional.of(new Category("1", "Groceries")));
+        when(categoryCascadeService.prepareRename(Tenant.DEFAULT, "1", "Groceries", "ExistingCategory")).thenReturn("job");
+        when(categoryRepository.rename(Tenant.DEFAULT, "1", "Groceries", "ExistingCategory")).thenThrow(new DuplicateKeyException("E11000"));
         assertThrows(IllegalArgumentException.class, () -> {
             categoryService.updateCategory("1", updatedCategoryDTO);
         });
-        verify(categoryRepository).findById("1");
-        verify(categoryRepository).findByName("ExistingCategory");
-        verify(categoryRepository, never()).save(any(Category.class));
+        verify(collectionVersions, never()).bump(anyString());
+        verify(categoryCascadeService).discard("job");
+        verify(categoryCascadeService, never()).start(anyString());
     }
 
     @Test
     void deleteCategory_shouldDeleteCategory() {
-        when(categoryRepository.existsById("1")).thenReturn(true);
-        doNothing().when(categoryRepository).deleteById(anyString());
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT)).thenReturn(Optional.of(new Category("1", "Groceries")));
+        when(categoryCascadeService.prepareDelete(Tenant.DEFAULT, "1", "Groceries")).thenReturn("job");
+        when(categoryRepository.removeById(Tenant.DEFAULT, "1", "Groceries")).thenReturn(Optional.of(new Category("1", "Groceries")));
         assertDoesNotThrow(() -> categoryService.deleteCategory("1"));
-        verify(categoryRepository).existsById("1");
-        verify(categoryRepository).deleteById("1");
+        verify(categoryRepository).removeById(Tenant.DEFAULT, "1", "Groceries");
+        verify(categoryRepository, never()).existsById(anyString());
+        verify(collectionVersions).bump(CollectionVersions.CATEGORIES);
+        verify(categoryCascadeService).start("job");
     }
 
     @Test
     void deleteCategory_shouldThrowExceptionIfCategoryNotFound() {
-        when(categoryRepository.existsById("2")).thenReturn(false);
+        when(categoryRepository.findByIdAndTenantId("2", Tenant.DEFAULT)).thenReturn(Optional.empty());
         assertThrows(CategoryNotFoundException.class, () -> {
             categoryService.deleteCategory("2");
         });
-        verify(categoryRepository).existsById("2");
-        verify(categoryRepository, never()).deleteById(anyString());
+        verify(collectionVersions, never()).bump(anyString());
+        verifyNoInteractions(categoryCascadeService);
     }
     @Test
     void getCategoryById_shouldReturnCategoryDTO() {
         Category existingCategory = new Category("1", "Groceries");
-        when(categoryRepository.findById("1")).thenReturn(Optional.of(existingCategory));
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT)).thenReturn(Optional.of(existingCategory));
         Optional<CategoryDTO> result = categoryService.getCategoryById("1");
         assertTrue(result.isPresent());
         assertEquals("Groceries", result.get().getName());
-        verify(categoryRepository).findById("1");
+        verify(categoryRepository).findByIdAndTenantId("1", Tenant.DEFAULT);
+    }
+
+    @Test
+    void getCategoryById_shouldNotSeeAnotherTenantsCategory() {
+        try (TenantContext.Scope ignored = TenantContext.bind("acme")) {
+            when(categoryRepository.findByIdAndTenantId("1", "acme")).thenReturn(Optional.empty());
+            assertFalse(categoryService.getCategoryById("1").isPresent());
+        }
+        verify(categoryRepository, never()).findByIdAndTenantId("1", Tenant.DEFAULT);
     }
 
     @Test
     void getCategoryById_shouldReturnEmptyOptionalIfNotFound() {
-        when(categoryRepository.findById("2")).thenReturn(Optional.empty());
+        when(categoryRepository.findByIdAndTenantId("2", Tenant.DEFAULT)).thenReturn(Optional.empty());
         Optional<CategoryDTO> result = categoryService.getCategoryById("2");
         assertFalse(result.isPresent());
-        verify(categoryRepository).findById("2");
+        verify(categoryRepository).findByIdAndTenantId("2", Tenant.DEFAULT);
     }
 }
\ No newline at end of file
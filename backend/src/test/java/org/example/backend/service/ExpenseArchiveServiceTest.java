@@ -0,0 +1,226 @@
+package org.example.backend.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Tenant;
+import org.example.backend.repository.ExpenseCursor;
+import org.example.backend.service.archive.ExpenseSegment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseArchiveServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @TempDir
+    Path archiveDir;
+
+    private ExpenseArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        archiveService = start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiveService.shutdown();
+    }
+
+    @Test
+    void archive_shouldMoveOldMonthsToSegmentsAndDeleteThemFromMongo() throws Exception {
+        List<Expense> march = List.of(
+                expense("a", "Rent", 90000, "Housing", LocalDate.of(2020, 3, 1)),
+                expense("b", "Groceries", 4550, null, LocalDate.of(2020, 3, 14)));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("tenantId"), eq(Expense.class), eq(String.class)))
+                .thenReturn(List.of(Tenant.DEFAULT));
+        when(mongoTemplate.findOne(any(Query.class), eq(Expense.class))).thenReturn(march.getFirst(), (Expense) null);
+        when(mongoTemplate.stream(any(Query.class), eq(Expense.class))).thenReturn(march.stream());
+        // Both are unchanged in Mongo when the move settles, so neither loses its archived copy.
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(march);
+        BulkOperations deletes = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class)).thenReturn(deletes);
+        when(deletes.execute()).thenReturn(result);
+        when(result.getDeletedCount()).thenReturn(2);
+
+        assertEquals(2, archiveService.archive(LocalDate.of(2026, 10, 18)));
+
+        verify(deletes, times(2)).remove(any(Query.class));
+        verify(collectionVersions).bump(CollectionVersions.EXPENSES);
+        try (Stream<Path> files = Files.list(archiveDir.resolve(Tenant.DEFAULT))) {
+            assertEquals(1, files.count());
+        }
+        // A restarted service finds the segment again.
+        archiveService.shutdown();
+        archiveService = start();
+        Expense groceries = archiveService.findById(Tenant.DEFAULT, "b").orElseThrow();
+        assertEquals("Groceries", groceries.getDescription());
+        assertEquals(4550, groceries.getAmountCents());
+        assertNull(groceries.getCategory());
+        assertEquals(LocalDate.of(2020, 3, 14), groceries.getDate());
+        assertTrue(archiveService.findById("other", "b").isEmpty());
+    }
+
+    @Test
+    void archive_shouldTombstoneCopiesEditedOrDeletedWhileMoving() throws Exception {
+        List<Expense> march = List.of(
+                expense("a", "Rent", 90000, "Housing", LocalDate.of(2020, 3, 1)),
+                expense("b", "Groceries", 4550, "Food", LocalDate.of(2020, 3, 14)),
+                expense("c", "Train", 2000, "Travel", LocalDate.of(2020, 3, 20)));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("tenantId"), eq(Expense.class), eq(String.class)))
+                .thenReturn(List.of(Tenant.DEFAULT));
+        when(mongoTemplate.findOne(any(Query.class), eq(Expense.class))).thenReturn(march.getFirst(), (Expense) null);
+        when(mongoTemplate.stream(any(Query.class), eq(Expense.class))).thenReturn(march.stream());
+        // "b" was re-categorised and "c" deleted after the month was read.
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(List.of(
+                march.getFirst(), expense("b", "Groceries", 4550, "Household", LocalDate.of(2020, 3, 14))));
+        BulkOperations deletes = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class)).thenReturn(deletes);
+        when(deletes.execute()).thenReturn(result);
+        when(result.getDeletedCount()).thenReturn(1);
+
+        archiveService.archive(LocalDate.of(2026, 10, 18));
+        archiveService.shutdown();
+        archiveService = start();
+
+        assertEquals(List.of("a"), archiveService.find(Tenant.DEFAULT, null).stream().map(Expense::getId).toList());
+        assertTrue(archiveService.findById(Tenant.DEFAULT, "c").isEmpty());
+        assertNull(archiveService.totalsByCategory(Tenant.DEFAULT).get("Food"));
+    }
+
+    @Test
+    void supersede_shouldHideArchivedCopyUntilTheIdIsArchivedAgain() throws Exception {
+        Path tenantDir = Files.createDirectories(archiveDir.resolve(Tenant.DEFAULT));
+        ExpenseSegment.write(tenantDir.resolve("2020-03-1000.seg"), Tenant.DEFAULT, List.of(
+                expense("a", "Rent", 90000, "Housing", LocalDate.of(2020, 3, 1))));
+        archiveService.shutdown();
+        archiveService = start();
+
+        // The live copy of "a" was deleted in Mongo, so the archived one must not come back.
+        archiveService.supersede(Tenant.DEFAULT, List.of("a", "unknown"));
+        assertTrue(archiveService.findById(Tenant.DEFAULT, "a").isEmpty());
+
+        ExpenseSegment.write(tenantDir.resolve("2020-03-2000.seg"), Tenant.DEFAULT, List.of(
+                expense("a", "Rent", 95000, "Housing", LocalDate.of(2020, 3, 1))));
+        archiveService.shutdown();
+        archiveService = start();
+        assertEquals(95000, archiveService.findById(Tenant.DEFAULT, "a").orElseThrow().getAmountCents());
+        assertEquals(List.of("a"), archiveService.findPage(Tenant.DEFAULT, null, null, 5).stream()
+                .map(Expense::getId).toList());
+    }
+
+    @Test
+    void open_shouldUndoAMoveThatDiedBeforeDeletingFromMongo() throws Exception {
+        Path tenantDir = Files.createDirectories(archiveDir.resolve(Tenant.DEFAULT));
+        Path segment = tenantDir.resolve("2020-03-1000.seg");
+        ExpenseSegment.write(segment, Tenant.DEFAULT, List.of(
+                expense("a", "Rent", 90000, "Housing", LocalDate.of(2020, 3, 1))));
+        Files.writeString(tenantDir.resolve("2020-03-1000.seg.moving"), "written");
+        archiveService.shutdown();
+        archiveService = start();
+
+        assertTrue(archiveService.findById(Tenant.DEFAULT, "a").isEmpty());
+        assertFalse(Files.exists(segment));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void open_shouldLetMongoWinAfterAMoveDiedWhileDeleting() throws Exception {
+        Path tenantDir = Files.createDirectories(archiveDir.resolve(Tenant.DEFAULT));
+        ExpenseSegment.write(tenantDir.resolve("2020-03-1000.seg"), Tenant.DEFAULT, List.of(
+                expense("a", "Rent", 90000, "Housing", LocalDate.of(2020, 3, 1)),
+                expense("b", "Coffee", 350, "Food", LocalDate.of(2020, 3, 2))));
+        Files.writeString(tenantDir.resolve("2020-03-1000.seg.moving"), "deleting");
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class)))
+                .thenReturn(List.of(expense("b", "Coffee", 350, "Food", LocalDate.of(2020, 3, 2))));
+        archiveService.shutdown();
+        archiveService = start();
+
+        assertTrue(archiveService.findById(Tenant.DEFAULT, "a").isPresent());
+        assertTrue(archiveService.findById(Tenant.DEFAULT, "b").isEmpty());
+        assertFalse(Files.exists(tenantDir.resolve("2020-03-1000.seg.moving")));
+    }
+
+    @Test
+    void find_shouldApplyTheFilterAndPreferTheNewestCopyOfAnId() throws Exception {
+        Path tenantDir = Files.createDirectories(archiveDir.resolve(Tenant.DEFAULT));
+        ExpenseSegment.write(tenantDir.resolve("2020-03-1000.seg"), Tenant.DEFAULT, List.of(
+                expense("a", "Rent", 90000, "Housing", LocalDate.of(2020, 3, 1)),
+                expense("b", "Coffee", 350, "Food", LocalDate.of(2020, 3, 2))));
+        ExpenseSegment.write(tenantDir.resolve("2020-03-2000.seg"), Tenant.DEFAULT, List.of(
+                expense("b", "Coffee beans", 1200, "Food", LocalDate.of(2020, 3, 2))));
+        archiveService.shutdown();
+        archiveService = start();
+
+        List<Expense> food = archiveService.find(Tenant.DEFAULT, ExpenseFilter.builder()
+                .category("Food").minAmount(new BigDecimal("5")).build());
+        assertEquals(List.of("Coffee beans"), food.stream().map(Expense::getDescription).toList());
+        assertEquals(List.of(), archiveService.find(Tenant.DEFAULT, ExpenseFilter.builder()
+                .startDate(LocalDate.of(2021, 1, 1)).build()));
+        Map<String, long[]> totals = archiveService.totalsByCategory(Tenant.DEFAULT);
+        assertArrayEquals(new long[]{90000, 1}, totals.get("Housing"));
+        assertArrayEquals(new long[]{1200, 1}, totals.get("Food"));
+    }
+
+    @Test
+    void findPage_shouldWalkMonthsNewestFirstFromTheCursor() throws Exception {
+        Path tenantDir = Files.createDirectories(archiveDir.resolve(Tenant.DEFAULT));
+        ExpenseSegment.write(tenantDir.resolve("2020-02-1000.seg"), Tenant.DEFAULT, List.of(
+                expense("c", "Train", 2000, "Travel", LocalDate.of(2020, 2, 10))));
+        ExpenseSegment.write(tenantDir.resolve("2020-03-1000.seg"), Tenant.DEFAULT, List.of(
+                expense("a", "Rent", 90000, "Housing", LocalDate.of(2020, 3, 1)),
+                expense("b", "Coffee", 350, "Food", LocalDate.of(2020, 3, 2))));
+        archiveService.shutdown();
+        archiveService = start();
+
+        List<Expense> first = archiveService.findPage(Tenant.DEFAULT, null, null, 2);
+        assertEquals(List.of("b", "a"), first.stream().map(Expense::getId).toList());
+
+        List<Expense> next = archiveService.findPage(Tenant.DEFAULT, null,
+                new ExpenseCursor(LocalDate.of(2020, 3, 1), "a"), 2);
+        assertEquals(List.of("c"), next.stream().map(Expense::getId).toList());
+        assertEquals(List.of(), archiveService.findPage(Tenant.DEFAULT, null, new ExpenseCursor(null, "z"), 2));
+    }
+
+    private ExpenseArchiveService start() throws Exception {
+        ExpenseArchiveService service = new ExpenseArchiveService(mongoTemplate, collectionVersions,
+                archiveDir.toString(), 730, 1000, 0, 60_000);
+        service.open();
+        return service;
+    }
+
+    private static Expense expense(String id, String description, long amountCents, String category, LocalDate date) {
+        Expense expense = new Expense(id, description, amountCents, category, date);
+        expense.setTenantId(Tenant.DEFAULT);
+        return expense;
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.backend.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.example.backend.dto.BulkItemResultDTO.BulkItemStatus;
+import org.example.backend.dto.BulkResultDTO;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Tenant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExpenseBulkServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ExpenseRollupService expenseRollupService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private SuggestionService suggestionService;
+
+    @Mock
+    private ExpenseArchiveService expenseArchiveService;
+
+    @InjectMocks
+    private ExpenseBulkService expenseBulkService;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Expense.class)).thenReturn(bulkOperations);
+    }
+
+    @Test
+    void createExpenses_shouldInsertInChunksAndReportEachItem() {
+        List<ExpenseDTO> expenses = List.of(
+                new ExpenseDTO(null, "A", new BigDecimal("1.0"), null, "Food", LocalDate.of(2024, 1, 1)),
+                new ExpenseDTO(null, "B", new BigDecimal("2.0"), null, "Food", null),
+                new ExpenseDTO(null, "C", new BigDecimal("3.0"), null, "Travel", LocalDate.of(2024, 1, 2)));
+
+        BulkResultDTO result = expenseBulkService.createExpenses(expenses, 2);
+
+        verify(mongoTemplate, times(2)).bulkOps(BulkMode.UNORDERED, Expense.class);
+        verify(bulkOperations, times(2)).execute();
+        assertEquals(3, result.getSucceeded());
+        assertEquals(0, result.getFailed());
+        assertTrue(result.getItems().stream().allMatch(item -> item.getStatus() == BulkItemStatus.CREATED));
+        assertEquals(2, result.getItems().get(2).getIndex());
+        assertNotNull(result.getItems().get(0).getId());
+        verify(expenseRollupService, times(2)).applyAll(anyList(), eq(List.of()));
+    }
+
+    @Test
+    void createExpenses_shouldReportFailedItemsFromBulkError() {
+        BulkWriteError error = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1);
+        MongoBulkWriteException cause = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                List.of(error), null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("bulk failed", cause));
+
+        BulkResultDTO result = expenseBulkService.createExpenses(List.of(
+                new ExpenseDTO(null, "A", new BigDecimal("1.0"), null, "Food", LocalDate.of(2024, 1, 1)),
+                new ExpenseDTO(null, "B", new BigDecimal("2.0"), null, "Food", LocalDate.of(2024, 1, 1))), 10);
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(BulkItemStatus.FAILED, result.getItems().get(1).getStatus());
+        assertEquals("duplicate key", result.getItems().get(1).getError());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Expense>> created = ArgumentCaptor.forClass(List.class);
+        verify(expenseRollupService).applyAll(created.capture(), eq(List.of()));
+        assertEquals(1, created.getValue().size());
+    }
+
+    @Test
+    void upsertExpenses_shouldDistinguishUpdatesFromInsertsAndRejectMissingIds() {
+        Expense existing = new Expense("1", "Old", 500, "Food", LocalDate.of(2024, 1, 1));
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(List.of(existing));
+
+        BulkResultDTO result = expenseBulkService.upsertExpenses(List.of(
+                new ExpenseDTO("1", "New", new BigDecimal("7.0"), null, "Food", null),
+                new ExpenseDTO("2", "Fresh", new BigDecimal("3.0"), null, "Travel", LocalDate.of(2024, 1, 3)),
+                new ExpenseDTO(null, "No id", new BigDecimal("1.0"), null, "Food", null)), 100);
+
+        assertEquals(BulkItemStatus.UPDATED, result.getItems().get(0).getStatus());
+        assertEquals(BulkItemStatus.CREATED, result.getItems().get(1).getStatus());
+        assertEquals(BulkItemStatus.FAILED, result.getItems().get(2).getStatus());
+        ArgumentCaptor<Update> upserts = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(2)).upsert(any(Query.class), upserts.capture());
+        // Left in place, the legacy amount would be converted over the new amountCents later.
+        assertTrue(upserts.getValue().getUpdateObject().get("$unset", Document.class)
+                .containsKey(ExpenseMoneyMigration.LEGACY_AMOUNT));
+        verify(expenseRollupService).applyAll(anyList(), eq(List.of(existing)));
+    }
+
+    @Test
+    void upsertExpenses_shouldRejectArchivedIds() {
+        Expense archived = new Expense("9", "Old rent", 90000, "Housing", LocalDate.of(2020, 1, 1));
+        when(expenseArchiveService.findById(Tenant.DEFAULT, "9")).thenReturn(Optional.of(archived));
+
+        BulkResultDTO result = expenseBulkService.upsertExpenses(List.of(
+                new ExpenseDTO("9", "Rent", new BigDecimal("950.0"), null, "Housing", null)), 100);
+
+        assertEquals(BulkItemStatus.FAILED, result.getItems().getFirst().getStatus());
+        assertTrue(result.getItems().getFirst().getError().contains("archived"));
+        verify(bulkOperations, never()).upsert(any(Query.class), any(Update.class));
+    }
+
+    @Test
+    void deleteExpenses_shouldReportMissingIds() {
+        Expense existing = new Expense("1", "Old", 500, "Food", LocalDate.of(2024, 1, 1));
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(List.of(existing));
+
+        BulkResultDTO result = expenseBulkService.deleteExpenses(List.of("1", "missing"), 100);
+
+        assertEquals(BulkItemStatus.DELETED, result.getItems().get(0).getStatus());
+        assertEquals(BulkItemStatus.NOT_FOUND, result.getItems().get(1).getStatus());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        verify(bulkOperations, times(1)).remove(any(Query.class));
+        verify(expenseRollupService).applyAll(List.of(), List.of(existing));
+    }
+
+    @Test
+    void createExpenses_shouldRejectInvalidChunkSize() {
+        List<ExpenseDTO> expenses = List.of();
+        assertThrows(IllegalArgumentException.class, () -> expenseBulkService.createExpenses(expenses, 0));
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Tenant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseColumnStoreTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ExpenseArchiveService expenseArchiveService;
+
+    private ExpenseColumnStore columnStore;
+
+    @BeforeEach
+    void setUp() {
+        columnStore = new ExpenseColumnStore(mongoTemplate, expenseArchiveService, true, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        columnStore.shutdown();
+    }
+
+    @Test
+    void stats_shouldGroupMongoAndArchivedExpensesByCategoryAndPeriod() {
+        load(List.of(
+                        expense(Tenant.DEFAULT, 1250, "Food", LocalDate.of(2024, 1, 3)),
+                        expense(Tenant.DEFAULT, 750, "Food", LocalDate.of(2024, 2, 10)),
+                        expense(Tenant.DEFAULT, 4000, null, null),
+                        expense("acme", 99900, "Food", LocalDate.of(2024, 1, 3))),
+                List.of(expense(Tenant.DEFAULT, 90000, "Housing", LocalDate.of(2020, 3, 1))));
+
+        ExpenseColumnStore.Stats stats = columnStore.stats(Tenant.DEFAULT, new ExpenseFilter(), StatsPeriod.MONTH);
+
+        assertEquals(new ExpenseColumnStore.Group("total", 96000, 4), stats.totals());
+        assertEquals(List.of(
+                new ExpenseColumnStore.Group("Housing", 90000, 1),
+                new ExpenseColumnStore.Group(null, 4000, 1),
+                new ExpenseColumnStore.Group("Food", 2000, 2)), stats.byCategory());
+        // The undated expense counts towards the totals but belongs to no period.
+        assertEquals(List.of(
+                new ExpenseColumnStore.Group("2020-03-01", 90000, 1),
+                new ExpenseColumnStore.Group("2024-01-01", 1250, 1),
+                new ExpenseColumnStore.Group("2024-02-01", 750, 1)), stats.byPeriod());
+    }
+
+    @Test
+    void stats_shouldApplyCategoryDateAndAmountFilters() {
+        load(List.of(
+                expense(Tenant.DEFAULT, 1250, "Food", LocalDate.of(2024, 1, 1)),
+                expense(Tenant.DEFAULT, 350, "Food", LocalDate.of(2024, 1, 7)),
+                expense(Tenant.DEFAULT, 2000, "Food", LocalDate.of(2024, 1, 8)),
+                expense(Tenant.DEFAULT, 5000, "Travel", LocalDate.of(2024, 1, 2)),
+                expense(Tenant.DEFAULT, 800, "Food", null)), List.of());
+        ExpenseFilter filter = ExpenseFilter.builder()
+                .category("Food")
+                .minAmount(new BigDecimal("3.50"))
+                .startDate(LocalDate.of(2024, 1, 1))
+                .build();
+
+        ExpenseColumnStore.Stats stats = columnStore.stats(Tenant.DEFAULT, filter, StatsPeriod.WEEK);
+
+        assertEquals(new ExpenseColumnStore.Group("total", 3600, 3), stats.totals());
+        // 2024-01-01 is a Monday, so the 7th closes the first week and the 8th opens the next.
+        assertEquals(List.of(
+                new ExpenseColumnStore.Group("2024-01-01", 1600, 2),
+                new ExpenseColumnStore.Group("2024-01-08", 2000, 1)), stats.byPeriod());
+        assertNull(columnStore.stats(Tenant.DEFAULT, ExpenseFilter.builder().category("Unknown").build(),
+                StatsPeriod.DAY).totals());
+        assertThrows(IllegalArgumentException.class, () -> columnStore.stats(Tenant.DEFAULT,
+                ExpenseFilter.builder().description("coffee").build(), StatsPeriod.DAY));
+    }
+
+    @Test
+    void stats_shouldOnlyBucketTheDaysThatHaveRows() {
+        load(List.of(
+                expense(Tenant.DEFAULT, 1250, "Food", LocalDate.of(2024, 1, 3)),
+                expense(Tenant.DEFAULT, 500, "Food", LocalDate.of(9999, 12, 31)),
+                expense("acme", 800, "Food", null)), List.of());
+
+        ExpenseColumnStore.Stats stats = columnStore.stats(Tenant.DEFAULT, new ExpenseFilter(), StatsPeriod.WEEK);
+        ExpenseColumnStore.Stats undated = columnStore.stats("acme", new ExpenseFilter(), StatsPeriod.DAY);
+
+        assertEquals(List.of(
+                new ExpenseColumnStore.Group("2024-01-01", 1250, 1),
+                new ExpenseColumnStore.Group("9999-12-27", 500, 1)), stats.byPeriod());
+        assertEquals(new ExpenseColumnStore.Group("total", 800, 1), undated.totals());
+        assertEquals(List.of(), undated.byPeriod());
+    }
+
+    @Test
+    void writes_shouldCancelTheRowsTheyReplace() {
+        load(List.of(expense(Tenant.DEFAULT, 1250, "Food", LocalDate.of(2024, 1, 3))), List.of());
+        Expense taxi = expense(Tenant.DEFAULT, 3000, "Travel", LocalDate.of(2024, 1, 4));
+
+        columnStore.applyAll(List.of(taxi), List.of());
+        columnStore.applyUpdate("Food", LocalDate.of(2024, 1, 3), 1250,
+                expense(Tenant.DEFAULT, 1500, "Work", LocalDate.of(2024, 2, 1)));
+        columnStore.applyAll(List.of(), List.of(taxi));
+        ExpenseColumnStore.Stats stats = columnStore.stats(Tenant.DEFAULT, new ExpenseFilter(), StatsPeriod.MONTH);
+
+        assertEquals(new ExpenseColumnStore.Group("total", 1500, 1), stats.totals());
+        assertEquals(List.of(new ExpenseColumnStore.Group("Work", 1500, 1)), stats.byCategory());
+        assertEquals(List.of(new ExpenseColumnStore.Group("2024-02-01", 1500, 1)), stats.byPeriod());
+    }
+
+    @Test
+    void writes_shouldBeIgnoredUntilTheFirstLoad() {
+        columnStore.applyAll(List.of(expense(Tenant.DEFAULT, 1250, "Food", LocalDate.of(2024, 1, 3))), List.of());
+
+        assertFalse(columnStore.isReady());
+        assertThrows(IllegalStateException.class,
+                () -> columnStore.stats(Tenant.DEFAULT, new ExpenseFilter(), StatsPeriod.DAY));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void load_shouldKeepWritesAppliedWhileItReads() {
+        load(List.of(expense(Tenant.DEFAULT, 1250, "Food", LocalDate.of(2024, 1, 3))), List.of());
+        Expense lunch = expense(Tenant.DEFAULT, 1250, "Food", LocalDate.of(2024, 1, 3));
+        Expense taxi = expense(Tenant.DEFAULT, 3000, "Travel", LocalDate.of(2024, 1, 4));
+        // The taxi is written after the stream passed it and the lunch deleted before it got there.
+        when(mongoTemplate.stream(any(Query.class), eq(Expense.class))).thenReturn(Stream.of(lunch)
+                .peek(expense -> columnStore.applyAll(List.of(taxi), List.of(lunch))));
+
+        assertEquals(3, columnStore.load());
+        ExpenseColumnStore.Stats stats = columnStore.stats(Tenant.DEFAULT, new ExpenseFilter(), StatsPeriod.MONTH);
+
+        assertEquals(new ExpenseColumnStore.Group("total", 3000, 1), stats.totals());
+        assertEquals(List.of(new ExpenseColumnStore.Group("Travel", 3000, 1)), stats.byCategory());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load(List<Expense> hot, List<Expense> archived) {
+        when(mongoTemplate.stream(any(Query.class), eq(Expense.class))).thenReturn(hot.stream());
+        doAnswer(invocation -> {
+            ((Consumer<List<Expense>>) invocation.getArgument(0)).accept(archived);
+            return null;
+        }).when(expenseArchiveService).forEachArchivedMonth(any());
+        when(expenseArchiveService.withoutMoves(any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        assertEquals(hot.size() + archived.size(), columnStore.load());
+        assertTrue(columnStore.isReady());
+    }
+
+    private static Expense expense(String tenantId, long amountCents, String category, LocalDate date) {
+        Expense expense = new Expense(null, "Expense", amountCents, category, date);
+        expense.setTenantId(tenantId);
+        return expense;
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Tenant;
+import org.example.backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseExportServiceTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    private ExpenseExportService expenseExportService;
+
+    private final ExpenseFilter filter = new ExpenseFilter();
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        expenseExportService = new ExpenseExportService(expenseRepository, objectMapper);
+    }
+
+    @Test
+    void testExportNdjsonWritesOneLinePerExpense() throws Exception {
+        when(expenseRepository.streamByFilter(Tenant.DEFAULT, filter)).thenReturn(Stream.of(
+                new Expense("1", "Groceries", 5000, "Food", LocalDate.of(2024, 1, 2)),
+                new Expense("2", "Bus", 250, "Transport", LocalDate.of(2024, 1, 3))
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        expenseExportService.exportExpenses(filter, ExportFormat.NDJSON).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"description\":\"Groceries\""));
+        assertTrue(lines[0].contains("\"date\":\"2024-01-02\""));
+        assertTrue(lines[1].contains("\"id\":\"2\""));
+    }
+
+    @Test
+    void testExportNdjsonOfNothingIsEmpty() throws Exception {
+        when(expenseRepository.streamByFilter(Tenant.DEFAULT, filter)).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        expenseExportService.exportExpenses(filter, ExportFormat.NDJSON).writeTo(out);
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void testExportCsvEscapesFields() throws Exception {
+        when(expenseRepository.streamByFilter(Tenant.DEFAULT, filter)).thenReturn(Stream.of(
+                new Expense("1", "Pizza, \"large\"", 1200, "Food", LocalDate.of(2024, 1, 2))
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        expenseExportService.exportExpenses(filter, ExportFormat.CSV).writeTo(out);
+
+        assertEquals("id,description,amount,category,date\n"
+                        + "1,\"Pizza, \"\"large\"\"\",12.00,Food,2024-01-02\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testClosingAnExportThatNeverRanReleasesTheCursor() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(expenseRepository.streamByFilter(Tenant.DEFAULT, filter)).thenReturn(Stream.of(
+                new Expense("1", "Groceries", 5000, "Food", LocalDate.of(2024, 1, 2))).onClose(() -> closed.set(true)));
+
+        expenseExportService.exportExpenses(filter, ExportFormat.NDJSON).close();
+
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testUnknownFormatIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromValue("xml"));
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.BulkItemResultDTO;
+import org.example.backend.dto.BulkResultDTO;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.dto.ImportJobDTO;
+import org.example.backend.exception.ImportJobNotFoundException;
+import org.example.backend.model.Category;
+import org.example.backend.model.Tenant;
+import org.example.backend.repository.CategoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseImportServiceTest {
+
+    @Mock
+    private ExpenseBulkService expenseBulkService;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private ExpenseImportService expenseImportService;
+
+    @BeforeEach
+    void setUp() {
+        expenseImportService = new ExpenseImportService(expenseBulkService, categoryRepository, 2, 1, 1);
+        lenient().when(categoryRepository.findByTenantId(Tenant.DEFAULT)).thenReturn(List.of(new Category("1", "Groceries")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseImportService.shutdown();
+    }
+
+    @Test
+    void startImport_shouldParseCsvInBoundedBatches() throws Exception {
+        when(expenseBulkService.createExpenses(anyList(), anyInt())).thenAnswer(invocation -> succeeded(invocation.getArgument(0)));
+        String csv = "date,description,amount,category\n"
+                + "2024-01-01,Supermarket,-12.50,groceries\n"
+                + "2024-01-02,\"Coffee, large\",-3.20,\n"
+                + "not-a-date,Broken,-1.00,Other\n"
+                + "2024-01-03,Bakery,-4.10,Groceries\n";
+
+        ImportJobDTO job = awaitJob(expenseImportService.startImport(file("statement.csv", csv), null).getId());
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(4, job.getRowsRead());
+        assertEquals(3, job.getRowsImported());
+        assertEquals(1, job.getRowsFailed());
+        assertEquals(4, job.getErrors().getFirst().getLine());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ExpenseDTO>> batches = ArgumentCaptor.forClass(List.class);
+        verify(expenseBulkService, times(2)).createExpenses(batches.capture(), anyInt());
+        List<ExpenseDTO> imported = new ArrayList<>();
+        batches.getAllValues().forEach(imported::addAll);
+        assertEquals("Groceries", imported.get(0).getCategory());
+        assertEquals("Other", imported.get(1).getCategory());
+        assertEquals(new BigDecimal("3.20"), imported.get(1).getAmount());
+        assertEquals("Coffee, large", imported.get(1).getDescription());
+    }
+
+    @Test
+    void startImport_shouldParseOfxTransactions() throws Exception {
+        when(expenseBulkService.createExpenses(anyList(), anyInt())).thenAnswer(invocation -> succeeded(invocation.getArgument(0)));
+        String ofx = "OFXHEADER:100\n<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+                + "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20240105120000\n<TRNAMT>-25.00\n<NAME>Book store\n</STMTTRN>\n"
+                + "<STMTTRN><DTPOSTED>20240106<TRNAMT>-7.5<MEMO>Cinema</STMTTRN>\n"
+                + "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20240107<TRNAMT>1500.00<NAME>Salary</STMTTRN>\n"
+                + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n";
+
+        ImportJobDTO job = awaitJob(expenseImportService.startImport(file("statement.ofx", ofx), null).getId());
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals("ofx", job.getFormat());
+        assertEquals(2, job.getRowsImported());
+        assertEquals(1, job.getRowsFailed());
+        assertTrue(job.getErrors().getFirst().getMessage().contains("Credit"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ExpenseDTO>> batch = ArgumentCaptor.forClass(List.class);
+        verify(expenseBulkService).createExpenses(batch.capture(), anyInt());
+        assertEquals(LocalDate.of(2024, 1, 5), batch.getValue().get(0).getDate());
+        assertEquals(new BigDecimal("25.00"), batch.getValue().get(0).getAmount());
+        assertEquals("Cinema", batch.getValue().get(1).getDescription());
+    }
+
+    @Test
+    void startImport_shouldReportWhyTheWriterFailed() throws Exception {
+        when(expenseBulkService.createExpenses(anyList(), anyInt()))
+                .thenThrow(new DataAccessResourceFailureException("Mongo is unreachable"));
+        StringBuilder csv = new StringBuilder("date,description,amount,category\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append("2024-01-01,Coffee ").append(i).append(",-3.20,Food\n");
+        }
+
+        ImportJobDTO job = awaitJob(expenseImportService.startImport(file("statement.csv", csv.toString()), null).getId());
+
+        assertEquals("FAILED", job.getStatus());
+        assertEquals("Mongo is unreachable", job.getMessage());
+    }
+
+    @Test
+    void startImport_shouldFailJobWhenCsvHeaderIsIncomplete() throws Exception {
+        ImportJobDTO job = awaitJob(expenseImportService.startImport(file("statement.csv", "date,amount\n2024-01-01,3\n"), "csv").getId());
+
+        assertEquals("FAILED", job.getStatus());
+        assertTrue(job.getMessage().contains("description"));
+        verifyNoInteractions(expenseBulkService);
+    }
+
+    @Test
+    void startImport_shouldRejectUnknownFormat() {
+        MockMultipartFile file = file("statement.xml", "");
+        assertThrows(IllegalArgumentException.class, () -> expenseImportService.startImport(file, "xml"));
+    }
+
+    @Test
+    void getJob_shouldThrowForUnknownId() {
+        assertThrows(ImportJobNotFoundException.class, () -> expenseImportService.getJob("missing"));
+    }
+
+    private ImportJobDTO awaitJob(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ImportJobDTO job = expenseImportService.getJob(id);
+            if (job.getStatus().equals("COMPLETED") || job.getStatus().equals("FAILED")) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        fail("Import job did not finish in time");
+        return null;
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "text/plain", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BulkResultDTO succeeded(List<ExpenseDTO> expenses) {
+        return BulkResultDTO.of(IntStream.range(0, expenses.size())
+                .mapToObj(i -> new BulkItemResultDTO(i, String.valueOf(i), BulkItemResultDTO.BulkItemStatus.CREATED, null))
+                .toList());
+    }
+}
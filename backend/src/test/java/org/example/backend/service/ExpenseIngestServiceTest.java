@@ -0,0 +1,182 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.dto.BulkItemResultDTO;
+import org.example.backend.dto.BulkResultDTO;
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.exception.IngestBufferFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseIngestServiceTest {
+
+    private static final long NEVER = 3_600_000L;
+
+    @Mock
+    private ExpenseBulkService expenseBulkService;
+
+    @TempDir
+    Path journalDir;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ExpenseIngestService ingestService;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (ingestService != null) {
+            ingestService.shutdown();
+        }
+    }
+
+    private ExpenseIngestService start(int capacity) throws Exception {
+        ExpenseIngestService service = new ExpenseIngestService(expenseBulkService, objectMapper,
+                journalDir.toString(), capacity, 100, NEVER, true);
+        service.start();
+        return service;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void enqueue_shouldJournalAndFlushWithPreGeneratedId() throws Exception {
+        ingestService = start(10);
+        when(expenseBulkService.upsertExpenses(anyList(), anyInt())).thenReturn(BulkResultDTO.of(List.of()));
+
+        ExpenseDTO accepted = ingestService.enqueue(new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null));
+
+        assertNotNull(accepted.getId());
+        assertNotNull(accepted.getDate());
+        assertTrue(Files.readString(journalDir.resolve("current.ndjson")).contains(accepted.getId()));
+
+        ingestService.flush();
+
+        ArgumentCaptor<List<ExpenseDTO>> batch = ArgumentCaptor.forClass(List.class);
+        verify(expenseBulkService).upsertExpenses(batch.capture(), eq(100));
+        assertEquals(accepted.getId(), batch.getValue().getFirst().getId());
+        assertEquals(0, ingestService.getBufferedCount());
+        try (var files = Files.list(journalDir)) {
+            assertEquals(List.of(journalDir.resolve("current.ndjson")), files.toList());
+        }
+    }
+
+    @Test
+    void flush_shouldKeepBatchForRetryWhenMongoFails() throws Exception {
+        ingestService = start(10);
+        when(expenseBulkService.upsertExpenses(anyList(), anyInt()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(BulkResultDTO.of(List.of()));
+        ingestService.enqueue(new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> ingestService.flush());
+        try (var files = Files.list(journalDir)) {
+            assertEquals(2, files.count());
+        }
+
+        ingestService.flush();
+
+        verify(expenseBulkService, times(2)).upsertExpenses(anyList(), anyInt());
+        try (var files = Files.list(journalDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void start_shouldReplayJournalLeftByPreviousRun() throws Exception {
+        ExpenseIngestService crashed = start(10);
+        ExpenseDTO accepted = crashed.enqueue(new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null));
+        // Simulate a crash: the journal is left behind without a flush.
+        Files.writeString(journalDir.resolve("current.ndjson"), "{\"id\":\"torn", java.nio.file.StandardOpenOption.APPEND);
+
+        when(expenseBulkService.upsertExpenses(anyList(), anyInt())).thenReturn(BulkResultDTO.of(List.of()));
+        ingestService = start(10);
+        ingestService.flush();
+
+        ArgumentCaptor<List<ExpenseDTO>> batch = ArgumentCaptor.forClass(List.class);
+        verify(expenseBulkService).upsertExpenses(batch.capture(), anyInt());
+        assertEquals(1, batch.getValue().size());
+        assertEquals(accepted.getId(), batch.getValue().getFirst().getId());
+    }
+
+    @Test
+    void flush_shouldDeadLetterRowsMongoRejects() throws Exception {
+        ingestService = start(10);
+        ExpenseDTO coffee = ingestService.enqueue(new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null));
+        ExpenseDTO tea = ingestService.enqueue(new ExpenseDTO(null, "Tea", new BigDecimal("2.0"), null, "Food", null));
+        when(expenseBulkService.upsertExpenses(anyList(), anyInt())).thenReturn(BulkResultDTO.of(List.of(
+                new BulkItemResultDTO(0, coffee.getId(), BulkItemResultDTO.BulkItemStatus.CREATED, null),
+                new BulkItemResultDTO(1, tea.getId(), BulkItemResultDTO.BulkItemStatus.FAILED, "E11000 duplicate key"))));
+
+        ingestService.flush();
+
+        List<String> deadLetters = Files.readAllLines(journalDir.resolve("dead-letter.ndjson"));
+        assertEquals(1, deadLetters.size());
+        assertTrue(deadLetters.getFirst().contains(tea.getId()));
+        assertTrue(deadLetters.getFirst().contains("E11000"));
+        assertFalse(deadLetters.getFirst().contains(coffee.getId()));
+        try (var files = Files.list(journalDir)) {
+            assertFalse(files.anyMatch(path -> path.getFileName().toString().startsWith("flushing-")));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void enqueue_shouldShareSyncsAcrossConcurrentRequestsAndRotations() throws Exception {
+        ingestService = start(1000);
+        when(expenseBulkService.upsertExpenses(anyList(), anyInt())).thenReturn(BulkResultDTO.of(List.of()));
+        ExecutorService requests = Executors.newFixedThreadPool(8);
+        List<Future<ExpenseDTO>> accepted = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            accepted.add(requests.submit(() -> ingestService.enqueue(
+                    new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null))));
+            if (i % 50 == 0) {
+                ingestService.flush();
+            }
+        }
+        requests.shutdown();
+        assertTrue(requests.awaitTermination(10, TimeUnit.SECONDS));
+        ingestService.flush();
+
+        ArgumentCaptor<List<ExpenseDTO>> batches = ArgumentCaptor.forClass(List.class);
+        verify(expenseBulkService, atLeastOnce()).upsertExpenses(batches.capture(), anyInt());
+        Set<String> written = batches.getAllValues().stream().flatMap(List::stream)
+                .map(ExpenseDTO::getId).collect(Collectors.toSet());
+        for (Future<ExpenseDTO> expense : accepted) {
+            assertTrue(written.contains(expense.get().getId()));
+        }
+        assertEquals(400, written.size());
+    }
+
+    @Test
+    void enqueue_shouldRejectWhenBufferIsFull() throws Exception {
+        ingestService = start(1);
+        ingestService.enqueue(new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null));
+
+        assertThrows(IngestBufferFullException.class,
+                () -> ingestService.enqueue(new ExpenseDTO(null, "Tea", new BigDecimal("2.0"), null, "Food", null)));
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.backend.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseMoneyMigrationTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ExpenseRollupService expenseRollupService;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    private ExpenseMoneyMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new ExpenseMoneyMigration(mongoTemplate, expenseRollupService);
+        when(mongoTemplate.getCollectionName(Expense.class)).thenReturn("expenses");
+        when(mongoTemplate.indexOps(Expense.class)).thenReturn(indexOperations);
+    }
+
+    @Test
+    void migrate_shouldConvertLegacyAmountsAndRebuildRollups() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("expenses")))
+                .thenReturn(List.of(new Document("_id", "1"), new Document("_id", "2")), List.of());
+        when(mongoTemplate.getCollection("expenses")).thenReturn(collection);
+        when(collection.updateMany(any(Bson.class), anyList())).thenReturn(UpdateResult.acknowledged(2, 2L, null));
+        IndexInfo legacyIndex = mock(IndexInfo.class);
+        when(legacyIndex.getName()).thenReturn(ExpenseMoneyMigration.LEGACY_INDEX);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(legacyIndex));
+
+        assertEquals(2, migration.migrate());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Document>> pipeline = ArgumentCaptor.forClass(List.class);
+        verify(collection).updateMany(any(Bson.class), pipeline.capture());
+        Document set = pipeline.getValue().get(0).get("$set", Document.class);
+        assertTrue(set.containsKey("amountCents"));
+        assertTrue(set.containsKey("currency"));
+        assertEquals(ExpenseMoneyMigration.LEGACY_AMOUNT, pipeline.getValue().get(1).get("$unset"));
+        verify(indexOperations).dropIndex(ExpenseMoneyMigration.LEGACY_INDEX);
+        verify(expenseRollupService).rebuild();
+    }
+
+    @Test
+    void migrate_shouldDoNothingOnceEverythingIsConverted() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("expenses"))).thenReturn(List.of());
+        when(indexOperations.getIndexInfo()).thenReturn(List.of());
+        when(mongoTemplate.exists(any(Query.class), eq(ExpenseRollup.class))).thenReturn(false);
+
+        assertEquals(0, migration.migrate());
+
+        verify(mongoTemplate, never()).getCollection(any());
+        verify(expenseRollupService, never()).rebuild();
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.backend.service;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.RenameCollectionOptions;
+import org.bson.Document;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseRollup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private ExpenseArchiveService expenseArchiveService;
+
+    @Mock
+    private ExpenseColumnStore expenseColumnStore;
+
+    @InjectMocks
+    private ExpenseRollupService expenseRollupService;
+
+    @Test
+    void applyCreate_shouldIncrementDailyRollup() {
+        expenseRollupService.applyCreate(new Expense("1", "Lunch", 1250, "Food", DAY));
+
+        List<Update> updates = captureUpserts(1);
+        assertEquals(1250L, increments(updates.get(0)).get("totalCents"));
+        assertEquals(1L, increments(updates.get(0)).get("count"));
+    }
+
+    @Test
+    void applyUpdate_shouldApplyOnlyAmountDeltaWhenKeyIsUnchanged() {
+        expenseRollupService.applyUpdate("Food", DAY, 1000, new Expense("1", "Lunch", 1500, "Food", DAY));
+
+        List<Update> updates = captureUpserts(1);
+        assertEquals(500L, increments(updates.get(0)).get("totalCents"));
+        assertEquals(0L, increments(updates.get(0)).get("count"));
+    }
+
+    @Test
+    void applyUpdate_shouldMoveAmountBetweenCategories() {
+        expenseRollupService.applyUpdate("Food", DAY, 1000, new Expense("1", "Lunch", 1500, "Work", DAY));
+
+        List<Update> updates = captureUpserts(2);
+        assertEquals(-1000L, increments(updates.get(0)).get("totalCents"));
+        assertEquals(-1L, increments(updates.get(0)).get("count"));
+        assertEquals(1500L, increments(updates.get(1)).get("totalCents"));
+        assertEquals(1L, increments(updates.get(1)).get("count"));
+        verify(expenseColumnStore).applyUpdate("Food", DAY, 1000, new Expense("1", "Lunch", 1500, "Work", DAY));
+        verify(expenseColumnStore, never()).applyAll(anyList(), anyList());
+    }
+
+    @Test
+    void applyUpdate_shouldSkipWriteWhenNothingChanged() {
+        expenseRollupService.applyUpdate("Food", DAY, 1000, new Expense("1", "Renamed", 1000, "Food", DAY));
+
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(ExpenseRollup.class));
+    }
+
+    @Test
+    void applyDelete_shouldDecrementDailyRollup() {
+        expenseRollupService.applyDelete(new Expense("1", "Lunch", 1250, "Food", DAY));
+
+        List<Update> updates = captureUpserts(1);
+        assertEquals(-1250L, increments(updates.get(0)).get("totalCents"));
+        assertEquals(-1L, increments(updates.get(0)).get("count"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void rebuild_shouldReplayDeltasAppliedMeanwhileBeforeSwappingInTheStagingCollection() {
+        when(expenseArchiveService.withoutMoves(any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(mongoTemplate.getCollectionName(ExpenseRollup.class)).thenReturn("expense_rollups");
+        when(mongoTemplate.getCollectionName(Expense.class)).thenReturn("expenses");
+        AtomicBoolean written = new AtomicBoolean();
+        when(mongoTemplate.aggregate(any(Aggregation.class), anyString(), eq(Document.class))).thenAnswer(invocation -> {
+            // An expense is created while the aggregation reads.
+            if (!written.getAndSet(true)) {
+                expenseRollupService.applyCreate(new Expense("1", "Lunch", 1250, "Food", DAY));
+            }
+            return new AggregationResults<>(List.of(), new Document());
+        });
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        when(mongoTemplate.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.indexOps("expense_rollups_rebuild")).thenReturn(mock(IndexOperations.class));
+        BulkOperations staging = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseRollup.class, "expense_rollups_rebuild"))
+                .thenReturn(staging);
+        MongoCollection<Document> stagingCollection = mock(MongoCollection.class);
+        when(mongoTemplate.getCollection("expense_rollups_rebuild")).thenReturn(stagingCollection);
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(database.getName()).thenReturn("expenses_db");
+        when(mongoTemplate.getDb()).thenReturn(database);
+
+        expenseRollupService.rebuild();
+
+        ArgumentCaptor<Update> replayed = ArgumentCaptor.forClass(Update.class);
+        InOrder swap = inOrder(staging, stagingCollection);
+        swap.verify(staging).upsert(any(Query.class), replayed.capture());
+        swap.verify(staging).execute();
+        swap.verify(stagingCollection).renameCollection(eq(new MongoNamespace("expenses_db", "expense_rollups")),
+                any(RenameCollectionOptions.class));
+        assertEquals(1250L, increments(replayed.getValue()).get("totalCents"));
+        // The live rollups got the delta too, for readers during the rebuild.
+        assertEquals(1250L, increments(captureUpserts(1).getFirst()).get("totalCents"));
+    }
+
+    private List<Update> captureUpserts(int expected) {
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(expected)).upsert(any(Query.class), captor.capture(), eq(ExpenseRollup.class));
+        return captor.getAllValues();
+    }
+
+    private static Document increments(Update update) {
+        return update.getUpdateObject().get("$inc", Document.class);
+    }
+}
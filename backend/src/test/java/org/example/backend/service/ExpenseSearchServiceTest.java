@@ -0,0 +1,118 @@
+package org.example.backend.service;
+
+import org.bson.Document;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseSearchTerms;
+import org.example.backend.repository.ExpenseSearchTermsCallback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseSearchServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private ExpenseSearchService expenseSearchService;
+
+    @BeforeEach
+    void setUp() {
+        expenseSearchService = new ExpenseSearchService(mongoTemplate, 2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseSearchService.shutdown();
+    }
+
+    @Test
+    void searchTerms_shouldMatchPrefixesAndSingleTypos() {
+        List<String> stored = ExpenseSearchTerms.index("Café Crème");
+
+        assertTrue(stored.contains(ExpenseSearchTerms.exactTerm("caf")));
+        assertTrue(stored.contains(ExpenseSearchTerms.exactTerm("creme")));
+        // Missing, extra and substituted characters are each one edit away.
+        assertTrue(matchesTypo(stored, "crme"));
+        assertTrue(matchesTypo(stored, "creeme"));
+        assertTrue(matchesTypo(stored, "crame"));
+        assertFalse(matchesTypo(stored, "train"));
+    }
+
+    @Test
+    void searchTerms_shouldBeDerivedOnlyWhenTheExpenseIsWritten() {
+        Expense expense = new Expense("1", "Coffee", 300, "Food", LocalDate.now());
+        expense.setDescription("Train ticket");
+
+        assertNull(expense.getSearchTerms());
+
+        new ExpenseSearchTermsCallback().onBeforeConvert(expense, "expenses");
+
+        assertTrue(expense.getSearchTerms().contains("tra"));
+        assertFalse(expense.getSearchTerms().contains("cof"));
+    }
+
+    @Test
+    void search_shouldRejectQueriesWithoutSearchableWords() {
+        assertThrows(IllegalArgumentException.class, () -> expenseSearchService.search("a !", null, 20));
+        assertThrows(IllegalArgumentException.class, () -> expenseSearchService.search("coffee", null, 0));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void search_shouldCapTheMostRecentCandidatesBeforeScoring() {
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Expense.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+        expenseSearchService.search("coffee", null, 20);
+
+        ArgumentCaptor<TypedAggregation<?>> aggregation = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(Expense.class));
+        List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(new Document("date", -1).append("_id", -1), pipeline.get(1).get("$sort"));
+        assertEquals(2000L, ((Number) pipeline.get(2).get("$limit")).longValue());
+        assertTrue(pipeline.get(3).containsKey("$project"));
+    }
+
+    @Test
+    void backfill_shouldIndexExpensesWithoutSearchTerms() {
+        Expense legacy = new Expense();
+        legacy.setId("1");
+        legacy.setDescription("Coffee");
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class)))
+                .thenReturn(List.of(legacy), Collections.emptyList());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class)).thenReturn(bulkOperations);
+
+        assertEquals(1, expenseSearchService.backfill());
+
+        verify(bulkOperations).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+    }
+
+    private static boolean matchesTypo(List<String> stored, String queryWord) {
+        return ExpenseSearchTerms.typoTerms(queryWord).stream().anyMatch(stored::contains);
+    }
+}
@@ -1,8 +1,14 @@
 package org.example.backend.service;
 
+import org.example.backend.dto.ExpenseColumnsDTO;
 import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.dto.PageDTO;
+import org.example.backend.exception.ExpenseArchivedException;
 import org.example.backend.exception.ExpenseNotFoundException;
 import org.example.backend.model.Expense;
+import org.example.backend.model.Tenant;
+import org.example.backend.repository.ExpenseCursor;
 import org.example.backend.repository.ExpenseRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +17,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -25,6 +32,18 @@ class ExpenseServiceTest {
     @Mock
     private ExpenseRepository expenseRepository;
 
+    @Mock
+    private ExpenseRollupService expenseRollupService;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private SuggestionService suggestionService;
+
+    @Mock
+    private ExpenseArchiveService expenseArchiveService;
+
     @InjectMocks
     private ExpenseService expenseService;
 
@@ -36,14 +55,14 @@ class ExpenseServiceTest {
         expense = new Expense();
         expense.setId("1");
         expense.setDescription("Groceries");
-        expense.setAmount(50.0);
+        expense.setAmountCents(5000);
         expense.setCategory("Food");
         expense.setDate(LocalDate.now());
 
         expenseDTO = ExpenseDTO.builder()
                 .id("1")
                 .description("Groceries")
-                .amount(50.0)
+                .amount(new BigDecimal("50.00"))
                 .category("Food")
                 .date(LocalDate.now())
                 .build();
@@ -53,13 +72,67 @@ class ExpenseServiceTest {
     void testGetAllExpenses() {
         List<Expense> expenses = new ArrayList<>();
         expenses.add(expense);
-        when(expenseRepository.findAll()).thenReturn(expenses);
+        when(expenseRepository.findByTenantId(Tenant.DEFAULT)).thenReturn(expenses);
 
         List<ExpenseDTO> result = expenseService.getAllExpenses();
         assertEquals(1, result.size());
         assertEquals("Groceries", result.getFirst().getDescription());
     }
 
+    @Test
+    void testSearchExpenses() {
+        ExpenseFilter filter = ExpenseFilter.builder()
+                .category("Food")
+                .minAmount(new BigDecimal("10"))
+                .sortBy("amount")
+                .sortDirection("asc")
+                .build();
+        when(expenseRepository.findByFilter(Tenant.DEFAULT, filter)).thenReturn(List.of(expense));
+
+        List<ExpenseDTO> result = expenseService.searchExpenses(filter);
+        assertEquals(1, result.size());
+        assertEquals("Food", result.getFirst().getCategory());
+        verify(expenseRepository).findByFilter(Tenant.DEFAULT, filter);
+        verify(expenseRepository, never()).findByTenantId(any());
+    }
+
+    @Test
+    void testGetExpensePageReturnsCursorWhenMoreResultsExist() {
+        Expense older = new Expense("0", "Older", 1000, "Food", LocalDate.of(2024, 1, 1));
+        ExpenseFilter filter = new ExpenseFilter();
+        when(expenseRepository.findPage(Tenant.DEFAULT, filter, null, 2)).thenReturn(new ArrayList<>(List.of(expense, older)));
+
+        PageDTO<ExpenseDTO> page = expenseService.getExpensePage(filter, null, 1);
+        assertEquals(1, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+
+        when(expenseRepository.findPage(Tenant.DEFAULT, filter, new ExpenseCursor(expense.getDate(), "1"), 2)).thenReturn(List.of(older));
+        PageDTO<ExpenseDTO> nextPage = expenseService.getExpensePage(filter, page.getNextCursor(), 1);
+        assertEquals("Older", nextPage.getItems().getFirst().getDescription());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    void testGetExpensePageMergesArchivedExpensesInPageOrder() {
+        Expense archived = new Expense("0", "Old rent", 90000, "Housing", LocalDate.of(2020, 1, 1));
+        ExpenseFilter filter = new ExpenseFilter();
+        when(expenseRepository.findPage(Tenant.DEFAULT, filter, null, 3)).thenReturn(List.of(expense));
+        when(expenseArchiveService.findPage(Tenant.DEFAULT, filter, null, 3)).thenReturn(List.of(archived));
+        when(expenseArchiveService.withoutUnsettled(Tenant.DEFAULT, List.of(archived))).thenReturn(List.of(archived));
+
+        PageDTO<ExpenseDTO> page = expenseService.getExpensePage(filter, null, 2);
+
+        assertEquals(List.of("1", "0"), page.getItems().stream().map(ExpenseDTO::getId).toList());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetExpensePageRejectsInvalidCursor() {
+        ExpenseFilter filter = new ExpenseFilter();
+        assertThrows(IllegalArgumentException.class, () -> expenseService.getExpensePage(filter, "not-a-cursor", 10));
+        verify(expenseRepository, never()).findPage(any(), any(), any(), anyInt());
+    }
+
     @Test
     void testCreateExpense() {
         when(expenseRepository.save(any(Expense.class))).thenReturn(expense);
@@ -67,11 +140,23 @@ class ExpenseServiceTest {
         assertNotNull(result);
         assertEquals("Groceries", result.getDescription());
         assertNotNull(result.getDate());
+        verify(expenseRollupService).applyCreate(expense);
+        verify(suggestionService).expenseWritten(null, expense);
+    }
+
+    @Test
+    void testCreateExpenseRejectsFractionsOfACent() {
+        expenseDTO.setAmount(new BigDecimal("9.999"));
+        assertThrows(IllegalArgumentException.class, () -> expenseService.createExpense(expenseDTO));
+        expenseDTO.setAmount(new BigDecimal("9.99"));
+        expenseDTO.setCurrency("USD");
+        assertThrows(IllegalArgumentException.class, () -> expenseService.createExpense(expenseDTO));
+        verify(expenseRepository, never()).save(any(Expense.class));
     }
 
     @Test
     void testGetExpenseByIdFound() {
-        when(expenseRepository.findById("1")).thenReturn(Optional.of(expense));
+        when(expenseRepository.findByIdAndTenantId("1", Tenant.DEFAULT)).thenReturn(Optional.of(expense));
         Optional<ExpenseDTO> result = expenseService.getExpenseById("1");
         assertTrue(result.isPresent());
         assertEquals("Groceries", result.get().getDescription());
@@ -79,23 +164,54 @@ class ExpenseServiceTest {
 
     @Test
     void testGetExpenseByIdNotFound() {
-        when(expenseRepository.findById("2")).thenReturn(Optional.empty());
+        when(expenseRepository.findByIdAndTenantId("2", Tenant.DEFAULT)).thenReturn(Optional.empty());
         Optional<ExpenseDTO> result = expenseService.getExpenseById("2");
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void testGetExpenseByIdOnlyLooksInTheBoundTenant() {
+        try (TenantContext.Scope ignored = TenantContext.bind("acme")) {
+            when(expenseRepository.findByIdAndTenantId("1", "acme")).thenReturn(Optional.empty());
+            assertFalse(expenseService.getExpenseById("1").isPresent());
+        }
+        verify(expenseRepository, never()).findByIdAndTenantId("1", Tenant.DEFAULT);
+    }
+
+    @Test
+    void testCreateExpenseStoresTheBoundTenant() {
+        when(expenseRepository.save(any(Expense.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        try (TenantContext.Scope ignored = TenantContext.bind("acme")) {
+            expenseService.createExpense(expenseDTO);
+        }
+        verify(expenseRepository).save(argThat(saved -> "acme".equals(saved.getTenantId())));
+    }
+
     @Test
     void testDeleteExpenseSuccess() {
-        when(expenseRepository.existsById("1")).thenReturn(true);
+        when(expenseRepository.removeById(Tenant.DEFAULT, "1")).thenReturn(Optional.of(expense));
         assertDoesNotThrow(() -> expenseService.deleteExpense("1"));
-        verify(expenseRepository, times(1)).deleteById("1");
+        verify(expenseRepository, never()).findByIdAndTenantId(anyString(), anyString());
+        verify(expenseRollupService).applyDelete(expense);
+        verify(suggestionService).expenseWritten(expense, null);
+    }
+
+    @Test
+    void testDeleteArchivedExpenseIsRejected() {
+        Expense archived = new Expense("0", "Old rent", 90000, "Housing", LocalDate.of(2020, 1, 1));
+        when(expenseRepository.removeById(Tenant.DEFAULT, "0")).thenReturn(Optional.empty());
+        when(expenseArchiveService.findById(Tenant.DEFAULT, "0")).thenReturn(Optional.of(archived));
+
+        assertThrows(ExpenseArchivedException.class, () -> expenseService.deleteExpense("0"));
+        assertEquals("Old rent", expenseService.getExpenseById("0").orElseThrow().getDescription());
+        verify(expenseRollupService, never()).applyDelete(any());
     }
 
     @Test
     void testDeleteExpenseNotFound() {
-        when(expenseRepository.existsById("2")).thenReturn(false);
+        when(expenseRepository.removeById(Tenant.DEFAULT, "2")).thenReturn(Optional.empty());
         assertThrows(ExpenseNotFoundException.class, () -> expenseService.deleteExpense("2"));
-        verify(expenseRepository, never()).deleteById("2");
+        verify(expenseRollupService, never()).applyDelete(any());
     }
 
     @Test
@@ -103,25 +219,29 @@ class ExpenseServiceTest {
         Expense updatedExpense = new Expense();
         updatedExpense.setId("1");
         updatedExpense.setDescription("Updated");
-        updatedExpense.setAmount(100.0);
+        updatedExpense.setAmountCents(10000);
         updatedExpense.setCategory("Updated Category");
         updatedExpense.setDate(LocalDate.now());
 
         ExpenseDTO updatedExpenseDTO = ExpenseDTO.builder()
                 .id("1")
                 .description("Updated")
-                .amount(100.0)
+                .amount(new BigDecimal("100"))
                 .category("Updated Category")
                 .date(LocalDate.now())
                 .build();
 
-        when(expenseRepository.findById("1")).thenReturn(Optional.of(expense));
-        when(expenseRepository.save(any(Expense.class))).thenReturn(updatedExpense);
+        updatedExpense.setDate(expense.getDate());
+        when(expenseRepository.updateDetails(Tenant.DEFAULT, "1", "Updated", 10000, "EUR", "Updated Category")).thenReturn(Optional.of(expense));
 
         ExpenseDTO result = expenseService.updateExpense("1", updatedExpenseDTO);
         assertEquals("Updated", result.getDescription());
-        assertEquals(100.0, result.getAmount());
+        assertEquals(new BigDecimal("100.00"), result.getAmount());
+        assertEquals("EUR", result.getCurrency());
         assertEquals("Updated Category", result.getCategory());
+        assertEquals(expense.getDate(), result.getDate());
+        verify(expenseRepository, never()).save(any(Expense.class));
+        verify(expenseRollupService).applyUpdate("Food", expense.getDate(), 5000, updatedExpense);
     }
 
     @Test
@@ -129,11 +249,29 @@ class ExpenseServiceTest {
         ExpenseDTO updatedExpenseDTO = ExpenseDTO.builder()
                 .id("2")
                 .description("Updated")
-                .amount(100.0)
+                .amount(new BigDecimal("100"))
                 .category("Updated Category")
                 .date(LocalDate.now())
                 .build();
-        when(expenseRepository.findById("2")).thenReturn(Optional.empty());
+        when(expenseRepository.updateDetails(Tenant.DEFAULT, "2", "Updated", 10000, "EUR", "Updated Category")).thenReturn(Optional.empty());
         assertThrows(ExpenseNotFoundException.class, () -> expenseService.updateExpense("2", updatedExpenseDTO));
     }
-}
\ No newline at end of file
+
+    @Test
+    void convertToColumns_shouldDictionaryEncodeCategoriesAndUseEpochDays() {
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        ExpenseColumnsDTO columns = ExpenseService.convertToColumns(List.of(
+                new Expense("1", "Lunch", 1250, "Food", day),
+                new Expense("2", "Train", 4000, "Travel", null),
+                new Expense("3", "Dinner", 3000, "Food", day.plusDays(1))));
+
+        assertEquals(3, columns.getCount());
+        assertEquals(List.of("1", "2", "3"), columns.getIds());
+        assertEquals("EUR", columns.getCurrency());
+        assertArrayEquals(new long[]{1250, 4000, 3000}, columns.getAmountCents());
+        assertEquals(List.of("Food", "Travel"), columns.getCategories());
+        assertArrayEquals(new int[]{0, 1, 0}, columns.getCategoryIndexes());
+        assertArrayEquals(new int[]{(int) day.toEpochDay(), ExpenseColumnsDTO.NO_DATE, (int) day.toEpochDay() + 1},
+                columns.getEpochDays());
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.backend.service;
+
+import org.bson.Document;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.dto.ExpenseStatsDTO;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseRollup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseStatsServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ExpenseColumnStore expenseColumnStore;
+
+    @InjectMocks
+    private ExpenseStatsService expenseStatsService;
+
+    @Test
+    void getStats_shouldMapFacetResults() {
+        Date january = Date.from(LocalDate.of(2024, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Document result = new Document("totals", List.of(bucket(null, 15000L, 3, 2000L, 8000L)))
+                .append("byCategory", List.of(
+                        bucket("Food", 10000L, 2, 2000L, 8000L),
+                        bucket("Travel", 5000L, 1, 5000L, 5000L)))
+                .append("byPeriod", List.of(bucket(january, 15000L, 3, 2000L, 8000L)));
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(result), new Document()));
+
+        ExpenseStatsDTO stats = expenseStatsService.getStats(new ExpenseFilter(), StatsPeriod.MONTH);
+
+        assertEquals("month", stats.getPeriod());
+        assertEquals(new BigDecimal("150.00"), stats.getTotals().getTotal());
+        assertEquals(new BigDecimal("50.00"), stats.getTotals().getAverage());
+        assertEquals(3, stats.getTotals().getCount());
+        assertEquals(2, stats.getByCategory().size());
+        assertEquals("Food", stats.getByCategory().get(0).getKey());
+        assertEquals(new BigDecimal("80.00"), stats.getByCategory().get(0).getMax());
+        assertEquals("2024-01-01", stats.getByPeriod().get(0).getKey());
+    }
+
+    @Test
+    void getStats_shouldReturnEmptyTotalsWhenNothingMatches() {
+        Document result = new Document("totals", List.of())
+                .append("byCategory", List.of())
+                .append("byPeriod", List.of());
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(result), new Document()));
+
+        ExpenseStatsDTO stats = expenseStatsService.getStats(new ExpenseFilter(), StatsPeriod.WEEK);
+
+        assertEquals(0, stats.getTotals().getCount());
+        assertTrue(stats.getByCategory().isEmpty());
+        assertTrue(stats.getByPeriod().isEmpty());
+    }
+
+    @Test
+    void getStats_shouldTruncateDatesToRequestedPeriodInSinglePipeline() {
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        ExpenseFilter filter = ExpenseFilter.builder().category("Food").build();
+
+        expenseStatsService.getStats(filter, StatsPeriod.YEAR);
+
+        ArgumentCaptor<TypedAggregation<?>> captor = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate, times(1)).aggregate(captor.capture(), eq(Document.class));
+        List<Document> pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(2, pipeline.size());
+        assertTrue(pipeline.get(0).containsKey("$match"));
+        Document facet = pipeline.get(1).get("$facet", Document.class);
+        Document groupByPeriod = facet.getList("byPeriod", Document.class).get(1);
+        Document dateTrunc = groupByPeriod.get("$group", Document.class)
+                .get("_id", Document.class)
+                .get("$dateTrunc", Document.class);
+        assertEquals("year", dateTrunc.getString("unit"));
+    }
+
+    @Test
+    void getStats_shouldReadRollupsWhenRequested() {
+        Document result = new Document("totals", List.of(new Document("_id", null).append("total", 9000L).append("count", 3L)))
+                .append("byCategory", List.of())
+                .append("byPeriod", List.of());
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(result), new Document()));
+
+        ExpenseStatsDTO stats = expenseStatsService.getStats(new ExpenseFilter(), StatsPeriod.DAY, StatsSource.ROLLUPS);
+
+        assertEquals(new BigDecimal("30.00"), stats.getTotals().getAverage());
+        assertNull(stats.getTotals().getMin());
+        ArgumentCaptor<TypedAggregation<?>> captor = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq(Document.class));
+        assertEquals(ExpenseRollup.class, captor.getValue().getInputType());
+    }
+
+    @Test
+    void getStats_shouldRejectAmountFiltersOnRollups() {
+        ExpenseFilter filter = ExpenseFilter.builder().minAmount(BigDecimal.TEN).build();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> expenseStatsService.getStats(filter, StatsPeriod.DAY, StatsSource.ROLLUPS));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getStats_shouldReadTheColumnStoreWithoutMongo() {
+        when(expenseColumnStore.isEnabled()).thenReturn(true);
+        when(expenseColumnStore.isReady()).thenReturn(true);
+        ExpenseFilter filter = new ExpenseFilter();
+        when(expenseColumnStore.stats("default", filter, StatsPeriod.MONTH)).thenReturn(new ExpenseColumnStore.Stats(
+                new ExpenseColumnStore.Group("total", 9000L, 3),
+                List.of(new ExpenseColumnStore.Group("Food", 9000L, 3)),
+                List.of(new ExpenseColumnStore.Group("2024-01-01", 9000L, 3))));
+
+        ExpenseStatsDTO stats = expenseStatsService.getStats(filter, StatsPeriod.MONTH, StatsSource.COLUMNS);
+
+        assertEquals(new BigDecimal("30.00"), stats.getTotals().getAverage());
+        assertNull(stats.getTotals().getMax());
+        assertEquals("Food", stats.getByCategory().get(0).getKey());
+        assertEquals("2024-01-01", stats.getByPeriod().get(0).getKey());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getStats_shouldFallBackToLiveUntilTheColumnStoreIsLoaded() {
+        when(expenseColumnStore.isEnabled()).thenReturn(true);
+        when(expenseColumnStore.isReady()).thenReturn(false);
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+        expenseStatsService.getStats(new ExpenseFilter(), StatsPeriod.MONTH, StatsSource.COLUMNS);
+
+        ArgumentCaptor<TypedAggregation<?>> captor = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq(Document.class));
+        assertEquals(Expense.class, captor.getValue().getInputType());
+        verify(expenseColumnStore, never()).stats(any(), any(), any());
+    }
+
+    @Test
+    void getStats_shouldRejectColumnsWhenTheStoreIsDisabled() {
+        assertThrows(IllegalArgumentException.class,
+                () -> expenseStatsService.getStats(new ExpenseFilter(), StatsPeriod.DAY, StatsSource.COLUMNS));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static Document bucket(Object key, long total, int count, long min, long max) {
+        return new Document("_id", key)
+                .append("total", total)
+                .append("count", count)
+                .append("min", min)
+                .append("max", max);
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.backend.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.example.backend.model.Category;
+import org.example.backend.model.CategoryCascadeJob;
+import org.example.backend.model.Expense;
+import org.example.backend.model.ExpenseRollup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseTenantMigrationTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ExpenseRollupService expenseRollupService;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private IndexOperations expenseIndexes;
+
+    @Mock
+    private IndexOperations categoryIndexes;
+
+    @Mock
+    private IndexOperations rollupIndexes;
+
+    private ExpenseTenantMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new ExpenseTenantMigration(mongoTemplate, expenseRollupService, false);
+        when(mongoTemplate.getCollectionName(Expense.class)).thenReturn("expenses");
+        when(mongoTemplate.indexOps(Expense.class)).thenReturn(expenseIndexes);
+        when(mongoTemplate.indexOps(Category.class)).thenReturn(categoryIndexes);
+        when(mongoTemplate.indexOps(ExpenseRollup.class)).thenReturn(rollupIndexes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        migration.shutdown();
+    }
+
+    @Test
+    void migrate_shouldAssignTheDefaultTenantAndDropUntenantedIndexes() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("expenses")))
+                .thenReturn(List.of(new Document("_id", "1"), new Document("_id", "2")), List.of());
+        when(mongoTemplate.getCollection("expenses")).thenReturn(collection);
+        when(collection.updateMany(any(Bson.class), any(Bson.class))).thenReturn(UpdateResult.acknowledged(2, 2L, null));
+        List<IndexInfo> expenseIndexInfo = List.of(index("date_id"), index("tenant_date_id"));
+        List<IndexInfo> categoryIndexInfo = List.of(index("name_unique"));
+        when(expenseIndexes.getIndexInfo()).thenReturn(expenseIndexInfo);
+        when(categoryIndexes.getIndexInfo()).thenReturn(categoryIndexInfo);
+        when(rollupIndexes.getIndexInfo()).thenReturn(List.of());
+
+        assertEquals(2, migration.migrate());
+
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(Category.class));
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(CategoryCascadeJob.class));
+        verify(expenseIndexes).dropIndex("date_id");
+        verify(expenseIndexes, never()).dropIndex("tenant_date_id");
+        verify(categoryIndexes).dropIndex("name_unique");
+        verify(expenseRollupService).rebuild();
+    }
+
+    @Test
+    void migrate_shouldDoNothingOnceEverythingHasATenant() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("expenses"))).thenReturn(List.of());
+        when(expenseIndexes.getIndexInfo()).thenReturn(List.of());
+        when(categoryIndexes.getIndexInfo()).thenReturn(List.of());
+        when(rollupIndexes.getIndexInfo()).thenReturn(List.of());
+        when(mongoTemplate.exists(any(Query.class), eq(ExpenseRollup.class))).thenReturn(false);
+
+        assertEquals(0, migration.migrate());
+
+        verify(mongoTemplate, never()).getCollection(any());
+        verify(expenseRollupService, never()).rebuild();
+    }
+
+    private static IndexInfo index(String name) {
+        IndexInfo index = mock(IndexInfo.class);
+        when(index.getName()).thenReturn(name);
+        return index;
+    }
+}
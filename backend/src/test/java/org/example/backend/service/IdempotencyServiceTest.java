@@ -0,0 +1,119 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.exception.IdempotencyConflictException;
+import org.example.backend.model.IdempotencyRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private IdempotencyService idempotencyService;
+    private final AtomicInteger creations = new AtomicInteger();
+    private final UnaryOperator<ExpenseDTO> create = request -> {
+        creations.incrementAndGet();
+        return new ExpenseDTO("e1", request.getDescription(), request.getAmount(), null, request.getCategory(), LocalDate.now());
+    };
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(mongoTemplate, 100, 30_000);
+    }
+
+    @Test
+    void createOnce_shouldCreateOnceAndReplayFromMemory() {
+        ExpenseDTO request = new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null);
+
+        IdempotencyService.Result first = idempotencyService.createOnce("key-1", request, create);
+        IdempotencyService.Result second = idempotencyService.createOnce("key-1", request, create);
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals("e1", second.expense().getId());
+        assertEquals(1, creations.get());
+        verify(mongoTemplate).insert(any(IdempotencyRecord.class));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class));
+        verify(mongoTemplate, never()).findById(any(), any());
+    }
+
+    @Test
+    void createOnce_shouldReplayStoredResponseWhenAnotherNodeCompletedTheKey() {
+        ExpenseDTO request = new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null);
+        ExpenseDTO stored = new ExpenseDTO("e0", "Coffee", new BigDecimal("3.5"), null, "Food", LocalDate.now());
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("dup"));
+        when(mongoTemplate.findById("default:key-1", IdempotencyRecord.class)).thenReturn(new IdempotencyRecord("default:key-1",
+                IdempotencyService.fingerprint(request), IdempotencyRecord.Status.COMPLETED, stored, Instant.now()));
+
+        IdempotencyService.Result result = idempotencyService.createOnce("key-1", request, create);
+
+        assertTrue(result.replayed());
+        assertEquals("e0", result.expense().getId());
+        assertEquals(0, creations.get());
+    }
+
+    @Test
+    void createOnce_shouldRejectKeyReusedWithDifferentBody() {
+        idempotencyService.createOnce("key-1", new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null), create);
+
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.createOnce("key-1",
+                new ExpenseDTO(null, "Coffee", new BigDecimal("4.0"), null, "Food", null), create));
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    void createOnce_shouldRejectWhileOriginalIsInProgress() {
+        ExpenseDTO request = new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null);
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("dup"));
+        when(mongoTemplate.findById("default:key-1", IdempotencyRecord.class)).thenReturn(new IdempotencyRecord("default:key-1",
+                IdempotencyService.fingerprint(request), IdempotencyRecord.Status.IN_PROGRESS, null, Instant.now()));
+
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.createOnce("key-1", request, create));
+        assertEquals(0, creations.get());
+    }
+
+    @Test
+    void createOnce_shouldKeepKeysOfDifferentTenantsApart() {
+        ExpenseDTO request = new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null);
+
+        idempotencyService.createOnce("key-1", request, create);
+        try (TenantContext.Scope ignored = TenantContext.bind("acme")) {
+            assertFalse(idempotencyService.createOnce("key-1", request, create).replayed());
+        }
+
+        assertEquals(2, creations.get());
+        verify(mongoTemplate).insert(argThat((IdempotencyRecord record) -> "acme:key-1".equals(record.getId())));
+    }
+
+    @Test
+    void createOnce_shouldReleaseKeyWhenCreationFails() {
+        ExpenseDTO request = new ExpenseDTO(null, "Coffee", new BigDecimal("3.5"), null, "Food", null);
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.createOnce("key-1", request, dto -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        verify(mongoTemplate).remove(any(Query.class), eq(IdempotencyRecord.class));
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.backend.service;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MongoCommandMonitorTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<MongoClient> clientProvider = mock(ObjectProvider.class);
+
+    @Test
+    void commandSucceeded_shouldRecordDocumentsReturnedByFind() {
+        MongoCommandMonitor monitor = new MongoCommandMonitor(registry, clientProvider, 100, 0);
+
+        run(monitor, 1, "find", "{find: 'expenses', filter: {category: 'Food'}}",
+                "{cursor: {id: 0, ns: 'db.expenses', firstBatch: [{_id: 1}, {_id: 2}, {_id: 3}]}, ok: 1}", 1);
+
+        assertEquals(3.0, registry.get("mongodb.driver.commands.documents")
+                .tag("command", "find").tag("collection", "expenses").summary().totalAmount());
+    }
+
+    @Test
+    void commandSucceeded_shouldCountDocumentsWrittenByUpdates() {
+        MongoCommandMonitor monitor = new MongoCommandMonitor(registry, clientProvider, 100, 0);
+
+        run(monitor, 2, "update", "{update: 'expenses', updates: [{q: {}, u: {}}]}", "{n: 42, nModified: 42, ok: 1}", 1);
+
+        assertEquals(42.0, registry.get("mongodb.driver.commands.documents")
+                .tag("command", "update").summary().totalAmount());
+    }
+
+    @Test
+    void commandSucceeded_shouldExplainSampledReadsWithoutSessionFields() {
+        MongoDatabase database = mockDatabase("{queryPlanner: {winningPlan: {stage: 'IXSCAN'}}}");
+        MongoCommandMonitor monitor = new MongoCommandMonitor(registry, clientProvider, 100, 1);
+
+        run(monitor, 3, "find", "{find: 'expenses', filter: {description: 'x'}, lsid: {id: 1}, $db: 'db'}",
+                "{cursor: {id: 0, ns: 'db.expenses', firstBatch: []}, ok: 1}", 1);
+
+        verify(database, timeout(1000)).runCommand(argThat((Bson command) -> {
+            BsonDocument explained = command.toBsonDocument().getDocument("explain");
+            return explained.containsKey("filter") && !explained.containsKey("lsid") && !explained.containsKey("$db");
+        }));
+        monitor.shutdown();
+    }
+
+    @Test
+    void explain_shouldCountCollectionScans() {
+        mockDatabase("{queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: {stage: 'COLLSCAN'}}}}");
+        MongoCommandMonitor monitor = new MongoCommandMonitor(registry, clientProvider, 100, 0);
+
+        monitor.explain("db", "find", new MongoCommandMonitor.Started("expenses", null,
+                BsonDocument.parse("{find: 'expenses', filter: {description: 'x'}}")));
+
+        assertEquals(1.0, registry.get("mongodb.driver.commands.explained")
+                .tag("collection", "expenses").tag("plan", "COLLSCAN").counter().count());
+    }
+
+    @Test
+    void commandSucceeded_shouldNotExplainWrites() {
+        MongoCommandMonitor monitor = new MongoCommandMonitor(registry, clientProvider, 0, 1);
+
+        run(monitor, 4, "insert", "{insert: 'expenses', documents: [{_id: 1}]}", "{n: 1, ok: 1}", 1);
+        monitor.shutdown();
+
+        verifyNoInteractions(clientProvider);
+    }
+
+    @Test
+    void scansCollection_shouldIgnoreRejectedPlans() {
+        Document indexed = Document.parse("{queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: {stage: 'IXSCAN'}},"
+                + " rejectedPlans: [{stage: 'COLLSCAN'}]}}");
+        Document scan = Document.parse("{stages: [{$cursor: {queryPlanner: {winningPlan: {stage: 'COLLSCAN'}}}}]}");
+
+        assertFalse(MongoCommandMonitor.scansCollection(indexed));
+        assertTrue(MongoCommandMonitor.scansCollection(scan));
+    }
+
+    @Test
+    void commandSucceeded_shouldNotExplainUnsampledReads() {
+        MongoCommandMonitor monitor = new MongoCommandMonitor(registry, clientProvider, 0, 0);
+
+        run(monitor, 5, "count", "{count: 'expenses', query: {category: 'Food'}}", "{n: 3, ok: 1}", 1);
+        monitor.shutdown();
+
+        verifyNoInteractions(clientProvider);
+    }
+
+    @Test
+    void queryOf_shouldFindTheQueryOfEveryExplainableRead() {
+        assertEquals("{category: ?}", MongoCommandMonitor.shape(MongoCommandMonitor.queryOf(
+                BsonDocument.parse("{find: 'expenses', filter: {category: 'Food'}}"))));
+        assertEquals("[{$match: {category: ?}}]", MongoCommandMonitor.shape(MongoCommandMonitor.queryOf(
+                BsonDocument.parse("{aggregate: 'expenses', pipeline: [{$match: {category: 'Food'}}]}"))));
+        assertEquals("{_id: ?}", MongoCommandMonitor.shape(MongoCommandMonitor.queryOf(
+                BsonDocument.parse("{findAndModify: 'expenses', query: {_id: 1}, update: {$set: {category: 'x'}}}"))));
+        assertEquals("{date: {$gte: ?}}", MongoCommandMonitor.shape(MongoCommandMonitor.queryOf(
+                BsonDocument.parse("{count: 'expenses', query: {date: {$gte: 1}}}"))));
+    }
+
+    @Test
+    void shape_shouldHideValues() {
+        BsonDocument filter = BsonDocument.parse("{category: 'Food', date: {$gte: 1, $lt: 2}, tags: {$in: ['a', 'b']}}");
+
+        assertEquals("{category: ?, date: {$gte: ?, $lt: ?}, tags: {$in: [?, ...]}}", MongoCommandMonitor.shape(filter));
+    }
+
+    private MongoDatabase mockDatabase(String plan) {
+        MongoClient client = mock(MongoClient.class);
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(clientProvider.getIfAvailable()).thenReturn(client);
+        when(client.getDatabase("db")).thenReturn(database);
+        when(database.runCommand(any(Bson.class))).thenReturn(Document.parse(plan));
+        return database;
+    }
+
+    private static void run(MongoCommandMonitor monitor, int requestId, String name, String command, String response,
+                            long millis) {
+        monitor.commandStarted(new CommandStartedEvent(null, 1, requestId, CONNECTION, "db", name,
+                BsonDocument.parse(command)));
+        monitor.commandSucceeded(new CommandSucceededEvent(null, 1, requestId, CONNECTION, "db", name,
+                BsonDocument.parse(response), TimeUnit.MILLISECONDS.toNanos(millis)));
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.dto.MongoLimiterStatsDTO;
+import org.example.backend.exception.MongoBusyException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoConcurrencyLimiterTest {
+
+    @Test
+    void acquire_shouldTrackInFlightCalls() {
+        MongoConcurrencyLimiter limiter = new MongoConcurrencyLimiter(2, 1, 100);
+
+        limiter.acquire();
+        limiter.acquire();
+        MongoLimiterStatsDTO busy = limiter.getStats();
+        limiter.release();
+        limiter.release();
+
+        assertEquals(2, busy.getInFlight());
+        assertEquals(2, busy.getAcquired());
+        assertEquals(0, limiter.getStats().getInFlight());
+    }
+
+    @Test
+    void acquire_shouldRejectAfterTimeoutWhenAllPermitsAreTaken() {
+        MongoConcurrencyLimiter limiter = new MongoConcurrencyLimiter(1, 1, 20);
+        limiter.acquire();
+
+        assertThrows(MongoBusyException.class, limiter::acquire);
+
+        MongoLimiterStatsDTO stats = limiter.getStats();
+        assertEquals(1, stats.getRejected());
+        assertTrue(stats.getMaxWaitMillis() >= 20);
+    }
+
+    @Test
+    void bindTo_shouldPublishLimiterMeters() {
+        MongoConcurrencyLimiter limiter = new MongoConcurrencyLimiter(1, 1, 20);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+        limiter.acquire();
+
+        assertThrows(MongoBusyException.class, limiter::acquire);
+
+        assertEquals(1.0, registry.get("mongo.limiter.in.flight").gauge().value());
+        assertEquals(1.0, registry.get("mongo.limiter.acquired").functionCounter().count());
+        assertEquals(1.0, registry.get("mongo.limiter.rejected").functionCounter().count());
+        assertTrue(registry.get("mongo.limiter.wait").functionCounter().count() >= 0.02);
+    }
+
+    @Test
+    void acquireStream_shouldDrawFromItsOwnPool() {
+        MongoConcurrencyLimiter limiter = new MongoConcurrencyLimiter(1, 1, 20);
+        limiter.acquireStream();
+
+        // An open stream neither blocks other calls nor lets a second stream in.
+        limiter.acquire();
+        assertThrows(MongoBusyException.class, limiter::acquireStream);
+
+        MongoLimiterStatsDTO stats = limiter.getStats();
+        assertEquals(1, stats.getInFlight());
+        assertEquals(1, stats.getStreamsInFlight());
+        limiter.releaseStream();
+        limiter.acquireStream();
+    }
+
+    @Test
+    void constructor_shouldRejectNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new MongoConcurrencyLimiter(0, 1, 100));
+    }
+}
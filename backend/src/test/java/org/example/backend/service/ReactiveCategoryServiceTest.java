@@ -0,0 +1,167 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.CategoryDTO;
+import org.example.backend.exception.CategoryNotFoundException;
+import org.example.backend.model.Category;
+import org.example.backend.model.Tenant;
+import org.example.backend.repository.ReactiveCategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCategoryServiceTest {
+
+    @Mock
+    private ReactiveCategoryRepository categoryRepository;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private CategoryCascadeService categoryCascadeService;
+
+    @InjectMocks
+    private ReactiveCategoryService categoryService;
+
+    @Test
+    void createCategory_shouldSaveWhenNameIsFree() {
+        when(categoryRepository.insert(any(Category.class))).thenReturn(Mono.just(new Category("1", "Food")));
+
+        StepVerifier.create(categoryService.createCategory(new CategoryDTO(null, "Food")))
+                .expectNextMatches(dto -> dto.getId().equals("1") && dto.getName().equals("Food"))
+                .verifyComplete();
+
+        verify(collectionVersions).bump(CollectionVersions.CATEGORIES);
+    }
+
+    @Test
+    void createCategory_shouldUseTheTenantFromTheSubscriberContext() {
+        when(categoryRepository.insert(any(Category.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(categoryService.createCategory(new CategoryDTO(null, "Food"))
+                        .contextWrite(context -> TenantContext.withTenant(context, "acme")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(categoryRepository).insert(argThat((Category category) -> "acme".equals(category.getTenantId())));
+    }
+
+    @Test
+    void deleteCategory_shouldNotDeleteAnotherTenantsCategory() {
+        when(categoryRepository.findByIdAndTenantId("1", "acme")).thenReturn(Mono.empty());
+
+        StepVerifier.create(categoryService.deleteCategory("1")
+                        .contextWrite(context -> TenantContext.withTenant(context, "acme")))
+                .expectError(CategoryNotFoundException.class)
+                .verify();
+
+        verify(categoryRepository, never()).removeById(anyString(), anyString(), anyString());
+        verify(collectionVersions, never()).bump(anyString());
+        verifyNoInteractions(categoryCascadeService);
+    }
+
+    @Test
+    void createCategory_shouldRejectDuplicateName() {
+        when(categoryRepository.insert(any(Category.class))).thenReturn(Mono.error(new DuplicateKeyException("E11000")));
+
+        StepVerifier.create(categoryService.createCategory(new CategoryDTO(null, "Food")))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(collectionVersions, never()).bump(anyString());
+    }
+
+    @Test
+    void updateCategory_shouldAllowKeepingItsOwnName() {
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT)).thenReturn(Mono.just(new Category("1", "Food")));
+
+        StepVerifier.create(categoryService.updateCategory("1", new CategoryDTO("1", "Food")))
+                .expectNextMatches(dto -> dto.getName().equals("Food"))
+                .verifyComplete();
+
+        verifyNoInteractions(categoryCascadeService);
+    }
+
+    @Test
+    void updateCategory_shouldRecordCascadeBeforeRenaming() {
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT)).thenReturn(Mono.just(new Category("1", "Food")));
+        when(categoryCascadeService.prepareRename(Tenant.DEFAULT, "1", "Food", "Groceries")).thenReturn("job");
+        when(categoryRepository.rename(Tenant.DEFAULT, "1", "Food", "Groceries")).thenReturn(Mono.just(new Category("1", "Food")));
+
+        StepVerifier.create(categoryService.updateCategory("1", new CategoryDTO("1", "Groceries")))
+                .expectNextMatches(dto -> dto.getId().equals("1") && dto.getName().equals("Groceries"))
+                .verifyComplete();
+
+        InOrder inOrder = inOrder(categoryCascadeService, categoryRepository);
+        inOrder.verify(categoryCascadeService).prepareRename(Tenant.DEFAULT, "1", "Food", "Groceries");
+        inOrder.verify(categoryRepository).rename(Tenant.DEFAULT, "1", "Food", "Groceries");
+        inOrder.verify(categoryCascadeService).start("job");
+        verify(categoryRepository, never()).save(any(Category.class));
+    }
+
+    @Test
+    void updateCategory_shouldRetryWhenRenamedConcurrently() {
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT))
+                .thenReturn(Mono.just(new Category("1", "Food")), Mono.just(new Category("1", "Meals")));
+        when(categoryCascadeService.prepareRename(eq(Tenant.DEFAULT), eq("1"), anyString(), eq("Groceries")))
+                .thenReturn("stale", "job");
+        when(categoryRepository.rename(Tenant.DEFAULT, "1", "Food", "Groceries")).thenReturn(Mono.empty());
+        when(categoryRepository.rename(Tenant.DEFAULT, "1", "Meals", "Groceries")).thenReturn(Mono.just(new Category("1", "Meals")));
+
+        StepVerifier.create(categoryService.updateCategory("1", new CategoryDTO("1", "Groceries")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(categoryCascadeService).discard("stale");
+        verify(categoryCascadeService).start("job");
+    }
+
+    @Test
+    void updateCategory_shouldRejectNameTakenByAnotherCategory() {
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT)).thenReturn(Mono.just(new Category("1", "Food")));
+        when(categoryCascadeService.prepareRename(Tenant.DEFAULT, "1", "Food", "Travel")).thenReturn("job");
+        when(categoryRepository.rename(Tenant.DEFAULT, "1", "Food", "Travel")).thenReturn(Mono.error(new DuplicateKeyException("E11000")));
+
+        StepVerifier.create(categoryService.updateCategory("1", new CategoryDTO("1", "Travel")))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(collectionVersions, never()).bump(anyString());
+        verify(categoryCascadeService).discard("job");
+        verify(categoryCascadeService, never()).start(anyString());
+    }
+
+    @Test
+    void updateCategory_shouldFailForUnknownCategory() {
+        when(categoryRepository.findByIdAndTenantId("9", Tenant.DEFAULT)).thenReturn(Mono.empty());
+
+        StepVerifier.create(categoryService.updateCategory("9", new CategoryDTO("9", "Travel")))
+                .expectError(CategoryNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void deleteCategory_shouldRecordCascadeBeforeDeleting() {
+        when(categoryRepository.findByIdAndTenantId("1", Tenant.DEFAULT)).thenReturn(Mono.just(new Category("1", "Food")));
+        when(categoryCascadeService.prepareDelete(Tenant.DEFAULT, "1", "Food")).thenReturn("job");
+        when(categoryRepository.removeById(Tenant.DEFAULT, "1", "Food")).thenReturn(Mono.just(new Category("1", "Food")));
+
+        StepVerifier.create(categoryService.deleteCategory("1"))
+                .verifyComplete();
+
+        verify(categoryCascadeService).start("job");
+        verify(collectionVersions).bump(CollectionVersions.CATEGORIES);
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.ExpenseDTO;
+import org.example.backend.dto.ExpenseFilter;
+import org.example.backend.exception.ExpenseNotFoundException;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Tenant;
+import org.example.backend.repository.ReactiveExpenseRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveExpenseServiceTest {
+
+    @Mock
+    private ReactiveExpenseRepository expenseRepository;
+
+    @Mock
+    private ExpenseRollupService expenseRollupService;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @InjectMocks
+    private ReactiveExpenseService expenseService;
+
+    @Test
+    void searchExpenses_shouldMapEachExpense() {
+        ExpenseFilter filter = new ExpenseFilter();
+        when(expenseRepository.findByFilter(Tenant.DEFAULT, filter)).thenReturn(Flux.just(
+                new Expense("1", "Bread", 250, "Food", LocalDate.of(2024, 1, 2)),
+                new Expense("2", "Bus", 300, "Transport", LocalDate.of(2024, 1, 1))));
+
+        StepVerifier.create(expenseService.searchExpenses(filter))
+                .expectNextMatches(dto -> dto.getId().equals("1") && dto.getDescription().equals("Bread"))
+                .expectNextMatches(dto -> dto.getId().equals("2") && dto.getCategory().equals("Transport"))
+                .verifyComplete();
+    }
+
+    @Test
+    void createExpense_shouldSaveAndUpdateRollups() {
+        Expense saved = new Expense("1", "Bread", 250, "Food", LocalDate.now());
+        when(expenseRepository.save(any(Expense.class))).thenReturn(Mono.just(saved));
+
+        StepVerifier.create(expenseService.createExpense(new ExpenseDTO(null, "Bread", new BigDecimal("2.5"), null, "Food", null)))
+                .expectNextMatches(dto -> dto.getId().equals("1"))
+                .verifyComplete();
+
+        verify(expenseRollupService).applyCreate(saved);
+        verify(collectionVersions).bump(CollectionVersions.EXPENSES);
+    }
+
+    @Test
+    void deleteExpense_shouldErrorWhenExpenseDoesNotExist() {
+        when(expenseRepository.findByIdAndTenantId("missing", Tenant.DEFAULT)).thenReturn(Mono.empty());
+
+        StepVerifier.create(expenseService.deleteExpense("missing"))
+                .expectError(ExpenseNotFoundException.class)
+                .verify();
+
+        verify(expenseRepository, never()).delete(any(Expense.class));
+        verifyNoInteractions(expenseRollupService);
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.SuggestionsDTO;
+import org.example.backend.model.Expense;
+import org.example.backend.model.Tenant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SuggestionService suggestionService;
+
+    @BeforeEach
+    void setUp() {
+        suggestionService = new SuggestionService(mongoTemplate, 1000, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        suggestionService.shutdown();
+    }
+
+    @Test
+    void suggest_shouldRankByFrequencyWithoutTouchingMongo() {
+        suggestionService.expensesWritten(List.of(
+                expense("Coffee"), expense("coffee"), expense("Coffee beans"), expense("Cola"), expense("Train")), List.of());
+        suggestionService.categoryWritten(Tenant.DEFAULT, null, "Commute");
+
+        SuggestionsDTO suggestions = suggestionService.suggest("co", 10);
+
+        assertEquals(List.of("coffee", "Coffee beans", "Cola"), suggestions.getDescriptions());
+        assertEquals(List.of("Commute"), suggestions.getCategories());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void suggest_shouldFollowUpdatesAndDeletes() {
+        Expense coffee = expense("Coffee");
+        suggestionService.expenseWritten(null, coffee);
+        suggestionService.expenseWritten(coffee, expense("Cocoa"));
+        suggestionService.categoryWritten(Tenant.DEFAULT, null, "Food");
+        suggestionService.categoryWritten(Tenant.DEFAULT, "Food", "Groceries");
+
+        assertEquals(List.of("Cocoa"), suggestionService.suggest("co", 10).getDescriptions());
+        assertEquals(List.of(), suggestionService.suggest("fo", 10).getCategories());
+        assertEquals(List.of("Groceries"), suggestionService.suggest("G", 10).getCategories());
+    }
+
+    @Test
+    void suggest_shouldOnlyOfferTheCurrentTenantsValues() {
+        Expense lunch = expense("Lunch");
+        lunch.setTenantId("acme");
+        suggestionService.expenseWritten(null, lunch);
+        suggestionService.expenseWritten(null, expense("Laundry"));
+
+        assertEquals(List.of("Laundry"), suggestionService.suggest("l", 10).getDescriptions());
+        try (TenantContext.Scope ignored = TenantContext.bind("acme")) {
+            assertEquals(List.of("Lunch"), suggestionService.suggest("l", 10).getDescriptions());
+        }
+    }
+
+    @Test
+    void suggest_shouldRejectLimitsOutsideTheIndexedRange() {
+        assertThrows(IllegalArgumentException.class, () -> suggestionService.suggest("co", 0));
+        assertThrows(IllegalArgumentException.class, () -> suggestionService.suggest("co", SuggestionService.MAX_SUGGESTIONS + 1));
+    }
+
+    @Test
+    void typeaheadIndex_shouldSplitEdgesAndMatchPrefixesEndingInsideThem() {
+        TypeaheadIndex index = TypeaheadIndex.of(Map.of("Supermarket", 3L, "Superb dinner", 1L, "Sushi", 2L), 2);
+
+        assertEquals(List.of("Supermarket", "Sushi"), index.suggest("s", 10));
+        assertEquals(List.of("Supermarket", "Superb dinner"), index.suggest("SUPER", 10));
+        assertEquals(List.of("Supermarket"), index.suggest("superm", 10));
+        assertEquals(List.of(), index.suggest("superx", 10));
+
+        index.add("Supermarket", -3);
+        index.add("Sup", 5);
+        assertEquals(List.of("Sup", "Sushi"), index.suggest("su", 10));
+        assertEquals(List.of("Superb dinner"), index.suggest("supe", 10));
+        assertEquals(List.of("Sushi"), index.suggest("sus", 10));
+    }
+
+    private static Expense expense(String description) {
+        return new Expense(null, description, 100, "Food", LocalDate.now());
+    }
+}
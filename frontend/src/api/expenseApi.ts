@@ -1,9 +1,30 @@
 import axios from 'axios';
 import { ExpenseDTO } from '../types/ExpenseDTO';
 import { CategoryDTO } from '../types/CategoryDTO';
+import { ExpenseStatsDTO } from '../types/ExpenseStatsDTO';
+import { SuggestionsDTO } from '../types/SuggestionsDTO';
+import { EXPENSE_COLUMNS_MEDIA_TYPE, ExpenseColumnsDTO, NO_DATE } from '../types/ExpenseColumnsDTO';
 
 const API_URL = '/api/expenses';
 const CATEGORY_API_URL = 'http://localhost:8080/api/categories';
+const MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+
+// Lists are fetched column-wise, which is several times smaller than an array of objects.
+const fromColumns = (columns: ExpenseColumnsDTO): ExpenseDTO[] => {
+    const expenses: ExpenseDTO[] = new Array(columns.count);
+    for (let i = 0; i < columns.count; i++) {
+        const epochDay = columns.epochDays[i];
+        expenses[i] = {
+            id: columns.ids[i],
+            description: columns.descriptions[i],
+            amount: columns.amountCents[i] / 100,
+            currency: columns.currency,
+            category: columns.categories[columns.categoryIndexes[i]],
+            date: epochDay === NO_DATE ? '' : new Date(epochDay * MILLIS_PER_DAY).toISOString().split('T')[0],
+        };
+    }
+    return expenses;
+};
 
 export const fetchExpenses = async (
     description?: string,
@@ -27,7 +48,53 @@ export const fetchExpenses = async (
     if (sortBy) params.append('sortBy', sortBy);
     if (sortDirection) params.append('sortDirection', sortDirection);
 
-    const response = await axios.get(API_URL, { params });
+    const response = await axios.get<ExpenseColumnsDTO>(API_URL, {
+        params,
+        headers: { Accept: EXPENSE_COLUMNS_MEDIA_TYPE },
+    });
+    return fromColumns(response.data);
+};
+
+export const searchExpenses = async (
+    query: string,
+    category?: string | null,
+    minAmount?: number,
+    maxAmount?: number,
+    limit: number = 50
+): Promise<ExpenseDTO[]> => {
+    const params = new URLSearchParams();
+    params.append('q', query);
+    if (category) params.append('category', category);
+    if (minAmount !== undefined) params.append('minAmount', minAmount.toString());
+    if (maxAmount !== undefined) params.append('maxAmount', maxAmount.toString());
+    params.append('limit', limit.toString());
+
+    const response = await axios.get(`${API_URL}/search`, { params });
+    return response.data;
+};
+
+export const fetchSuggestions = async (
+    prefix: string,
+    limit: number = 8,
+    signal?: AbortSignal
+): Promise<SuggestionsDTO> => {
+    const response = await axios.get<SuggestionsDTO>(`${API_URL}/suggest`, { params: { prefix, limit }, signal });
+    return response.data;
+};
+
+export const fetchExpenseStats = async (
+    startDate?: string,
+    endDate?: string,
+    period: string = 'month',
+    category?: string | null
+): Promise<ExpenseStatsDTO> => {
+    const params = new URLSearchParams();
+    if (startDate) params.append('startDate', startDate);
+    if (endDate) params.append('endDate', endDate);
+    if (category) params.append('category', category);
+    params.append('period', period);
+
+    const response = await axios.get(`${API_URL}/stats`, { params });
     return response.data;
 };
 
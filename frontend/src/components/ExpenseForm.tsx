@@ -1,8 +1,12 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { ExpenseDTO } from '../types/ExpenseDTO';
 import { CategoryDTO } from '../types/CategoryDTO';
+import { fetchSuggestions } from '../api/expenseApi';
 import styles from './ExpenseForm.module.css';
 
+// Suggestions are requested once typing pauses for this long, not on every keystroke.
+const SUGGEST_DELAY_MS = 150;
+
 interface ExpenseFormProps {
     onSubmit: (expense: ExpenseDTO) => Promise<void>;
     initialData?: ExpenseDTO;
@@ -14,6 +18,14 @@ const ExpenseForm: React.FC<ExpenseFormProps> = ({ onSubmit, initialData, showCa
     const [description, setDescription] = useState(initialData?.description || '');
     const [amount, setAmount] = useState(initialData?.amount.toString() || '');
     const [category, setCategory] = useState(initialData?.category || '');
+    const [descriptionSuggestions, setDescriptionSuggestions] = useState<string[]>([]);
+    const suggestTimer = useRef<number | undefined>(undefined);
+    const suggestRequest = useRef<AbortController | null>(null);
+
+    useEffect(() => () => {
+        window.clearTimeout(suggestTimer.current);
+        suggestRequest.current?.abort();
+    }, []);
 
     useEffect(() => {
         if (initialData) {
@@ -23,6 +35,33 @@ const ExpenseForm: React.FC<ExpenseFormProps> = ({ onSubmit, initialData, showCa
         }
     }, [initialData]);
 
+    const handleDescriptionChange = (value: string) => {
+        setDescription(value);
+        // Only the request for the latest value may update the suggestions, so a slower response
+        // for an older prefix cannot overwrite newer ones.
+        window.clearTimeout(suggestTimer.current);
+        suggestRequest.current?.abort();
+        suggestRequest.current = null;
+        if (!value.trim()) {
+            setDescriptionSuggestions([]);
+            return;
+        }
+        suggestTimer.current = window.setTimeout(async () => {
+            const request = new AbortController();
+            suggestRequest.current = request;
+            try {
+                const suggestions = await fetchSuggestions(value, 8, request.signal);
+                if (suggestRequest.current === request) {
+                    setDescriptionSuggestions(suggestions.descriptions);
+                }
+            } catch {
+                if (suggestRequest.current === request) {
+                    setDescriptionSuggestions([]);
+                }
+            }
+        }, SUGGEST_DELAY_MS);
+    };
+
     const handleSubmit = async (e: React.FormEvent) => {
         e.preventDefault();
 
@@ -47,10 +86,17 @@ const ExpenseForm: React.FC<ExpenseFormProps> = ({ onSubmit, initialData, showCa
                     <input
                         type="text"
                         value={description}
-                        onChange={(e) => setDescription(e.target.value)}
+                        onChange={(e) => handleDescriptionChange(e.target.value)}
+                        list="description-suggestions"
+                        autoComplete="off"
                         required
                         className={styles.input}
                     />
+                    <datalist id="description-suggestions">
+                        {descriptionSuggestions.map(suggestion => (
+                            <option key={suggestion} value={suggestion} />
+                        ))}
+                    </datalist>
                 </label>
             </div>
             <div className={styles.formGroup}>
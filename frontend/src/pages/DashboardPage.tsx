@@ -118,16 +118,18 @@ const DashboardPage: React.FC = () => {
     };
 
     const filteredExpenses = filterExpenses(expenses, selectedPeriod, selectedCategories);
-    const totalSpending = filteredExpenses.reduce((sum, expense) => sum + expense.amount, 0);
+    // Sums run over whole cents so adding many decimal amounts does not drift.
+    const toCents = (amount: number) => Math.round(amount * 100);
+    const totalSpending = filteredExpenses.reduce((sum, expense) => sum + toCents(expense.amount), 0) / 100;
 
     const prepareCategoryData = (expensesToUse: ExpenseDTO[] = filteredExpenses) => {
         const categoryData: { [key: string]: number } = {};
         expensesToUse.forEach(expense => {
-            categoryData[expense.category] = (categoryData[expense.category] || 0) + expense.amount;
+            categoryData[expense.category] = (categoryData[expense.category] || 0) + toCents(expense.amount);
         });
 
         const labels = Object.keys(categoryData);
-        const amounts = Object.values(categoryData);
+        const amounts = Object.values(categoryData).map(cents => cents / 100);
         return { labels, amounts };
     };
 
@@ -135,11 +137,11 @@ const DashboardPage: React.FC = () => {
         const dailySpending: { [key: string]: number } = {};
         expensesToUse.forEach(expense => {
             const dateStr = new Date(expense.date).toISOString().split('T')[0];
-            dailySpending[dateStr] = (dailySpending[dateStr] || 0) + expense.amount;
+            dailySpending[dateStr] = (dailySpending[dateStr] || 0) + toCents(expense.amount);
         });
 
         const sortedDates = Object.keys(dailySpending).sort();
-        const amounts = sortedDates.map(date => dailySpending[date]);
+        const amounts = sortedDates.map(date => dailySpending[date] / 100);
         return { labels: sortedDates, amounts };
     };
 
@@ -1,48 +1,44 @@
-import React, { useMemo, useEffect } from 'react';
+import React, { useMemo, useEffect, useState } from 'react';
 import styles from './HomePage.module.css';
+import { fetchExpenseStats } from '../api/expenseApi';
+import { ExpenseStatsDTO } from '../types/ExpenseStatsDTO';
 import { useExpenseContext } from '../context/ExpenseContext';
 import { useCategoryContext } from '../context/CategoryContext';
 
 const HomePage: React.FC = () => {
     const { expenses, refreshExpenses } = useExpenseContext();
     const { categories } = useCategoryContext();
+    const [monthlyStats, setMonthlyStats] = useState<ExpenseStatsDTO | null>(null);
 
     useEffect(() => {
         refreshExpenses();
     }, [refreshExpenses]);
 
-    const getCurrentMonthExpenses = () => {
+    useEffect(() => {
         const now = new Date();
-        const currentMonth = now.getMonth();
-        const currentYear = now.getFullYear();
+        const pad = (value: number) => value.toString().padStart(2, '0');
+        const startOfMonth = `${now.getFullYear()}-${pad(now.getMonth() + 1)}-01`;
+        const lastDay = new Date(now.getFullYear(), now.getMonth() + 1, 0).getDate();
+        const endOfMonth = `${now.getFullYear()}-${pad(now.getMonth() + 1)}-${pad(lastDay)}`;
 
-        return expenses.filter(expense => {
-            const expenseDate = new Date(expense.date);
-            return expenseDate.getMonth() === currentMonth &&
-                expenseDate.getFullYear() === currentYear;
-        });
-    };
+        fetchExpenseStats(startOfMonth, endOfMonth, 'month')
+            .then(setMonthlyStats)
+            .catch(error => console.error("Error fetching monthly stats:", error));
+    }, [expenses]);
 
-    const currentMonthExpenses = getCurrentMonthExpenses();
-    const totalSpendingThisMonth = currentMonthExpenses.reduce(
-        (sum, expense) => sum + expense.amount,
-        0
-    );
+    const totalSpendingThisMonth = monthlyStats?.totals.total ?? 0;
 
     const categoryData = useMemo(() => {
-        const categorySpending: { [key: string]: number } = {};
-        const validExpenses = currentMonthExpenses.filter(expense =>
-            categories.some(cat => cat.name === expense.category)
-        );
-        validExpenses.forEach(expense => {
-            categorySpending[expense.category] = (categorySpending[expense.category] || 0) + expense.amount;
-        });
-
-        return Object.entries(categorySpending).map(([category, amount]) => ({
-            category,
-            amount,
-        }));
-    }, [currentMonthExpenses, categories]);
+        if (!monthlyStats) {
+            return [];
+        }
+        return monthlyStats.byCategory
+            .filter(bucket => categories.some(cat => cat.name === bucket.key))
+            .map(bucket => ({
+                category: bucket.key,
+                amount: bucket.total,
+            }));
+    }, [monthlyStats, categories]);
 
     const recentExpenses = useMemo(() => {
         return [...expenses]
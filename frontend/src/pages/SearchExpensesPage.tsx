@@ -1,29 +1,44 @@
-import React, { useState, useEffect } from 'react';
-import { fetchExpenses, deleteExpense } from '../api/expenseApi';
+import React, { useState } from 'react';
+import { fetchExpenses, searchExpenses, deleteExpense } from '../api/expenseApi';
 import ExpenseList from '../components/ExpenseList';
 import { ExpenseDTO } from '../types/ExpenseDTO';
 import styles from './SearchExpensesPage.module.css';
 import Slider from '@mui/material/Slider';
+import axios from 'axios';
+
+// The server only searches words of at least two letters or digits and rejects queries without one.
+const SEARCHABLE_WORD = /[\p{L}\p{N}]{2,}/u;
 
 const SearchExpensesPage: React.FC = () => {
-    const [expenses, setExpenses] = useState<ExpenseDTO[]>([]);
     const [searchText, setSearchText] = useState('');
     const [searchAmountRange, setSearchAmountRange] = useState<number[]>([0, 1000]);
     const [searchResults, setSearchResults] = useState<ExpenseDTO[]>([]);
+    const [error, setError] = useState<string | null>(null);
 
-    useEffect(() => {
-        fetchExpenses().then((data: ExpenseDTO[]) => {
-            setExpenses(data);
-        });
-    }, []);
-
-    const handleSearchExpenses = () => {
-        const results = expenses.filter(expense => {
-            const matchesText = searchText === '' || expense.description.toLowerCase().includes(searchText.toLowerCase());
-            const matchesAmount = expense.amount >= searchAmountRange[0] && expense.amount <= searchAmountRange[1];
-            return matchesText && matchesAmount;
-        });
-        setSearchResults(results);
+    const handleSearchExpenses = async () => {
+        const query = searchText.trim();
+        if (query && !SEARCHABLE_WORD.test(query)) {
+            setSearchResults([]);
+            setError('Enter a word of at least 2 characters to search.');
+            return;
+        }
+        try {
+            // Text queries go to the ranked server-side search; an empty query just filters by amount.
+            const results = query
+                ? await searchExpenses(query, null, searchAmountRange[0], searchAmountRange[1])
+                : await fetchExpenses(undefined, null, searchAmountRange[0], searchAmountRange[1]);
+            setSearchResults(results);
+            setError(null);
+        } catch (err: unknown) {
+            // Old results would look like the answer to the new query, so they are cleared.
+            setSearchResults([]);
+            if (axios.isAxiosError(err) && typeof err.response?.data === 'string') {
+                setError(err.response.data);
+            } else {
+                setError('Searching failed, try again.');
+            }
+            console.error(err);
+        }
     };
 
     const handleDeleteExpense = async (id: string) => {
@@ -58,6 +73,7 @@ const SearchExpensesPage: React.FC = () => {
                 </div>
             </div>
             <button onClick={handleSearchExpenses} className={styles.searchButton}>Search</button>
+            {error && <div className={styles.error}>{error}</div>}
 
             {searchResults.length > 0 && (
                 <div className={styles.resultsContainer}>
@@ -0,0 +1,14 @@
+export const EXPENSE_COLUMNS_MEDIA_TYPE = 'application/vnd.expense-columns+json';
+export const NO_DATE = -2147483648;
+
+export interface ExpenseColumnsDTO {
+    count: number;
+    currency: string;
+    ids: string[];
+    descriptions: string[];
+    // Integer cents, so sums stay exact.
+    amountCents: number[];
+    categories: string[];
+    categoryIndexes: number[];
+    epochDays: number[];
+}
@@ -3,6 +3,7 @@ export interface ExpenseDTO {
     id?: string;
     description: string;
     amount: number;
+    currency?: string;
     category: string;
     date: string;
 
@@ -0,0 +1,15 @@
+export interface StatsBucketDTO {
+    key: string;
+    total: number;
+    count: number;
+    average: number;
+    min: number;
+    max: number;
+}
+
+export interface ExpenseStatsDTO {
+    period: string;
+    totals: StatsBucketDTO;
+    byCategory: StatsBucketDTO[];
+    byPeriod: StatsBucketDTO[];
+}
@@ -0,0 +1,4 @@
+export interface SuggestionsDTO {
+    descriptions: string[];
+    categories: string[];
+}